@@ -0,0 +1,177 @@
+package com.My.E_CommerceApp.Cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * TTL cache whose entries belong to a group (e.g. every cached page of one category) so the whole
+ * group can be dropped at once when the underlying data changes.
+ *
+ * Concurrent misses on the same key share one load. A load that was running while its group got
+ * invalidated is handed to its callers but not kept, so invalidation never races with a stale write-back.
+ * A group only exists while it holds entries; a full group makes room by dropping expired entries, or
+ * else its oldest one.
+ */
+public class GroupedCache<G, K, V> {
+
+    // Invalidation counters, striped by group, so a load can tell whether its group was dropped meanwhile
+    private static final int INVALIDATION_STRIPES = 64;
+
+    private final long ttlNanos;
+    private final int maxKeysPerGroup;
+    private final ConcurrentHashMap<G, Group<K, V>> groups = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LoadKey<G, K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    public GroupedCache(long ttlMillis, int maxKeysPerGroup) {
+        if (ttlMillis <= 0 || maxKeysPerGroup <= 0) {
+            throw new IllegalArgumentException("Expected positive ttl and maxKeysPerGroup, got ttl=" + ttlMillis
+                    + ", maxKeysPerGroup=" + maxKeysPerGroup);
+        }
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxKeysPerGroup = maxKeysPerGroup;
+    }
+
+    public V get(G groupKey, K key, Supplier<V> loader) {
+        Group<K, V> group = groups.get(groupKey);
+        Entry<V> entry = group != null ? group.entries.get(key) : null;
+        if (entry != null) {
+            if (!isExpired(entry, System.nanoTime())) {
+                return entry.value;
+            }
+            removeExpired(groupKey, key, entry);
+        }
+
+        LoadKey<G, K> loadKey = new LoadKey<>(groupKey, key);
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(loadKey, created);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        int stripe = stripe(groupKey);
+        long stamp = invalidations.get(stripe);
+        try {
+            V value = loader.get();
+            store(groupKey, key, value, stripe, stamp);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(loadKey, created);
+        }
+    }
+
+    public void invalidateGroup(G groupKey) {
+        // Counted under the group's map slot, so a concurrent store sees either the old group or the new count
+        groups.compute(groupKey, (k, group) -> {
+            invalidations.incrementAndGet(stripe(groupKey));
+            return null;
+        });
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        groups.clear();
+    }
+
+    // Keeps the value only if the group was not invalidated since the load started
+    private void store(G groupKey, K key, V value, int stripe, long stamp) {
+        groups.compute(groupKey, (k, group) -> {
+            if (invalidations.get(stripe) != stamp) {
+                return group;
+            }
+            if (group == null) {
+                group = new Group<>();
+            }
+            long now = System.nanoTime();
+            if (!group.entries.containsKey(key) && group.entries.size() >= maxKeysPerGroup) {
+                makeRoom(group, now);
+            }
+            group.entries.put(key, new Entry<>(value, now));
+            return group;
+        });
+    }
+
+    // Drops every expired entry; if none had expired, drops the oldest one
+    private void makeRoom(Group<K, V> group, long now) {
+        K oldestKey = null;
+        long oldestLoadedAt = Long.MAX_VALUE;
+        boolean removed = false;
+        for (Map.Entry<K, Entry<V>> candidate : group.entries.entrySet()) {
+            Entry<V> entry = candidate.getValue();
+            if (isExpired(entry, now)) {
+                removed |= group.entries.remove(candidate.getKey(), entry);
+            } else if (entry.loadedAt < oldestLoadedAt) {
+                oldestLoadedAt = entry.loadedAt;
+                oldestKey = candidate.getKey();
+            }
+        }
+        if (!removed && oldestKey != null) {
+            group.entries.remove(oldestKey);
+        }
+    }
+
+    private void removeExpired(G groupKey, K key, Entry<V> entry) {
+        groups.computeIfPresent(groupKey, (k, group) -> {
+            group.entries.remove(key, entry);
+            return group.entries.isEmpty() ? null : group;
+        });
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return now - entry.loadedAt >= ttlNanos;
+    }
+
+    private static int stripe(Object groupKey) {
+        int hash = groupKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache load", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private record LoadKey<G, K>(G groupKey, K key) {
+    }
+
+    private static final class Group<K, V> {
+        private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
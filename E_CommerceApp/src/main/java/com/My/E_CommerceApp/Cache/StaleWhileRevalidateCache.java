@@ -0,0 +1,123 @@
+package com.My.E_CommerceApp.Cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Small in-process cache for slowly changing, heavily read values.
+ *
+ * - Fresh entries (younger than the TTL) are returned as is.
+ * - Stale entries (older than the TTL, younger than the max staleness) are returned immediately while a
+ *   background reload runs, so callers never wait on a slow database when there is something to serve.
+ * - Concurrent loads of the same key share one in-flight future (single-flight), so an expiry never
+ *   turns into a stampede of identical queries.
+ * - A failed reload keeps the previous value; only a cold miss surfaces the loader's exception.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCache(long ttlMillis, long maxStaleMillis, Executor refreshExecutor) {
+        if (ttlMillis <= 0 || maxStaleMillis < ttlMillis) {
+            throw new IllegalArgumentException("Expected 0 < ttl <= maxStale, got ttl=" + ttlMillis + ", maxStale=" + maxStaleMillis);
+        }
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxStaleNanos = maxStaleMillis * 1_000_000;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt;
+            if (age < ttlNanos) {
+                return entry.value;
+            }
+            if (age < maxStaleNanos) {
+                load(key, loader, refreshExecutor);
+                return entry.value;
+            }
+        }
+
+        // Cold or too stale to serve: wait for the (shared) load
+        try {
+            return load(key, loader, Runnable::run).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading cache key " + key, ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private CompletableFuture<V> load(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loader.get();
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                    created.complete(value);
+                } catch (Throwable ex) {
+                    created.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RuntimeException rejected) {
+            // Refresh pool saturated: drop this refresh, the stale value keeps being served
+            inFlight.remove(key, created);
+            created.completeExceptionally(rejected);
+        }
+        return created;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
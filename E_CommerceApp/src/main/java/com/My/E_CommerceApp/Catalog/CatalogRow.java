@@ -0,0 +1,31 @@
+package com.My.E_CommerceApp.Catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One ACTIVE product as the catalog snapshot stores it: scalar fields plus its images and specifications.
+ * Used to feed a snapshot and materialised again (one short-lived object) when a read needs the product.
+ * Category, sub-category and vendor are ids; their names live once in the snapshot's lookup tables.
+ */
+public record CatalogRow(long id, String name, String description, BigDecimal price, int stock, Double discount,
+                         String brand, Double rating, boolean featured, long categoryId, long subCategoryId,
+                         long vendorId, String primaryImagePath, LocalDateTime createdAt, LocalDateTime updatedAt,
+                         List<Image> images, List<Spec> specifications) {
+
+    /** No sub-category. Entity ids start at 1, so 0 is never a real id. */
+    public static final long NONE = 0L;
+
+    public CatalogRow withDetails(List<Image> newImages, List<Spec> newSpecifications) {
+        return new CatalogRow(id, name, description, price, stock, discount, brand, rating, featured, categoryId,
+                subCategoryId, vendorId, primaryImagePath, createdAt, updatedAt, newImages, newSpecifications);
+    }
+
+    public record Image(long id, String fileName, String filePath, String fileType, Long fileSize, String altText,
+                        Integer sortOrder, Boolean isPrimary, String mimeType) {
+    }
+
+    public record Spec(String key, String value, Integer displayOrder) {
+    }
+}
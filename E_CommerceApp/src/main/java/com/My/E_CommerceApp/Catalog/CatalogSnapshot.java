@@ -0,0 +1,657 @@
+package com.My.E_CommerceApp.Catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory read model of the ACTIVE catalog: products, plus the names of their categories,
+ * sub-categories and vendors.
+ *
+ * Products live in fixed-size chunks of parallel arrays (one array per column, one slot per product),
+ * so there is no object per product and repeated strings are shared. A product is found by binary search
+ * over a sorted id array; listings are int arrays of slots, already in listing order
+ * ({@code createdAt DESC, id DESC}).
+ *
+ * Nothing is ever modified after construction. {@link #withChanges} returns a new snapshot that copies
+ * only the chunks and listings the changes touch and shares everything else, so a writer can publish it
+ * with one volatile write while readers keep using the old one without any locking. A removed product
+ * leaves a dead slot behind; {@link #compact()} reclaims them. Whole snapshots (a full build, a file load,
+ * a compaction) are laid out by a {@link Builder} from products in id order instead.
+ */
+public final class CatalogSnapshot {
+
+    public enum Listing {
+        SUB_CATEGORY,           // ACTIVE products of a sub-category
+        FEATURED_IN_CATEGORY    // featured ACTIVE products of a category
+    }
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int[] NO_SLOTS = new int[0];
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new Chunk[0], 0, new long[0], new int[0],
+            Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+    private final long version;
+    private final Chunk[] chunks;
+    private final int slotCount;                        // slots handed out, dead ones included
+    private final long[] sortedIds;                     // live product ids, ascending
+    private final int[] slotOfSortedId;                 // slot of sortedIds[i]
+    private final Map<Long, int[]> subCategorySlots;
+    private final Map<Long, int[]> featuredCategorySlots;
+    private final Map<Long, String> categoryNames;
+    private final Map<Long, String> subCategoryNames;
+    private final Map<Long, String> vendorNames;
+
+    private CatalogSnapshot(long version, Chunk[] chunks, int slotCount, long[] sortedIds, int[] slotOfSortedId,
+                            Map<Long, int[]> subCategorySlots, Map<Long, int[]> featuredCategorySlots,
+                            Map<Long, String> categoryNames, Map<Long, String> subCategoryNames,
+                            Map<Long, String> vendorNames) {
+        this.version = version;
+        this.chunks = chunks;
+        this.slotCount = slotCount;
+        this.sortedIds = sortedIds;
+        this.slotOfSortedId = slotOfSortedId;
+        this.subCategorySlots = subCategorySlots;
+        this.featuredCategorySlots = featuredCategorySlots;
+        this.categoryNames = categoryNames;
+        this.subCategoryNames = subCategoryNames;
+        this.vendorNames = vendorNames;
+    }
+
+    // ==================== READS ====================
+
+    public long version() {
+        return version;
+    }
+
+    /** Live (ACTIVE) products. */
+    public int size() {
+        return sortedIds.length;
+    }
+
+    /** Slots still held by removed products; they are reclaimed by {@link #compact()}. */
+    public int deadSlots() {
+        return slotCount - sortedIds.length;
+    }
+
+    public boolean contains(long productId) {
+        return Arrays.binarySearch(sortedIds, productId) >= 0;
+    }
+
+    /** The product, or null when it is not in the snapshot (unknown, or not ACTIVE). */
+    public CatalogRow get(long productId) {
+        int index = Arrays.binarySearch(sortedIds, productId);
+        return index < 0 ? null : row(slotOfSortedId[index]);
+    }
+
+    /** The products that are in the snapshot, in the order of {@code productIds}. */
+    public List<CatalogRow> getAll(Collection<Long> productIds) {
+        List<CatalogRow> rows = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            CatalogRow row = productId != null ? get(productId) : null;
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    public String categoryName(long categoryId) {
+        return categoryNames.get(categoryId);
+    }
+
+    public String subCategoryName(long subCategoryId) {
+        return subCategoryId == CatalogRow.NONE ? null : subCategoryNames.get(subCategoryId);
+    }
+
+    public String vendorName(long vendorId) {
+        return vendorNames.get(vendorId);
+    }
+
+    /** Every product in id order, each materialised as a row (persistence, compaction). */
+    public List<CatalogRow> rows() {
+        List<CatalogRow> rows = new ArrayList<>(sortedIds.length);
+        for (int slot : slotOfSortedId) {
+            rows.add(row(slot));
+        }
+        return rows;
+    }
+
+    /** Ids of every product, ascending. */
+    public long[] ids() {
+        return sortedIds.clone();
+    }
+
+    public Map<Long, String> categoryNames() {
+        return categoryNames;
+    }
+
+    public Map<Long, String> subCategoryNames() {
+        return subCategoryNames;
+    }
+
+    public Map<Long, String> vendorNames() {
+        return vendorNames;
+    }
+
+    public int count(Listing listing, long key) {
+        return slots(listing, key).length;
+    }
+
+    /** Products at positions [offset, offset + limit) of the listing. */
+    public List<CatalogRow> page(Listing listing, long key, int offset, int limit) {
+        int[] slots = slots(listing, key);
+        int from = Math.min(Math.max(offset, 0), slots.length);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), slots.length);
+        List<CatalogRow> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(row(slots[i]));
+        }
+        return rows;
+    }
+
+    /**
+     * Up to {@code limit} products of the listing that come after the keyset position
+     * ({@code createdAt}, {@code id}); from the start when {@code createdAt} is null.
+     */
+    public List<CatalogRow> after(Listing listing, long key, LocalDateTime createdAt, Long id, int limit) {
+        if (createdAt == null || id == null) {
+            return page(listing, key, 0, limit);
+        }
+        int[] slots = slots(listing, key);
+        long seconds = createdAt.toEpochSecond(ZoneOffset.UTC);
+        int nanos = createdAt.getNano();
+        // First slot strictly after the position, i.e. older, or as old with a smaller id
+        int low = 0;
+        int high = slots.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToPosition(slots[middle], seconds, nanos, id) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return page(listing, key, low, limit);
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * A new snapshot with {@code upserts} written (added, or replacing the product with the same id),
+     * {@code removedIds} dropped, and the given names added to the lookup tables. This snapshot is unchanged.
+     */
+    public CatalogSnapshot withChanges(Collection<CatalogRow> upserts, Collection<Long> removedIds,
+                                       Map<Long, String> categoryNameUpdates,
+                                       Map<Long, String> subCategoryNameUpdates,
+                                       Map<Long, String> vendorNameUpdates) {
+        Chunk[] newChunks = chunks.clone();
+        boolean[] copied = new boolean[newChunks.length];
+        int newSlotCount = slotCount;
+
+        Set<Long> touchedSubCategories = new HashSet<>();
+        Set<Long> touchedCategories = new HashSet<>();
+        Set<Integer> changedSlots = new HashSet<>();
+        Map<Long, Integer> insertedSlots = new HashMap<>();
+        Set<Long> removed = new HashSet<>();
+        Set<Long> dropped = new HashSet<>(removedIds);
+
+        for (Long productId : dropped) {
+            int slot = slotOf(productId);
+            if (slot < 0) {
+                continue;
+            }
+            Chunk chunk = chunks[slot >>> CHUNK_SHIFT];
+            touchPlacement(chunk, slot & CHUNK_MASK, touchedSubCategories, touchedCategories);
+            if (!copied[slot >>> CHUNK_SHIFT]) {
+                newChunks[slot >>> CHUNK_SHIFT] = new Chunk(chunk);
+                copied[slot >>> CHUNK_SHIFT] = true;
+            }
+            newChunks[slot >>> CHUNK_SHIFT].clear(slot & CHUNK_MASK);
+            changedSlots.add(slot);
+            removed.add(productId);
+        }
+
+        for (CatalogRow row : upserts) {
+            if (dropped.contains(row.id())) {
+                continue;
+            }
+            Integer inserted = insertedSlots.get(row.id());
+            int slot = inserted != null ? inserted : slotOf(row.id());
+            if (slot >= 0 && inserted == null) {
+                touchPlacement(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK, touchedSubCategories, touchedCategories);
+            } else if (slot < 0) {
+                slot = newSlotCount++;
+                insertedSlots.put(row.id(), slot);
+                if ((slot >>> CHUNK_SHIFT) >= newChunks.length) {
+                    newChunks = Arrays.copyOf(newChunks, newChunks.length + 1);
+                    copied = Arrays.copyOf(copied, newChunks.length);
+                    newChunks[newChunks.length - 1] = new Chunk();
+                    copied[newChunks.length - 1] = true;
+                }
+            }
+            int chunkIndex = slot >>> CHUNK_SHIFT;
+            if (!copied[chunkIndex]) {
+                newChunks[chunkIndex] = new Chunk(newChunks[chunkIndex]);
+                copied[chunkIndex] = true;
+            }
+            newChunks[chunkIndex].set(slot & CHUNK_MASK, row);
+            if (row.subCategoryId() != CatalogRow.NONE) {
+                touchedSubCategories.add(row.subCategoryId());
+            }
+            if (row.featured()) {
+                touchedCategories.add(row.categoryId());
+            }
+            changedSlots.add(slot);
+        }
+
+        // Id index: only rebuilt when the set of products changed
+        long[] newSortedIds = sortedIds;
+        int[] newSlotOfSortedId = slotOfSortedId;
+        if (!removed.isEmpty() || !insertedSlots.isEmpty()) {
+            long[] insertedIds = insertedSlots.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            int size = sortedIds.length - removed.size() + insertedIds.length;
+            newSortedIds = new long[size];
+            newSlotOfSortedId = new int[size];
+            int out = 0;
+            int next = 0;
+            for (int i = 0; i < sortedIds.length; i++) {
+                if (removed.contains(sortedIds[i])) {
+                    continue;
+                }
+                while (next < insertedIds.length && insertedIds[next] < sortedIds[i]) {
+                    newSortedIds[out] = insertedIds[next];
+                    newSlotOfSortedId[out++] = insertedSlots.get(insertedIds[next++]);
+                }
+                newSortedIds[out] = sortedIds[i];
+                newSlotOfSortedId[out++] = slotOfSortedId[i];
+            }
+            while (next < insertedIds.length) {
+                newSortedIds[out] = insertedIds[next];
+                newSlotOfSortedId[out++] = insertedSlots.get(insertedIds[next++]);
+            }
+        }
+
+        Map<Long, int[]> newSubCategorySlots = rebuildListings(subCategorySlots, touchedSubCategories, newChunks,
+                changedSlots, (chunk, offset) -> chunk.live[offset] ? chunk.subCategoryIds[offset] : CatalogRow.NONE);
+        Map<Long, int[]> newFeaturedCategorySlots = rebuildListings(featuredCategorySlots, touchedCategories, newChunks,
+                changedSlots, (chunk, offset) -> chunk.live[offset] && chunk.featured[offset]
+                        ? chunk.categoryIds[offset] : CatalogRow.NONE);
+
+        return new CatalogSnapshot(version + 1, newChunks, newSlotCount, newSortedIds, newSlotOfSortedId,
+                newSubCategorySlots, newFeaturedCategorySlots,
+                merge(categoryNames, categoryNameUpdates),
+                merge(subCategoryNames, subCategoryNameUpdates),
+                merge(vendorNames, vendorNameUpdates));
+    }
+
+    /** A new snapshot whose lookup tables are replaced outright (e.g. after a periodic reload). */
+    public CatalogSnapshot withNames(Map<Long, String> newCategoryNames, Map<Long, String> newSubCategoryNames,
+                                     Map<Long, String> newVendorNames) {
+        return new CatalogSnapshot(version + 1, chunks, slotCount, sortedIds, slotOfSortedId,
+                subCategorySlots, featuredCategorySlots,
+                Collections.unmodifiableMap(new HashMap<>(newCategoryNames)),
+                Collections.unmodifiableMap(new HashMap<>(newSubCategoryNames)),
+                Collections.unmodifiableMap(new HashMap<>(newVendorNames)));
+    }
+
+    /** The same content re-laid out without dead slots. */
+    public CatalogSnapshot compact() {
+        Builder builder = new Builder();
+        for (int slot : slotOfSortedId) {
+            builder.add(row(slot));
+        }
+        CatalogSnapshot compacted = builder.build(categoryNames, subCategoryNames, vendorNames);
+        return new CatalogSnapshot(version + 1, compacted.chunks, compacted.slotCount, compacted.sortedIds,
+                compacted.slotOfSortedId, compacted.subCategorySlots, compacted.featuredCategorySlots,
+                compacted.categoryNames, compacted.subCategoryNames, compacted.vendorNames);
+    }
+
+    /**
+     * Lays out a whole snapshot from products added in ascending id order. Each product is written straight
+     * into the next slot, so nothing else is held per product: the id index is the slot order itself and
+     * listings are sorted once at the end.
+     */
+    public static final class Builder {
+
+        private final List<Chunk> chunks = new ArrayList<>();
+        private long[] ids = new long[CHUNK_SIZE];
+        private int size;
+
+        public Builder add(CatalogRow row) {
+            if (size > 0 && row.id() <= ids[size - 1]) {
+                throw new IllegalArgumentException("Product " + row.id() + " added after " + ids[size - 1]
+                        + "; products must be added in ascending id order");
+            }
+            if ((size & CHUNK_MASK) == 0) {
+                chunks.add(new Chunk());
+            }
+            chunks.get(size >>> CHUNK_SHIFT).set(size & CHUNK_MASK, row);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = row.id();
+            return this;
+        }
+
+        public CatalogSnapshot build(Map<Long, String> categoryNames, Map<Long, String> subCategoryNames,
+                                     Map<Long, String> vendorNames) {
+            Chunk[] built = chunks.toArray(new Chunk[0]);
+            int[] slots = new int[size];
+            for (int slot = 0; slot < size; slot++) {
+                slots[slot] = slot;
+            }
+            return new CatalogSnapshot(1, built, size, Arrays.copyOf(ids, size), slots,
+                    buildListings(built, size, (chunk, offset) -> chunk.subCategoryIds[offset]),
+                    buildListings(built, size, (chunk, offset) -> chunk.featured[offset]
+                            ? chunk.categoryIds[offset] : CatalogRow.NONE),
+                    merge(Map.of(), categoryNames),
+                    merge(Map.of(), subCategoryNames),
+                    merge(Map.of(), vendorNames));
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private int slotOf(long productId) {
+        int index = Arrays.binarySearch(sortedIds, productId);
+        return index < 0 ? -1 : slotOfSortedId[index];
+    }
+
+    private CatalogRow row(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].get(slot & CHUNK_MASK);
+    }
+
+    private int[] slots(Listing listing, long key) {
+        Map<Long, int[]> listings = listing == Listing.SUB_CATEGORY ? subCategorySlots : featuredCategorySlots;
+        return listings.getOrDefault(key, NO_SLOTS);
+    }
+
+    // Listing order of a slot relative to a keyset position: negative = listed before it
+    private int compareToPosition(int slot, long seconds, int nanos, long id) {
+        Chunk chunk = chunks[slot >>> CHUNK_SHIFT];
+        int offset = slot & CHUNK_MASK;
+        int byTime = compareTime(seconds, nanos, chunk.createdSeconds[offset], chunk.createdNanos[offset]);
+        return byTime != 0 ? byTime : Long.compare(id, chunk.ids[offset]);
+    }
+
+    // createdAt DESC, id DESC; a missing createdAt sorts last
+    private static int compareListingOrder(Chunk[] chunks, int slotA, int slotB) {
+        Chunk a = chunks[slotA >>> CHUNK_SHIFT];
+        Chunk b = chunks[slotB >>> CHUNK_SHIFT];
+        int offsetA = slotA & CHUNK_MASK;
+        int offsetB = slotB & CHUNK_MASK;
+        int byTime = compareTime(b.createdSeconds[offsetB], b.createdNanos[offsetB],
+                a.createdSeconds[offsetA], a.createdNanos[offsetA]);
+        return byTime != 0 ? byTime : Long.compare(b.ids[offsetB], a.ids[offsetA]);
+    }
+
+    private static int compareTime(long secondsA, int nanosA, long secondsB, int nanosB) {
+        int bySeconds = Long.compare(secondsA, secondsB);
+        return bySeconds != 0 ? bySeconds : Integer.compare(nanosA, nanosB);
+    }
+
+    private static void touchPlacement(Chunk chunk, int offset, Set<Long> subCategories, Set<Long> categories) {
+        if (chunk.subCategoryIds[offset] != CatalogRow.NONE) {
+            subCategories.add(chunk.subCategoryIds[offset]);
+        }
+        if (chunk.featured[offset]) {
+            categories.add(chunk.categoryIds[offset]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ListingKey {
+        long of(Chunk chunk, int offset);
+    }
+
+    /**
+     * Rebuilds the listings of the touched keys: unchanged slots keep their (sorted) order, changed slots
+     * that still belong are sorted and merged in. Listings of other keys are shared with the old map.
+     */
+    private static Map<Long, int[]> rebuildListings(Map<Long, int[]> listings, Set<Long> touchedKeys, Chunk[] chunks,
+                                                    Set<Integer> changedSlots, ListingKey keyOf) {
+        if (touchedKeys.isEmpty()) {
+            return listings;
+        }
+        Map<Long, List<Integer>> joining = new HashMap<>();
+        for (int slot : changedSlots) {
+            long key = keyOf.of(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK);
+            if (key != CatalogRow.NONE && touchedKeys.contains(key)) {
+                joining.computeIfAbsent(key, k -> new ArrayList<>()).add(slot);
+            }
+        }
+
+        Map<Long, int[]> rebuilt = new HashMap<>(listings);
+        for (Long key : touchedKeys) {
+            int[] kept = Arrays.stream(listings.getOrDefault(key, NO_SLOTS))
+                    .filter(slot -> !changedSlots.contains(slot))
+                    .toArray();
+            List<Integer> added = joining.getOrDefault(key, new ArrayList<>());
+            added.sort((a, b) -> compareListingOrder(chunks, a, b));
+
+            int[] merged = new int[kept.length + added.size()];
+            int i = 0;
+            int j = 0;
+            int out = 0;
+            while (i < kept.length || j < added.size()) {
+                if (j == added.size() || (i < kept.length && compareListingOrder(chunks, kept[i], added.get(j)) <= 0)) {
+                    merged[out++] = kept[i++];
+                } else {
+                    merged[out++] = added.get(j++);
+                }
+            }
+            if (merged.length == 0) {
+                rebuilt.remove(key);
+            } else {
+                rebuilt.put(key, merged);
+            }
+        }
+        return Collections.unmodifiableMap(rebuilt);
+    }
+
+    // Listings of every key over slots 0 .. size - 1: counted, filled, then each sorted once
+    private static Map<Long, int[]> buildListings(Chunk[] chunks, int size, ListingKey keyOf) {
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            long key = keyOf.of(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK);
+            if (key != CatalogRow.NONE) {
+                counts.computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+        }
+        Map<Long, int[]> listings = new HashMap<>(counts.size() * 2);
+        counts.forEach((key, count) -> listings.put(key, new int[count[0]]));
+        counts.values().forEach(count -> count[0] = 0);
+        for (int slot = 0; slot < size; slot++) {
+            long key = keyOf.of(chunks[slot >>> CHUNK_SHIFT], slot & CHUNK_MASK);
+            if (key != CatalogRow.NONE) {
+                listings.get(key)[counts.get(key)[0]++] = slot;
+            }
+        }
+        listings.values().forEach(slots -> sortByListingOrder(slots, chunks));
+        return Collections.unmodifiableMap(listings);
+    }
+
+    // Bottom-up merge sort over primitive slots
+    private static void sortByListingOrder(int[] slots, Chunk[] chunks) {
+        int[] buffer = new int[slots.length];
+        for (int width = 1; width < slots.length; width <<= 1) {
+            for (int from = 0; from < slots.length; from += 2 * width) {
+                int middle = Math.min(from + width, slots.length);
+                int to = Math.min(from + 2 * width, slots.length);
+                int i = from;
+                int j = middle;
+                int out = from;
+                while (i < middle || j < to) {
+                    if (j == to || (i < middle && compareListingOrder(chunks, slots[i], slots[j]) <= 0)) {
+                        buffer[out++] = slots[i++];
+                    } else {
+                        buffer[out++] = slots[j++];
+                    }
+                }
+            }
+            System.arraycopy(buffer, 0, slots, 0, slots.length);
+        }
+    }
+
+    private static Map<Long, String> merge(Map<Long, String> names, Map<Long, String> updates) {
+        if (updates.isEmpty()) {
+            return names;
+        }
+        Map<Long, String> merged = new HashMap<>(names);
+        updates.forEach((id, name) -> merged.put(id, name != null ? name.intern() : null));
+        return Collections.unmodifiableMap(merged);
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    // ==================== STORAGE ====================
+
+    /** CHUNK_SIZE products as parallel column arrays; a chunk is copied before it is written. */
+    private static final class Chunk {
+
+        final boolean[] live;
+        final long[] ids;
+        final String[] names;
+        final String[] descriptions;
+        final BigDecimal[] prices;
+        final int[] stocks;
+        final double[] discounts;           // NaN = null
+        final String[] brands;
+        final double[] ratings;             // NaN = null
+        final boolean[] featured;
+        final long[] categoryIds;
+        final long[] subCategoryIds;
+        final long[] vendorIds;
+        final String[] primaryImagePaths;
+        final long[] createdSeconds;        // UTC-normalised LocalDateTime; NO_TIME = null
+        final int[] createdNanos;
+        final long[] updatedSeconds;
+        final int[] updatedNanos;
+        final Object[] images;              // List<CatalogRow.Image>
+        final Object[] specifications;      // List<CatalogRow.Spec>
+
+        Chunk() {
+            live = new boolean[CHUNK_SIZE];
+            ids = new long[CHUNK_SIZE];
+            names = new String[CHUNK_SIZE];
+            descriptions = new String[CHUNK_SIZE];
+            prices = new BigDecimal[CHUNK_SIZE];
+            stocks = new int[CHUNK_SIZE];
+            discounts = new double[CHUNK_SIZE];
+            brands = new String[CHUNK_SIZE];
+            ratings = new double[CHUNK_SIZE];
+            featured = new boolean[CHUNK_SIZE];
+            categoryIds = new long[CHUNK_SIZE];
+            subCategoryIds = new long[CHUNK_SIZE];
+            vendorIds = new long[CHUNK_SIZE];
+            primaryImagePaths = new String[CHUNK_SIZE];
+            createdSeconds = new long[CHUNK_SIZE];
+            createdNanos = new int[CHUNK_SIZE];
+            updatedSeconds = new long[CHUNK_SIZE];
+            updatedNanos = new int[CHUNK_SIZE];
+            images = new Object[CHUNK_SIZE];
+            specifications = new Object[CHUNK_SIZE];
+        }
+
+        Chunk(Chunk other) {
+            live = other.live.clone();
+            ids = other.ids.clone();
+            names = other.names.clone();
+            descriptions = other.descriptions.clone();
+            prices = other.prices.clone();
+            stocks = other.stocks.clone();
+            discounts = other.discounts.clone();
+            brands = other.brands.clone();
+            ratings = other.ratings.clone();
+            featured = other.featured.clone();
+            categoryIds = other.categoryIds.clone();
+            subCategoryIds = other.subCategoryIds.clone();
+            vendorIds = other.vendorIds.clone();
+            primaryImagePaths = other.primaryImagePaths.clone();
+            createdSeconds = other.createdSeconds.clone();
+            createdNanos = other.createdNanos.clone();
+            updatedSeconds = other.updatedSeconds.clone();
+            updatedNanos = other.updatedNanos.clone();
+            images = other.images.clone();
+            specifications = other.specifications.clone();
+        }
+
+        void set(int offset, CatalogRow row) {
+            live[offset] = true;
+            ids[offset] = row.id();
+            names[offset] = row.name();
+            descriptions[offset] = row.description();
+            prices[offset] = row.price();
+            stocks[offset] = row.stock();
+            discounts[offset] = row.discount() != null ? row.discount() : Double.NaN;
+            brands[offset] = intern(row.brand());
+            ratings[offset] = row.rating() != null ? row.rating() : Double.NaN;
+            featured[offset] = row.featured();
+            categoryIds[offset] = row.categoryId();
+            subCategoryIds[offset] = row.subCategoryId();
+            vendorIds[offset] = row.vendorId();
+            primaryImagePaths[offset] = row.primaryImagePath();
+            createdSeconds[offset] = row.createdAt() != null ? row.createdAt().toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+            createdNanos[offset] = row.createdAt() != null ? row.createdAt().getNano() : 0;
+            updatedSeconds[offset] = row.updatedAt() != null ? row.updatedAt().toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+            updatedNanos[offset] = row.updatedAt() != null ? row.updatedAt().getNano() : 0;
+            images[offset] = List.copyOf(row.images());
+            specifications[offset] = List.copyOf(row.specifications());
+        }
+
+        // Drops the references of a removed product so its strings can be collected before the next compaction
+        void clear(int offset) {
+            live[offset] = false;
+            names[offset] = null;
+            descriptions[offset] = null;
+            prices[offset] = null;
+            brands[offset] = null;
+            primaryImagePaths[offset] = null;
+            images[offset] = null;
+            specifications[offset] = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        CatalogRow get(int offset) {
+            return new CatalogRow(
+                    ids[offset],
+                    names[offset],
+                    descriptions[offset],
+                    prices[offset],
+                    stocks[offset],
+                    Double.isNaN(discounts[offset]) ? null : discounts[offset],
+                    brands[offset],
+                    Double.isNaN(ratings[offset]) ? null : ratings[offset],
+                    featured[offset],
+                    categoryIds[offset],
+                    subCategoryIds[offset],
+                    vendorIds[offset],
+                    primaryImagePaths[offset],
+                    time(createdSeconds[offset], createdNanos[offset]),
+                    time(updatedSeconds[offset], updatedNanos[offset]),
+                    (List<CatalogRow.Image>) images[offset],
+                    (List<CatalogRow.Spec>) specifications[offset]
+            );
+        }
+
+        private static LocalDateTime time(long seconds, int nanos) {
+            return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+    }
+}
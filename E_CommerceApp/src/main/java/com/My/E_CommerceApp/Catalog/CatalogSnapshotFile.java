@@ -0,0 +1,356 @@
+package com.My.E_CommerceApp.Catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file form of a {@link CatalogSnapshot}, so a restart can load the catalog instead of rebuilding it
+ * from MySQL.
+ *
+ * Layout (big-endian): magic, format version and watermark; a table holding every distinct string once;
+ * the category, sub-category and vendor names; one record per product that refers to strings by table index;
+ * and a CRC32 of everything before it. Strings repeated across products (brands, specification keys and
+ * values, mime types) take space once and are loaded as one shared instance.
+ *
+ * The watermark is the highest product {@code updatedAt} in the file: changes from then on are not in it and
+ * have to be replayed from the database. Files are written to a temporary sibling and moved into place, so a
+ * reader never sees a partial file; they are read by memory-mapping and decoding them in one sequential pass,
+ * each product going straight into the snapshot being built.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x43534E50;           // "CSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int HAS_DISCOUNT = 1;
+    private static final int HAS_RATING = 1 << 1;
+    private static final int FEATURED = 1 << 2;
+    private static final int HAS_FILE_SIZE = 1;
+    private static final int HAS_SORT_ORDER = 1 << 1;
+    private static final int HAS_IS_PRIMARY = 1 << 2;
+    private static final int IS_PRIMARY = 1 << 3;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /** What a file holds: the snapshot and the {@code updatedAt} high-water mark of its products (null when empty). */
+    public record Contents(CatalogSnapshot snapshot, LocalDateTime watermark) {
+    }
+
+    // ==================== WRITE ====================
+
+    /** Writes the snapshot to {@code path}, replacing any previous file; returns the watermark written. */
+    public static LocalDateTime write(CatalogSnapshot snapshot, Path path) throws IOException {
+        List<CatalogRow> rows = snapshot.rows();
+        LocalDateTime watermark = null;
+        for (CatalogRow row : rows) {
+            if (row.updatedAt() != null && (watermark == null || row.updatedAt().isAfter(watermark))) {
+                watermark = row.updatedAt();
+            }
+        }
+
+        StringTable strings = new StringTable();
+        for (CatalogRow row : rows) {
+            strings.add(row.name(), row.description(), row.brand(), row.primaryImagePath());
+            for (CatalogRow.Image image : row.images()) {
+                strings.add(image.fileName(), image.filePath(), image.fileType(), image.altText(), image.mimeType());
+            }
+            for (CatalogRow.Spec spec : row.specifications()) {
+                strings.add(spec.key(), spec.value());
+            }
+        }
+        snapshot.categoryNames().values().forEach(strings::add);
+        snapshot.subCategoryNames().values().forEach(strings::add);
+        snapshot.vendorNames().values().forEach(strings::add);
+
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeTime(out, watermark);
+
+            out.writeInt(strings.values.size());
+            for (String value : strings.values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            writeNames(out, snapshot.categoryNames(), strings);
+            writeNames(out, snapshot.subCategoryNames(), strings);
+            writeNames(out, snapshot.vendorNames(), strings);
+
+            out.writeInt(rows.size());
+            for (CatalogRow row : rows) {
+                writeRow(out, row, strings);
+            }
+            out.flush();
+            // The checksum covers everything above and is written outside it
+            new DataOutputStream(file).writeLong(crc.getValue());
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return watermark;
+    }
+
+    private static void writeNames(DataOutputStream out, Map<Long, String> names, StringTable strings) throws IOException {
+        out.writeInt(names.size());
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeInt(strings.indexOf(entry.getValue()));
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, CatalogRow row, StringTable strings) throws IOException {
+        out.writeLong(row.id());
+        out.writeInt(strings.indexOf(row.name()));
+        out.writeInt(strings.indexOf(row.description()));
+        writeDecimal(out, row.price());
+        out.writeInt(row.stock());
+        out.writeByte((row.discount() != null ? HAS_DISCOUNT : 0)
+                | (row.rating() != null ? HAS_RATING : 0)
+                | (row.featured() ? FEATURED : 0));
+        out.writeDouble(row.discount() != null ? row.discount() : 0.0);
+        out.writeDouble(row.rating() != null ? row.rating() : 0.0);
+        out.writeInt(strings.indexOf(row.brand()));
+        out.writeLong(row.categoryId());
+        out.writeLong(row.subCategoryId());
+        out.writeLong(row.vendorId());
+        out.writeInt(strings.indexOf(row.primaryImagePath()));
+        writeTime(out, row.createdAt());
+        writeTime(out, row.updatedAt());
+
+        out.writeInt(row.images().size());
+        for (CatalogRow.Image image : row.images()) {
+            out.writeLong(image.id());
+            out.writeInt(strings.indexOf(image.fileName()));
+            out.writeInt(strings.indexOf(image.filePath()));
+            out.writeInt(strings.indexOf(image.fileType()));
+            out.writeInt(strings.indexOf(image.altText()));
+            out.writeInt(strings.indexOf(image.mimeType()));
+            out.writeByte((image.fileSize() != null ? HAS_FILE_SIZE : 0)
+                    | (image.sortOrder() != null ? HAS_SORT_ORDER : 0)
+                    | (image.isPrimary() != null ? HAS_IS_PRIMARY : 0)
+                    | (Boolean.TRUE.equals(image.isPrimary()) ? IS_PRIMARY : 0));
+            out.writeLong(image.fileSize() != null ? image.fileSize() : 0L);
+            out.writeInt(image.sortOrder() != null ? image.sortOrder() : 0);
+        }
+
+        out.writeInt(row.specifications().size());
+        for (CatalogRow.Spec spec : row.specifications()) {
+            out.writeInt(strings.indexOf(spec.key()));
+            out.writeInt(strings.indexOf(spec.value()));
+            out.writeBoolean(spec.displayOrder() != null);
+            out.writeInt(spec.displayOrder() != null ? spec.displayOrder() : 0);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time != null ? time.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        out.writeInt(time != null ? time.getNano() : 0);
+    }
+
+    // Distinct strings in first-seen order; null is stored as NULL instead of an index
+    private static final class StringTable {
+
+        final List<String> values = new ArrayList<>();
+        final Map<String, Integer> indexes = new HashMap<>();
+
+        void add(String... candidates) {
+            for (String value : candidates) {
+                if (value != null && !indexes.containsKey(value)) {
+                    indexes.put(value, values.size());
+                    values.add(value);
+                }
+            }
+        }
+
+        int indexOf(String value) {
+            return value == null ? NULL : indexes.get(value);
+        }
+    }
+
+    // ==================== READ ====================
+
+    /** Maps and decodes the file; an unreadable, truncated or corrupt file fails with an IOException. */
+    public static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot file " + path + " has an unsupported size of " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Catalog snapshot file " + path + " is corrupt (checksum mismatch)");
+            }
+
+            try {
+                return decode(buffer.slice(0, (int) size - Long.BYTES));
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+                throw new IOException("Catalog snapshot file " + path + " is truncated or malformed", ex);
+            }
+        }
+    }
+
+    private static Contents decode(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot file");
+        }
+        int formatVersion = in.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot format version " + formatVersion);
+        }
+        LocalDateTime watermark = readTime(in);
+
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Map<Long, String> categoryNames = readNames(in, strings);
+        Map<Long, String> subCategoryNames = readNames(in, strings);
+        Map<Long, String> vendorNames = readNames(in, strings);
+
+        // Rows were written in id order, so each one is laid out as soon as it is decoded
+        int rowCount = in.getInt();
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+        for (int i = 0; i < rowCount; i++) {
+            builder.add(readRow(in, strings));
+        }
+        return new Contents(builder.build(categoryNames, subCategoryNames, vendorNames), watermark);
+    }
+
+    private static Map<Long, String> readNames(ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        Map<Long, String> names = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            names.put(in.getLong(), string(strings, in.getInt()));
+        }
+        return names;
+    }
+
+    private static CatalogRow readRow(ByteBuffer in, String[] strings) {
+        long id = in.getLong();
+        String name = string(strings, in.getInt());
+        String description = string(strings, in.getInt());
+        BigDecimal price = readDecimal(in);
+        int stock = in.getInt();
+        int flags = in.get();
+        double discount = in.getDouble();
+        double rating = in.getDouble();
+        String brand = string(strings, in.getInt());
+        long categoryId = in.getLong();
+        long subCategoryId = in.getLong();
+        long vendorId = in.getLong();
+        String primaryImagePath = string(strings, in.getInt());
+        LocalDateTime createdAt = readTime(in);
+        LocalDateTime updatedAt = readTime(in);
+
+        int imageCount = in.getInt();
+        List<CatalogRow.Image> images = new ArrayList<>(imageCount);
+        for (int i = 0; i < imageCount; i++) {
+            long imageId = in.getLong();
+            String fileName = string(strings, in.getInt());
+            String filePath = string(strings, in.getInt());
+            String fileType = internedString(strings, in.getInt());
+            String altText = string(strings, in.getInt());
+            String mimeType = internedString(strings, in.getInt());
+            int imageFlags = in.get();
+            long fileSize = in.getLong();
+            int sortOrder = in.getInt();
+            images.add(new CatalogRow.Image(imageId, fileName, filePath, fileType,
+                    (imageFlags & HAS_FILE_SIZE) != 0 ? fileSize : null,
+                    altText,
+                    (imageFlags & HAS_SORT_ORDER) != 0 ? sortOrder : null,
+                    (imageFlags & HAS_IS_PRIMARY) != 0 ? (imageFlags & IS_PRIMARY) != 0 : null,
+                    mimeType));
+        }
+
+        int specCount = in.getInt();
+        List<CatalogRow.Spec> specifications = new ArrayList<>(specCount);
+        for (int i = 0; i < specCount; i++) {
+            String key = internedString(strings, in.getInt());
+            String value = internedString(strings, in.getInt());
+            boolean hasDisplayOrder = in.get() != 0;
+            int displayOrder = in.getInt();
+            specifications.add(new CatalogRow.Spec(key, value, hasDisplayOrder ? displayOrder : null));
+        }
+
+        return new CatalogRow(id, name, description, price, stock,
+                (flags & HAS_DISCOUNT) != 0 ? discount : null,
+                brand,
+                (flags & HAS_RATING) != 0 ? rating : null,
+                (flags & FEATURED) != 0,
+                categoryId, subCategoryId, vendorId, primaryImagePath, createdAt, updatedAt,
+                images, specifications);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NULL ? null : strings[index];
+    }
+
+    // Shared with the strings incremental updates intern, so both end up as one instance
+    private static String internedString(String[] strings, int index) {
+        return index == NULL ? null : strings[index].intern();
+    }
+}
@@ -2,13 +2,17 @@ package com.My.E_CommerceApp.Controller;
 
 import com.My.E_CommerceApp.DTO.RequestDTO.CategoryRequestDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.CategoryResponseDTO;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -28,13 +32,22 @@ public class CategoryController {
 
     // ✅ Get All Categories - HTTP 200
     @GetMapping
-    public ResponseEntity<List<CategoryResponseDTO>> getAllCategories() {
+    public ResponseEntity<List<CategoryResponseDTO>> getAllCategories(WebRequest request) {
+        ResourceVersion version = categoryService.getAllCategoriesVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
     // ✅ Get Category By Id - HTTP 200
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponseDTO> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryResponseDTO> getCategoryById(@PathVariable Long id, WebRequest request) {
+        // 304 straight from the version stamp, without loading the category
+        Optional<ResourceVersion> version = categoryService.getCategoryVersion(id);
+        if (version.isPresent() && request.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.getCategoryById(id));
     }
 
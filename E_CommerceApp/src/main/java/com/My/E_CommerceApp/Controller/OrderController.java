@@ -1,6 +1,7 @@
 package com.My.E_CommerceApp.Controller;
 
 import com.My.E_CommerceApp.DTO.RequestDTO.OrderRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.OrderResponseDTO;
 import com.My.E_CommerceApp.Enum.OrderStatus;
 import com.My.E_CommerceApp.Service.AddressService;
@@ -33,6 +34,14 @@ public class OrderController {
     }
 
 
+    // Keyset pagination for infinite scroll: pass back nextCursor from the previous response
+    @GetMapping("/cursor")
+    public CursorPageResponseDTO<OrderResponseDTO> getOrdersByCursor(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int size) {
+        return orderService.findAll(cursor, size);
+    }
+
+
     @GetMapping("/{id}")
     public OrderResponseDTO getOrderById(@PathVariable Long id) {
         return orderService.findById(id);
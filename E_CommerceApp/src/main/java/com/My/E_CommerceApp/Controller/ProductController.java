@@ -1,11 +1,24 @@
 package com.My.E_CommerceApp.Controller;
 
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductBatchRequestDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductBulkUpdateItemDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductFilterRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.ProductRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductBatchResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductBulkUpdateResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductFacetResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductImportJobDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.ProductResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.SuggestionDTO;
 import com.My.E_CommerceApp.Entity.FileData;
 import com.My.E_CommerceApp.Entity.Product;
 import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Service.FileDataService;
+import com.My.E_CommerceApp.Service.ProductExportService;
+import com.My.E_CommerceApp.Service.ProductImportService;
 import com.My.E_CommerceApp.Service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,15 +26,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,7 +48,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_CARD = "card";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
     // 🔹 VENDOR PRODUCT MANAGEMENT ENDPOINTS
     @PostMapping("/vendors/{vendorId}")
@@ -41,22 +64,72 @@ public class ProductController {
         return new ResponseEntity<>(product, HttpStatus.CREATED);
     }
 
+    // Bulk reprice / restock: [{productId, price?, stock?, discount?}, ...]; rows the vendor does not own are rejected
+    @PatchMapping("/vendors/{vendorId}/bulk")
+    public ResponseEntity<ProductBulkUpdateResponseDTO> bulkUpdateProducts(
+            @PathVariable Long vendorId,
+            @RequestBody List<ProductBulkUpdateItemDTO> items) {
+        ProductBulkUpdateResponseDTO result = productService.bulkUpdateProducts(vendorId, items);
+        return ResponseEntity.ok(result);
+    }
+
+    // Bulk import (CSV with header row, or NDJSON); returns a job id to poll for progress and row errors
+    @PostMapping(value = "/vendors/{vendorId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportJobDTO> importProducts(
+            @PathVariable Long vendorId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        ProductImportJobDTO job = productImportService.submitImport(vendorId, file, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/vendors/{vendorId}/import/{jobId}")
+    public ResponseEntity<ProductImportJobDTO> getImportJob(@PathVariable Long vendorId, @PathVariable String jobId) {
+        ProductImportJobDTO job = productImportService.getImportJob(vendorId, jobId);
+        return ResponseEntity.ok(job);
+    }
+
     @GetMapping("/vendors/{vendorId}")
-    public ResponseEntity<List<ProductResponseDTO>> getVendorProducts(@PathVariable Long vendorId) {
+    public ResponseEntity<List<?>> getVendorProducts(
+            @PathVariable Long vendorId,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getProductCardsByVendor(vendorId));
+        }
         List<ProductResponseDTO> products = productService.getProductsByVendor(vendorId);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/vendors/{vendorId}/paginated")
-    public ResponseEntity<Page<ProductResponseDTO>> getVendorProductsPaginated(
+    public ResponseEntity<Page<?>> getVendorProductsPaginated(
             @PathVariable Long vendorId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
         Pageable pageable = PageRequest.of(page, size);
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getProductCardsByVendor(vendorId, pageable));
+        }
         Page<ProductResponseDTO> products = productService.getProductsByVendor(vendorId, pageable);
         return ResponseEntity.ok(products);
     }
 
+    // Same query params as /filter; status (any, default ACTIVE) is only honoured here, on the vendor's own products
+    @GetMapping("/vendors/{vendorId}/filter/paginated")
+    public ResponseEntity<Page<ProductResponseDTO>> filterVendorProductsPaginated(
+            @PathVariable Long vendorId,
+            ProductFilterRequestDTO filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort.and(Sort.by("id")));
+        Page<ProductResponseDTO> products = productService.filterVendorProducts(vendorId, filter, pageable);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/vendors/{vendorId}/active")
     public ResponseEntity<List<ProductResponseDTO>> getActiveVendorProducts(@PathVariable Long vendorId) {
         List<ProductResponseDTO> products = productService.getActiveProductsByVendor(vendorId);
@@ -88,11 +161,57 @@ public class ProductController {
 
     // 🔹 PUBLIC PRODUCT ENDPOINTS
     @GetMapping("/{productId}")
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long productId) {
+    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long productId, WebRequest request) {
+        // Revalidation is answered before the product is mapped; validators and body come from the same source
+        // (catalog snapshot or database), and the version is taken first so the body is never older than it
+        Optional<ResourceVersion> version = productService.getProductVersion(productId);
+        if (version.isPresent() && request.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+            productService.recordProductView(productId);
+            return null;
+        }
         ProductResponseDTO product = productService.getProductById(productId);
         return ResponseEntity.ok(product);
     }
 
+    // Products most often ordered together with this one, best first
+    @GetMapping("/{productId}/bought-together")
+    public ResponseEntity<List<?>> getBoughtTogetherProducts(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getBoughtTogetherProductCards(productId, limit));
+        }
+        List<ProductResponseDTO> products = productService.getBoughtTogetherProducts(productId, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    // Products closest by sub-category, brand, price band and specifications (in stock only)
+    @GetMapping("/{productId}/similar")
+    public ResponseEntity<List<?>> getSimilarProducts(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getSimilarProductCards(productId, limit));
+        }
+        List<ProductResponseDTO> products = productService.getSimilarProducts(productId, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    // Multi-get, e.g. /batch?ids=3,7,12: results in request order, unknown ids in missingIds, no view counting
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDTO> getProductsByIds(@RequestParam List<Long> ids) {
+        ProductBatchResponseDTO products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDTO> getProductsByIds(@RequestBody ProductBatchRequestDTO request) {
+        ProductBatchResponseDTO products = productService.getProductsByIds(request.getIds());
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping
     public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
         List<ProductResponseDTO> products = productService.getAllProducts();
@@ -112,13 +231,100 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // Keyset pagination for infinite scroll: pass back nextCursor from the previous response
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getAllProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<ProductResponseDTO> products = productService.getAllProducts(cursor, size);
+        return ResponseEntity.ok(products);
+    }
+
+    // Partner feed: streams the catalog in id order; resume an interrupted export with fromId = last id + 1
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "ACTIVE") ProductStatus status,
+            @RequestParam(required = false) Long fromId,
+            @RequestParam(required = false) Long toId) {
+        String resolvedFormat = ProductExportService.resolveFormat(format);
+        StreamingResponseBody body = productExportService.exportProducts(resolvedFormat, gzip, status, fromId, toId);
+
+        String fileName = "products." + resolvedFormat + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : ProductExportService.FORMAT_CSV.equals(resolvedFormat) ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     // 🔹 CATEGORY & STATUS ENDPOINTS
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<ProductResponseDTO>> getProductsByCategory(@PathVariable Long categoryId) {
+    public ResponseEntity<List<?>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getProductCardsByCategory(categoryId));
+        }
         List<ProductResponseDTO> products = productService.getProductsByCategory(categoryId);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/category/{categoryId}/featured")
+    public ResponseEntity<List<ProductResponseDTO>> getFeaturedProductsByCategory(@PathVariable Long categoryId) {
+        List<ProductResponseDTO> products = productService.getFeaturedProductsByCategory(categoryId);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/category/{categoryId}/featured/paginated")
+    public ResponseEntity<Page<ProductResponseDTO>> getFeaturedProductsByCategoryPaginated(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+        Page<ProductResponseDTO> products = productService.getFeaturedProductsByCategory(categoryId, pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/category/{categoryId}/featured/cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getFeaturedProductsByCategoryCursor(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<ProductResponseDTO> products =
+                productService.getFeaturedProductsByCategory(categoryId, cursor, size);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/sub-category/{subCategoryId}")
+    public ResponseEntity<List<ProductResponseDTO>> getProductsBySubCategory(@PathVariable Long subCategoryId) {
+        List<ProductResponseDTO> products = productService.getProductsBySubCategory(subCategoryId);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/sub-category/{subCategoryId}/paginated")
+    public ResponseEntity<Page<ProductResponseDTO>> getProductsBySubCategoryPaginated(
+            @PathVariable Long subCategoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+        Page<ProductResponseDTO> products = productService.getProductsBySubCategory(subCategoryId, pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/sub-category/{subCategoryId}/cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getProductsBySubCategoryCursor(
+            @PathVariable Long subCategoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<ProductResponseDTO> products =
+                productService.getProductsBySubCategory(subCategoryId, cursor, size);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ProductResponseDTO>> getProductsByStatus(@PathVariable ProductStatus status) {
         List<ProductResponseDTO> products = productService.getProductsByStatus(status);
@@ -127,41 +333,98 @@ public class ProductController {
 
     // 🔹 SEARCH & FILTER ENDPOINTS
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponseDTO>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<List<?>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.searchProductCards(keyword));
+        }
         List<ProductResponseDTO> products = productService.searchProducts(keyword);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/search/paginated")
+    public ResponseEntity<Page<?>> searchProductsPaginated(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        Pageable pageable = PageRequest.of(page, size);
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.searchProductCards(keyword, pageable));
+        }
+        Page<ProductResponseDTO> products = productService.searchProducts(keyword, pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    // Typeahead: completions of product names, brands, category and sub-category names, most popular first
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SuggestionDTO> suggestions = productService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    // Query params: categoryId, subCategoryId, minPrice, maxPrice, brand, inStock, spec=key:value1|value2
+    // Public listings: always ACTIVE products, a status param is ignored
     @GetMapping("/filter")
-    public ResponseEntity<List<ProductResponseDTO>> filterProducts(
-            @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) Long subCategoryId,
-            @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice,
-            @RequestParam(required = false) String brand) {
-        List<ProductResponseDTO> products = productService.filterProducts(
-                categoryId, subCategoryId, minPrice, maxPrice, brand);
+    public ResponseEntity<List<ProductResponseDTO>> filterProducts(ProductFilterRequestDTO filter) {
+        List<ProductResponseDTO> products = productService.filterProducts(filter);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/filter/paginated")
+    public ResponseEntity<Page<ProductResponseDTO>> filterProductsPaginated(
+            ProductFilterRequestDTO filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        Sort sort = sortDirection.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort.and(Sort.by("id")));
+        Page<ProductResponseDTO> products = productService.filterProducts(filter, pageable);
         return ResponseEntity.ok(products);
     }
 
+    // Facet counts for a listing; takes the same query params as /filter
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetResponseDTO> getProductFacets(ProductFilterRequestDTO filter) {
+        ProductFacetResponseDTO facets = productService.getFacets(filter);
+        return ResponseEntity.ok(facets);
+    }
+
     // 🔹 FEATURED PRODUCTS ENDPOINTS
     @GetMapping("/trending")
-    public ResponseEntity<List<ProductResponseDTO>> getTrendingProducts(
-            @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<List<?>> getTrendingProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getTrendingProductCards(limit));
+        }
         List<ProductResponseDTO> products = productService.getTrendingProducts(limit);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/best-sellers")
-    public ResponseEntity<List<ProductResponseDTO>> getBestSellingProducts(
-            @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<List<?>> getBestSellingProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getBestSellingProductCards(limit));
+        }
         List<ProductResponseDTO> products = productService.getBestSellingProducts(limit);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductResponseDTO>> getFeaturedProducts(
-            @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<List<?>> getFeaturedProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isCardView(view)) {
+            return ResponseEntity.ok(productService.getFeaturedProductCards(limit));
+        }
         List<ProductResponseDTO> products = productService.getFeaturedProducts(limit);
         return ResponseEntity.ok(products);
     }
@@ -175,4 +438,15 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    // view=card returns ProductCardDTO (id, name, price, discount, primary image, rating, vendor) instead of the full product
+    private static boolean isCardView(String view) {
+        if (VIEW_CARD.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new BadRequestException("Unsupported view '" + view + "', use full or card");
+    }
+
 }
@@ -2,14 +2,17 @@ package com.My.E_CommerceApp.Controller;
 
 import com.My.E_CommerceApp.DTO.RequestDTO.SubCategoryRequestDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.SubCategoryResponseDTO;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Service.SubCategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/sub-categories")
@@ -29,13 +32,22 @@ public class SubCategoryController {
 
     // ✅ Get All SubCategories - HTTP 200
     @GetMapping
-    public ResponseEntity<List<SubCategoryResponseDTO>> getAllSubCategories() {
+    public ResponseEntity<List<SubCategoryResponseDTO>> getAllSubCategories(WebRequest request) {
+        ResourceVersion version = subCategoryService.getAllSubCategoriesVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(subCategoryService.getAllSubCategories());
     }
 
     // ✅ Get SubCategory By ID - HTTP 200
     @GetMapping("/{id}")
-    public ResponseEntity<SubCategoryResponseDTO> getSubCategoryById(@PathVariable Long id) {
+    public ResponseEntity<SubCategoryResponseDTO> getSubCategoryById(@PathVariable Long id, WebRequest request) {
+        // 304 straight from the version stamps, without loading the sub-category
+        Optional<ResourceVersion> version = subCategoryService.getSubCategoryVersion(id);
+        if (version.isPresent() && request.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(subCategoryService.getSubCategoryById(id));
     }
 
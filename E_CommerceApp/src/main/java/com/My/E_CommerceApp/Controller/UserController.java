@@ -3,6 +3,7 @@ package com.My.E_CommerceApp.Controller;
 import com.My.E_CommerceApp.DTO.RequestDTO.LoginRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.UserRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.UserUpdateRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.UserResponseDTO;
 import com.My.E_CommerceApp.Enum.Role;
 import com.My.E_CommerceApp.Service.AddressService;
@@ -68,6 +69,15 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    // Keyset pagination for infinite scroll: pass back nextCursor from the previous response
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponseDTO<UserResponseDTO>> getAllUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<UserResponseDTO> users = userService.getAllUsers(cursor, size);
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/role/{role}")
     public ResponseEntity<List<UserResponseDTO>> getUsersByRole(@PathVariable Role role) {
         List<UserResponseDTO> users = userService.getUsersByRole(role);
@@ -3,8 +3,10 @@ package com.My.E_CommerceApp.Controller;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorCreateRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorUpdateRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.VendorResponseDTO;
 import com.My.E_CommerceApp.Enum.VendorStatus;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Service.VendorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +17,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/vendor")
@@ -44,7 +48,12 @@ public class VendorController {
 
     // 🔹 VENDOR PROFILE ENDPOINTS
     @GetMapping("/{vendorId}")
-    public ResponseEntity<VendorResponseDTO> getVendorById(@PathVariable Long vendorId) {
+    public ResponseEntity<VendorResponseDTO> getVendorById(@PathVariable Long vendorId, WebRequest request) {
+        // 304 straight from the version stamps, without loading the vendor
+        Optional<ResourceVersion> version = vendorService.getVendorVersion(vendorId);
+        if (version.isPresent() && request.checkNotModified(version.get().getETag(), version.get().getLastModified())) {
+            return null;
+        }
         VendorResponseDTO vendor = vendorService.getVendorById(vendorId);
         return ResponseEntity.ok(vendor);
     }
@@ -82,6 +91,15 @@ public class VendorController {
         return ResponseEntity.ok(vendors);
     }
 
+    // Keyset pagination for infinite scroll: pass back nextCursor from the previous response
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponseDTO<VendorResponseDTO>> getAllVendorsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<VendorResponseDTO> vendors = vendorService.getAllVendors(cursor, size);
+        return ResponseEntity.ok(vendors);
+    }
+
     // 🔹 VENDOR STATUS MANAGEMENT ENDPOINTS
     @PatchMapping("/{vendorId}/status")
     public ResponseEntity<VendorResponseDTO> updateVendorStatus(
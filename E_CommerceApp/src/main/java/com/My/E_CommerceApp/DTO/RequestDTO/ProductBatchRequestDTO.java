@@ -0,0 +1,10 @@
+package com.My.E_CommerceApp.DTO.RequestDTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBatchRequestDTO {
+    private List<Long> ids;
+}
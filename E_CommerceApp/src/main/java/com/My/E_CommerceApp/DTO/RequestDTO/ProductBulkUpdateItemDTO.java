@@ -0,0 +1,14 @@
+package com.My.E_CommerceApp.DTO.RequestDTO;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One entry of a bulk price / stock update; null fields are left unchanged
+@Data
+public class ProductBulkUpdateItemDTO {
+    private Long productId;
+    private BigDecimal price;
+    private Integer stock;
+    private Double discount;
+}
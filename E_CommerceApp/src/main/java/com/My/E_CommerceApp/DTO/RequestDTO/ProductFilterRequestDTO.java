@@ -0,0 +1,18 @@
+package com.My.E_CommerceApp.DTO.RequestDTO;
+
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductFilterRequestDTO {
+    private Long categoryId;
+    private Long subCategoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private String brand;
+    private ProductStatus status;   // Vendor listings only (defaults to ACTIVE); public listings are always ACTIVE
+    private Boolean inStock;        // true = only products with stock > 0
+    private List<String> spec;      // Example: "RAM:16GB" or "Color:red|blue"
+}
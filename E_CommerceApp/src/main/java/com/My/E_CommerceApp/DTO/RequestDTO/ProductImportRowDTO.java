@@ -0,0 +1,23 @@
+package com.My.E_CommerceApp.DTO.RequestDTO;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// One product of a bulk import; category and sub-category may be given by id or by name
+@Data
+public class ProductImportRowDTO {
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stock;
+    private Double discount;
+    private String brand;
+    private Long categoryId;
+    private String categoryName;
+    private Long subCategoryId;
+    private String subCategoryName;
+    private List<ProductSpecificationDTO> specifications = new ArrayList<>();
+}
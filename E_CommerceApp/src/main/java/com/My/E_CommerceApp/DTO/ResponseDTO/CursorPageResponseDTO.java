@@ -0,0 +1,21 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. Pass {@code nextCursor} back to fetch the following slice;
+ * it is null once the end of the listing is reached. No total count is computed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
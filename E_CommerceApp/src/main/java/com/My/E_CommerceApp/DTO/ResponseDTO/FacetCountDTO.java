@@ -0,0 +1,14 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private String value;   // Value to send back as a filter (sub-category id, lower-cased brand, price bucket...)
+    private String label;   // Value as shown to the shopper
+    private int count;
+}
@@ -0,0 +1,13 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Products in request order (duplicates collapsed); ids that matched no product are listed in missingIds
+@Data
+public class ProductBatchResponseDTO {
+    private List<ProductResponseDTO> products = new ArrayList<>();
+    private List<Long> missingIds = new ArrayList<>();
+}
@@ -0,0 +1,13 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateErrorDTO {
+    private Long productId;
+    private String message;
+}
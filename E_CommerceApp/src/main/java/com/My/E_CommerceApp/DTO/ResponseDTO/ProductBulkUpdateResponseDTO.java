@@ -0,0 +1,14 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductBulkUpdateResponseDTO {
+    private int requested;
+    private int updated;
+    private List<Long> updatedProductIds = new ArrayList<>();
+    private List<ProductBulkUpdateErrorDTO> rejected = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// What a listing tile shows (view=card); read with a single projection query, no entity loading
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCardDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Double discount;
+    private String primaryImagePath;
+    private Double rating;
+    private String vendorName;
+}
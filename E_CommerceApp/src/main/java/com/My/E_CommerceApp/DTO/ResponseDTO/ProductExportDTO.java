@@ -0,0 +1,31 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductSpecificationDTO;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One line of the catalog export feed (NDJSON); the CSV feed carries the same columns
+@Data
+public class ProductExportDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Double discount;
+    private Integer stock;
+    private String brand;
+    private ProductStatus status;
+    private Long categoryId;
+    private String categoryName;
+    private Long subCategoryId;
+    private String subCategoryName;
+    private Long vendorId;
+    private String vendorName;
+    private String imagePath;
+    private List<ProductSpecificationDTO> specifications;
+    private LocalDateTime updatedAt;
+}
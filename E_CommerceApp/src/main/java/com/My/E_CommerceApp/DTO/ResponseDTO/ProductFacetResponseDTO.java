@@ -0,0 +1,22 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a product listing. Each facet is counted with every filter applied except its own,
+ * so the counts show what selecting another value of that facet would return.
+ */
+@Data
+public class ProductFacetResponseDTO {
+    private int total;                                      // Products matching all filters
+    private List<FacetCountDTO> subCategories = new ArrayList<>();
+    private List<FacetCountDTO> brands = new ArrayList<>();
+    private List<FacetCountDTO> priceRanges = new ArrayList<>();   // "0-25", "25-50", ..., "1000+"
+    private int inStock;
+    private Map<String, List<FacetCountDTO>> specs = new LinkedHashMap<>();   // spec key -> value counts
+}
@@ -0,0 +1,23 @@
+package com.My.E_CommerceApp.DTO.ResponseDTO;
+
+import com.My.E_CommerceApp.Enum.ImportJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ProductImportJobDTO {
+    private String jobId;
+    private Long vendorId;
+    private String format;
+    private ImportJobStatus status;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<ProductImportErrorDTO> errors;
+    private boolean errorsTruncated;    // More rows failed than are listed in errors
+    private String failureReason;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
@@ -19,7 +19,12 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "orders")
+@Table(
+        name = "orders",
+        indexes = {
+                @Index(name = "idx_orders_created_at_id", columnList = "created_at, id")
+        }
+)
 public class Order extends Base{
 
     @Column(name = "order_number", nullable = false, unique = true)
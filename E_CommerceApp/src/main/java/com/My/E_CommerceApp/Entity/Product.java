@@ -12,9 +12,31 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                @Index(name = "idx_products_category_status_price", columnList = "category_id, status, price"),
+                @Index(name = "idx_products_status_price", columnList = "status, price"),
+                @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+                @Index(name = "idx_products_sub_category_status", columnList = "sub_category_id, status, created_at, id"),
+                @Index(name = "idx_products_category_featured_status", columnList = "category_id, is_featured, status, created_at, id")
+        }
+)
 @EqualsAndHashCode(callSuper = true)
 @Builder
+// Fetch plans: to-one associations are joined, collections are loaded in batches (default_batch_fetch_size)
+@NamedEntityGraph(name = "Product.listing", attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("subCategory"),
+        @NamedAttributeNode("vendor")
+})
+@NamedEntityGraph(name = "Product.detail", attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("subCategory"),
+        @NamedAttributeNode("vendor"),
+        @NamedAttributeNode("images")
+})
 public class Product extends Base{
 
     @Column(nullable = false)
@@ -64,11 +86,15 @@ public class Product extends Base{
     @Builder.Default
     private List<FileData> images = new ArrayList<>();
 
+    // Denormalized path of the primary (else lowest sortOrder) active image, maintained by FileDataService
+    @Column(name = "primary_image_path")
+    private String primaryImagePath;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ProductStatus status = ProductStatus.ACTIVE;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
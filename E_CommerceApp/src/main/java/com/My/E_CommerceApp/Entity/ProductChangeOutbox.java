@@ -0,0 +1,41 @@
+package com.My.E_CommerceApp.Entity;
+
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox of product changes: rows are inserted in the same transaction as the change
+ * and deleted once ProductChangeBus has dispatched them; never written through JPA.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_change_outbox")
+public class ProductChangeOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 32)
+    private ProductChangeType changeType;
+
+    // Listing placement before the change, for updates that move a product and for deletes
+    @Column(name = "previous_category_id")
+    private Long previousCategoryId;
+
+    @Column(name = "previous_sub_category_id")
+    private Long previousSubCategoryId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.My.E_CommerceApp.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for "frequently bought together": one row per product holding its top co-purchased
+ * products, kept up to date by ProductCoPurchaseService; never written through JPA.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_co_purchases")
+public class ProductCoPurchase {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Packed (neighbour id: 8 bytes, count: 4 bytes) entries, best first
+    @Column(name = "neighbours", nullable = false, length = 1024)
+    private byte[] neighbours;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,67 @@
+package com.My.E_CommerceApp.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for the trending / best-seller / featured rails.
+ * One row per product, kept up to date by ProductScoreService; never written through JPA.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(
+        name = "product_scores",
+        indexes = {
+                @Index(name = "idx_product_scores_trending", columnList = "eligible, performance_score, product_created_at"),
+                @Index(name = "idx_product_scores_best_sellers", columnList = "eligible, sales_count, rating"),
+                @Index(name = "idx_product_scores_featured", columnList = "featured_candidate, is_featured, admin_boost, sales_count"),
+                @Index(name = "idx_product_scores_vendor", columnList = "vendor_id, performance_score")
+        }
+)
+public class ProductScore {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    // Active product, in stock, active vendor
+    @Column(nullable = false)
+    private Boolean eligible;
+
+    // Eligible and (featured, rating >= 4 or at least 50 sales)
+    @Column(name = "featured_candidate", nullable = false)
+    private Boolean featuredCandidate;
+
+    @Column(name = "performance_score", nullable = false)
+    private Double performanceScore;
+
+    // Position among the vendor's eligible products by performance score (1 = best), 0 when not eligible
+    @Column(name = "vendor_rank", nullable = false)
+    private Integer vendorRank;
+
+    @Column(name = "sales_count", nullable = false)
+    private Integer salesCount;
+
+    @Column(nullable = false)
+    private Double rating;
+
+    @Column(name = "is_featured", nullable = false)
+    private Boolean isFeatured;
+
+    @Column(name = "admin_boost", nullable = false)
+    private Double adminBoost;
+
+    @Column(name = "product_created_at")
+    private LocalDateTime productCreatedAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
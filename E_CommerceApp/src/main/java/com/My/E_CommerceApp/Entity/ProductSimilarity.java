@@ -0,0 +1,30 @@
+package com.My.E_CommerceApp.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for "similar products": one row per product holding its most similar products
+ * (cosine over specification vectors), rebuilt by ProductSimilarityService; never written through JPA.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_similarities")
+public class ProductSimilarity {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Packed (neighbour id: 8 bytes, similarity: 4-byte float) entries, best first
+    @Column(name = "neighbours", nullable = false, length = 1024)
+    private byte[] neighbours;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -14,7 +14,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 
-@Table(name = "users")
+@Table(
+        name = "users",
+        indexes = {
+                @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+        }
+)
 @Entity
 @Data
 @AllArgsConstructor
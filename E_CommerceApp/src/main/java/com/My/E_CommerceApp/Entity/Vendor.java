@@ -12,7 +12,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "vendors")
+@Table(
+        name = "vendors",
+        indexes = {
+                @Index(name = "idx_vendors_created_at_id", columnList = "created_at, id")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -50,7 +55,7 @@ public class Vendor extends Base {
     private VendorStatus vendorStatus = VendorStatus.PENDING_APPROVAL;
 
     // One-to-One relationship with User (the owner of this vendor account)
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -0,0 +1,8 @@
+package com.My.E_CommerceApp.Enum;
+
+public enum ImportJobStatus {
+    QUEUED,     // Accepted, waiting for a worker
+    RUNNING,    // Rows are being parsed and inserted
+    COMPLETED,  // Whole file processed (individual rows may still have failed)
+    FAILED      // Aborted, e.g. unreadable file
+}
@@ -0,0 +1,15 @@
+package com.My.E_CommerceApp.Enum;
+
+public enum ProductChangeType {
+    CREATED,        // New product (single create or bulk import)
+    UPDATED,        // Any field edited through the product form
+    DELETED,        // Row removed
+    STATUS,         // Moved between ACTIVE / INACTIVE / ...
+    PRICE_STOCK,    // Bulk price or stock update
+    STOCK,          // Stock level moved (orders, cancellations)
+    AVAILABILITY,   // Stock crossed zero in either direction (published together with STOCK)
+    SALES,          // Sales counter moved
+    IMAGES,         // Image added, removed, reordered or made primary
+    RATING,         // Average review rating recomputed
+    VENDOR          // Owning vendor's status or profile changed
+}
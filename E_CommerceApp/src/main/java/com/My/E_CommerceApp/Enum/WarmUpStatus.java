@@ -0,0 +1,9 @@
+package com.My.E_CommerceApp.Enum;
+
+public enum WarmUpStatus {
+    PENDING,    // Application not ready yet
+    RUNNING,    // Steps in progress; readiness reports OUT_OF_SERVICE
+    COMPLETED,  // Every step finished within the time budget (individual units may still have failed)
+    TIMED_OUT,  // Time budget spent; unfinished steps were abandoned
+    DISABLED    // app.warmup.enabled=false
+}
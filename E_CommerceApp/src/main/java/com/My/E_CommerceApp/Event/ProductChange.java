@@ -0,0 +1,59 @@
+package com.My.E_CommerceApp.Event;
+
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Every outbox entry of one product within a dispatched batch, merged: the union of change types and of
+ * the listing placements the product had before those changes.
+ */
+public final class ProductChange {
+
+    private final Long productId;
+    private final EnumSet<ProductChangeType> types = EnumSet.noneOf(ProductChangeType.class);
+    private final Set<Long> previousCategoryIds = new HashSet<>(2);
+    private final Set<Long> previousSubCategoryIds = new HashSet<>(2);
+
+    public ProductChange(Long productId) {
+        this.productId = productId;
+    }
+
+    public void merge(ProductChangeType type, Long previousCategoryId, Long previousSubCategoryId) {
+        types.add(type);
+        if (previousCategoryId != null) {
+            previousCategoryIds.add(previousCategoryId);
+        }
+        if (previousSubCategoryId != null) {
+            previousSubCategoryIds.add(previousSubCategoryId);
+        }
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Set<ProductChangeType> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    public boolean isAny(Set<ProductChangeType> relevant) {
+        for (ProductChangeType type : types) {
+            if (relevant.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<Long> getPreviousCategoryIds() {
+        return Collections.unmodifiableSet(previousCategoryIds);
+    }
+
+    public Set<Long> getPreviousSubCategoryIds() {
+        return Collections.unmodifiableSet(previousSubCategoryIds);
+    }
+}
@@ -0,0 +1,16 @@
+package com.My.E_CommerceApp.Event;
+
+import java.util.List;
+
+/**
+ * Receives committed product changes from ProductChangeBus. Any bean implementing this is registered.
+ *
+ * Batches arrive one at a time on a single dispatcher thread, one entry per product. Delivery is
+ * at-least-once (a crash between dispatch and acknowledgement, or any listener throwing, redelivers the
+ * batch to every listener), so implementations must be idempotent; re-reading the product's current
+ * state from the database is the usual way. Throw only when a retry can help.
+ */
+public interface ProductChangeListener {
+
+    void onProductsChanged(List<ProductChange> changes);
+}
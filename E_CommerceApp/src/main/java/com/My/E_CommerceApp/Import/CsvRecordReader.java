@@ -0,0 +1,128 @@
+package com.My.E_CommerceApp.Import;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: returns one record at a time from a character stream, so a file is
+ * never held in memory as a whole. Handles quoted fields with embedded separators, doubled quotes
+ * and line breaks, and both LF and CRLF line endings. A byte order mark at the start of the input
+ * (as spreadsheet tools write it) is skipped.
+ */
+public class CsvRecordReader {
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final char separator;
+    private int lookahead = -2;    // -2: nothing buffered
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+
+    public CsvRecordReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvRecordReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /** Line number the last record returned by {@link #next()} started on. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /** Next record, or null at end of input. Blank lines are skipped. */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + recordLine);
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (lookahead != -2) {
+            c = lookahead;
+            lookahead = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        if (c == '\n') {
+            line--;
+        }
+        lookahead = c;
+    }
+}
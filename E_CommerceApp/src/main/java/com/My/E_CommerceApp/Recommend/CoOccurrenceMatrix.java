@@ -0,0 +1,178 @@
+package com.My.E_CommerceApp.Recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Sparse, symmetric product co-occurrence counts: how many orders contained both product a and
+ * product b. Each product owns a {@link LongIntHashMap} row (neighbour id -> count), and rows are
+ * located through another primitive map, so a count costs one long and one int in the table.
+ *
+ * Not thread-safe: a matrix is written by one thread at a time, and partial matrices built in
+ * parallel are combined with {@link #merge}.
+ */
+public class CoOccurrenceMatrix {
+
+    private final LongIntHashMap rowIndex = new LongIntHashMap(1024);    // product id -> row slot
+    private final List<LongIntHashMap> rows = new ArrayList<>();
+    private long pairCount;
+
+    /** Counts every pair of the basket once. Ids must be distinct. */
+    public void addBasket(long[] productIds) {
+        for (int i = 0; i < productIds.length; i++) {
+            LongIntHashMap row = row(productIds[i]);
+            for (int j = 0; j < productIds.length; j++) {
+                if (i != j) {
+                    row.addTo(productIds[j], 1);
+                }
+            }
+        }
+        pairCount += (long) productIds.length * (productIds.length - 1) / 2;
+    }
+
+    /** Adds all counts of {@code other} into this matrix. */
+    public void merge(CoOccurrenceMatrix other) {
+        other.rowIndex.forEach((productId, slot) -> {
+            LongIntHashMap target = row(productId);
+            other.rows.get(slot).forEach(target::addTo);
+        });
+        pairCount += other.pairCount;
+    }
+
+    public int productCount() {
+        return rows.size();
+    }
+
+    public long pairCount() {
+        return pairCount;
+    }
+
+    public void forEachProduct(LongConsumer consumer) {
+        rowIndex.forEach((productId, slot) -> consumer.accept(productId));
+    }
+
+    /**
+     * The {@code k} neighbours bought together with the product most often, at least
+     * {@code minCount} times each, best first (ties by lower id). Selected with a bounded heap,
+     * so the row is never sorted as a whole.
+     */
+    public Neighbours topNeighbours(long productId, int k, int minCount) {
+        int slot = rowIndex.get(productId, -1);
+        if (slot < 0 || k <= 0) {
+            return Neighbours.EMPTY;
+        }
+
+        long[] heapIds = new long[k];
+        int[] heapCounts = new int[k];
+        int[] heapSize = {0};
+        rows.get(slot).forEach((neighbourId, count) -> {
+            if (count < minCount) {
+                return;
+            }
+            int size = heapSize[0];
+            if (size < k) {
+                heapIds[size] = neighbourId;
+                heapCounts[size] = count;
+                siftUp(heapIds, heapCounts, size);
+                heapSize[0] = size + 1;
+            } else if (isWorse(heapIds[0], heapCounts[0], neighbourId, count)) {
+                heapIds[0] = neighbourId;
+                heapCounts[0] = count;
+                siftDown(heapIds, heapCounts, size);
+            }
+        });
+
+        // Pop the worst first into the back of the result, leaving it ordered best first
+        int size = heapSize[0];
+        long[] ids = new long[size];
+        int[] counts = new int[size];
+        for (int last = size - 1; last >= 0; last--) {
+            ids[last] = heapIds[0];
+            counts[last] = heapCounts[0];
+            heapIds[0] = heapIds[last];
+            heapCounts[0] = heapCounts[last];
+            siftDown(heapIds, heapCounts, last);
+        }
+        return new Neighbours(ids, counts);
+    }
+
+    private LongIntHashMap row(long productId) {
+        int slot = rowIndex.get(productId, -1);
+        if (slot < 0) {
+            slot = rows.size();
+            rows.add(new LongIntHashMap());
+            rowIndex.put(productId, slot);
+        }
+        return rows.get(slot);
+    }
+
+    // ==================== MIN-HEAP (root = worst kept neighbour) ====================
+
+    private static boolean isWorse(long idA, int countA, long idB, int countB) {
+        return countA < countB || (countA == countB && idA > idB);
+    }
+
+    private static void siftUp(long[] ids, int[] counts, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(ids[index], counts[index], ids[parent], counts[parent])) {
+                return;
+            }
+            swap(ids, counts, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] ids, int[] counts, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(ids[right], counts[right], ids[left], counts[left])) {
+                worst = right;
+            }
+            if (!isWorse(ids[worst], counts[worst], ids[index], counts[index])) {
+                return;
+            }
+            swap(ids, counts, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(long[] ids, int[] counts, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+    }
+
+    /** Top neighbours of one product: parallel arrays of ids and co-purchase counts, best first. */
+    public record Neighbours(long[] productIds, int[] counts) {
+
+        public static final Neighbours EMPTY = new Neighbours(new long[0], new int[0]);
+
+        public int size() {
+            return productIds.length;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Neighbours neighbours
+                    && Arrays.equals(productIds, neighbours.productIds)
+                    && Arrays.equals(counts, neighbours.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(productIds) + Arrays.hashCode(counts);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.My.E_CommerceApp.Recommend;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Top-k cosine neighbours of every vector in one partition (e.g. one category).
+ *
+ * Vectors are sparse and L2-normalised, so cosine similarity is their dot product. Dot products
+ * are accumulated through an inverted index (feature -> candidates having it), so only pairs that
+ * share at least one feature are ever scored. The product range is split into fork/join tasks;
+ * each leaf owns a dense accumulator sized to the partition and writes the results of its own
+ * products only.
+ */
+public final class CosineTopK {
+
+    private static final int LEAF_SIZE = 128;
+
+    private CosineTopK() {
+    }
+
+    /**
+     * @param features   per vector, ascending feature ids (0 .. featureCount - 1)
+     * @param weights    per vector, weights matching {@code features}, L2-normalised
+     * @param candidate  per vector, whether it may be returned as someone's neighbour
+     * @return per vector, the indexes of its top {@code k} candidates with similarity of at least
+     *         {@code minSimilarity}, best first, and the matching similarities
+     */
+    public static Result compute(int[][] features, float[][] weights, boolean[] candidate, int featureCount,
+                                 int k, float minSimilarity, ForkJoinPool pool) {
+        int n = features.length;
+
+        // Inverted index in CSR form: postings of feature f are at [postingStart[f], postingStart[f + 1])
+        int[] postingStart = new int[featureCount + 1];
+        for (int i = 0; i < n; i++) {
+            if (candidate[i]) {
+                for (int feature : features[i]) {
+                    postingStart[feature + 1]++;
+                }
+            }
+        }
+        for (int f = 0; f < featureCount; f++) {
+            postingStart[f + 1] += postingStart[f];
+        }
+        int[] postingVectors = new int[postingStart[featureCount]];
+        float[] postingWeights = new float[postingVectors.length];
+        int[] fill = postingStart.clone();
+        for (int i = 0; i < n; i++) {
+            if (candidate[i]) {
+                for (int e = 0; e < features[i].length; e++) {
+                    int slot = fill[features[i][e]]++;
+                    postingVectors[slot] = i;
+                    postingWeights[slot] = weights[i][e];
+                }
+            }
+        }
+
+        Result result = new Result(new int[n][], new float[n][]);
+        pool.invoke(new Task(features, weights, postingStart, postingVectors, postingWeights,
+                k, minSimilarity, result, 0, n));
+        return result;
+    }
+
+    /** Neighbour indexes and similarities per vector; entry i belongs to vector i. */
+    public record Result(int[][] neighbours, float[][] similarities) {
+    }
+
+    private static final class Task extends RecursiveAction {
+
+        private final int[][] features;
+        private final float[][] weights;
+        private final int[] postingStart;
+        private final int[] postingVectors;
+        private final float[] postingWeights;
+        private final int k;
+        private final float minSimilarity;
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        private Task(int[][] features, float[][] weights, int[] postingStart, int[] postingVectors,
+                     float[] postingWeights, int k, float minSimilarity, Result result, int from, int to) {
+            this.features = features;
+            this.weights = weights;
+            this.postingStart = postingStart;
+            this.postingVectors = postingVectors;
+            this.postingWeights = postingWeights;
+            this.k = k;
+            this.minSimilarity = minSimilarity;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(features, weights, postingStart, postingVectors, postingWeights,
+                                k, minSimilarity, result, from, middle),
+                        new Task(features, weights, postingStart, postingVectors, postingWeights,
+                                k, minSimilarity, result, middle, to));
+                return;
+            }
+
+            float[] scores = new float[features.length];
+            int[] touched = new int[features.length];
+            int[] heapIndexes = new int[k];
+            float[] heapScores = new float[k];
+            for (int i = from; i < to; i++) {
+                int touchedCount = 0;
+                for (int e = 0; e < features[i].length; e++) {
+                    int feature = features[i][e];
+                    float weight = weights[i][e];
+                    for (int p = postingStart[feature]; p < postingStart[feature + 1]; p++) {
+                        int other = postingVectors[p];
+                        if (other == i) {
+                            continue;
+                        }
+                        if (scores[other] == 0f) {
+                            touched[touchedCount++] = other;
+                        }
+                        scores[other] += weight * postingWeights[p];
+                    }
+                }
+
+                int heapSize = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    float score = scores[other];
+                    scores[other] = 0f;
+                    if (score < minSimilarity) {
+                        continue;
+                    }
+                    if (heapSize < k) {
+                        heapIndexes[heapSize] = other;
+                        heapScores[heapSize] = score;
+                        siftUp(heapIndexes, heapScores, heapSize++);
+                    } else if (isWorse(heapIndexes[0], heapScores[0], other, score)) {
+                        heapIndexes[0] = other;
+                        heapScores[0] = score;
+                        siftDown(heapIndexes, heapScores, heapSize);
+                    }
+                }
+
+                // Pop the worst first into the back, leaving the result ordered best first
+                int[] neighbours = new int[heapSize];
+                float[] similarities = new float[heapSize];
+                for (int last = heapSize - 1; last >= 0; last--) {
+                    neighbours[last] = heapIndexes[0];
+                    similarities[last] = heapScores[0];
+                    heapIndexes[0] = heapIndexes[last];
+                    heapScores[0] = heapScores[last];
+                    siftDown(heapIndexes, heapScores, last);
+                }
+                result.neighbours()[i] = neighbours;
+                result.similarities()[i] = similarities;
+            }
+        }
+    }
+
+    // ==================== MIN-HEAP (root = worst kept neighbour) ====================
+
+    private static boolean isWorse(int indexA, float scoreA, int indexB, float scoreB) {
+        return scoreA < scoreB || (scoreA == scoreB && indexA > indexB);
+    }
+
+    private static void siftUp(int[] indexes, float[] scores, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(indexes[index], scores[index], indexes[parent], scores[parent])) {
+                return;
+            }
+            swap(indexes, scores, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] indexes, float[] scores, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(indexes[right], scores[right], indexes[left], scores[left])) {
+                worst = right;
+            }
+            if (!isWorse(indexes[worst], scores[worst], indexes[index], scores[index])) {
+                return;
+            }
+            swap(indexes, scores, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] indexes, float[] scores, int a, int b) {
+        int index = indexes[a];
+        indexes[a] = indexes[b];
+        indexes[b] = index;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
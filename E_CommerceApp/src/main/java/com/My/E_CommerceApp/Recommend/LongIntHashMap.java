@@ -0,0 +1,134 @@
+package com.My.E_CommerceApp.Recommend;
+
+/**
+ * Open-addressing hash map from long to int (linear probing, power-of-two capacity), storing
+ * keys and values in two primitive arrays so no Long/Integer is ever allocated.
+ *
+ * Key 0 marks an empty slot and cannot be stored; entity ids start at 1. Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(4);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR) + 1) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Value stored for the key, or {@code defaultValue} when absent. */
+    public int get(long key, int defaultValue) {
+        int slot = findSlot(checkKey(key));
+        return keys[slot] == EMPTY ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return keys[findSlot(checkKey(key))] != EMPTY;
+    }
+
+    public void put(long key, int value) {
+        int slot = findSlot(checkKey(key));
+        if (keys[slot] == EMPTY) {
+            insertAt(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /** Adds {@code delta} to the value of the key (absent keys start at 0) and returns the new value. */
+    public int addTo(long key, int delta) {
+        int slot = findSlot(checkKey(key));
+        if (keys[slot] == EMPTY) {
+            insertAt(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public void forEach(LongIntConsumer consumer) {
+        long[] currentKeys = keys;
+        int[] currentValues = values;
+        for (int i = 0; i < currentKeys.length; i++) {
+            if (currentKeys[i] != EMPTY) {
+                consumer.accept(currentKeys[i], currentValues[i]);
+            }
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private int findSlot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, long key, int value) {
+        if (size >= resizeAt) {
+            rehash(keys.length << 1);
+            slot = findSlot(key);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static long checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+        }
+        return key;
+    }
+
+    // Fibonacci hashing spreads sequential ids over the table
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface LongIntConsumer {
+        void accept(long key, int value);
+    }
+}
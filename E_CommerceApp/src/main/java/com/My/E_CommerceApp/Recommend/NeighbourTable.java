@@ -0,0 +1,89 @@
+package com.My.E_CommerceApp.Recommend;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map from product id to a list of neighbour ids, stored as three primitive arrays:
+ * sorted keys, offsets, and every neighbour list laid end to end. A lookup is a binary search;
+ * there is no per-entry object, so the table costs about 8 bytes per neighbour plus 12 per product.
+ *
+ * Built once per rebuild with a {@link Builder} and swapped in as a whole, so readers need no locking.
+ */
+public final class NeighbourTable {
+
+    public static final NeighbourTable EMPTY = new NeighbourTable(new long[0], new int[]{0}, new long[0]);
+
+    private static final long[] NONE = new long[0];
+
+    private final long[] keys;
+    private final int[] offsets;     // neighbours of keys[i] are values[offsets[i] .. offsets[i + 1])
+    private final long[] values;
+
+    private NeighbourTable(long[] keys, int[] offsets, long[] values) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /** Up to {@code limit} neighbours of the product, in stored order; empty when unknown. */
+    public long[] get(long productId, int limit) {
+        int index = Arrays.binarySearch(keys, productId);
+        if (index < 0 || limit <= 0) {
+            return NONE;
+        }
+        int from = offsets[index];
+        int to = Math.min(offsets[index + 1], from + limit);
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    public static final class Builder {
+
+        private long[] keys = new long[1024];
+        private long[][] lists = new long[1024][];
+        private int size;
+        private int valueCount;
+
+        /** Adds the neighbours of one product; each product id may be added once. */
+        public Builder put(long productId, long[] neighbours) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                lists = Arrays.copyOf(lists, size * 2);
+            }
+            keys[size] = productId;
+            lists[size] = neighbours;
+            size++;
+            valueCount += neighbours.length;
+            return this;
+        }
+
+        public NeighbourTable build() {
+            // Sort an index permutation by key, then lay the lists out in that order
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+            long[] sortedKeys = new long[size];
+            int[] offsets = new int[size + 1];
+            long[] values = new long[valueCount];
+            int position = 0;
+            for (int i = 0; i < size; i++) {
+                int source = order[i];
+                if (i > 0 && keys[source] == sortedKeys[i - 1]) {
+                    throw new IllegalStateException("Product " + keys[source] + " added twice");
+                }
+                sortedKeys[i] = keys[source];
+                offsets[i] = position;
+                System.arraycopy(lists[source], 0, values, position, lists[source].length);
+                position += lists[source].length;
+            }
+            offsets[size] = position;
+            return new NeighbourTable(sortedKeys, offsets, values);
+        }
+    }
+}
@@ -5,9 +5,23 @@ import com.My.E_CommerceApp.Entity.Category;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepo extends JpaRepository<Category, Long> {
     boolean existsByNameIgnoreCase(String name);
+    Optional<Category> findFirstByNameIgnoreCase(String name);
+
+    // Version stamps for conditional GETs
+    @Query("SELECT c.updatedAt FROM Category c WHERE c.id = :id")
+    List<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(c), MAX(c.updatedAt) FROM Category c")
+    List<Object[]> findListVersionStamps();
 }
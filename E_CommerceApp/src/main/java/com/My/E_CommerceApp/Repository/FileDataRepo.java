@@ -2,6 +2,7 @@ package com.My.E_CommerceApp.Repository;
 
 import com.My.E_CommerceApp.Entity.FileData;
 import com.My.E_CommerceApp.Entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -22,6 +23,11 @@ public interface FileDataRepo extends JpaRepository<FileData, Long> {
     @Query("SELECT fd FROM FileData fd WHERE fd.product.id = :productId ORDER BY fd.sortOrder ASC")
     List<FileData> findProductImagesOrdered(@Param("productId") Long productId);
 
+    // Image shown for the product: the primary one, else the lowest sortOrder
+    @Query("SELECT fd.filePath FROM FileData fd WHERE fd.product.id = :productId AND fd.isActive = true " +
+            "ORDER BY fd.isPrimary DESC, fd.sortOrder ASC, fd.id ASC")
+    List<String> findDisplayImagePaths(@Param("productId") Long productId, Pageable pageable);
+
     Optional<FileData> findByFileName(String fileName);
 
     Optional<FileData> findByChecksum(String checksum);
@@ -0,0 +1,82 @@
+package com.My.E_CommerceApp.Repository;
+
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
+import com.My.E_CommerceApp.Entity.Base;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Position in a listing ordered by {@code createdAt DESC, id DESC}.
+ * Encoded as an opaque URL-safe token so clients never depend on its contents.
+ */
+@Getter
+@AllArgsConstructor
+public final class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static KeysetCursor of(Base entity) {
+        return new KeysetCursor(entity.getCreatedAt(), entity.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor '" + token + "'");
+        }
+    }
+
+    /**
+     * Fetches one row more than requested so {@link #toSlice} can tell whether another slice exists,
+     * without a count query.
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, clamp(size) + 1);
+    }
+
+    public static <E extends Base, D> CursorPageResponseDTO<D> toSlice(List<E> rows, int size, Function<E, D> mapper) {
+        return toSlice(rows, size, KeysetCursor::of, mapper);
+    }
+
+    // Same, for rows that are not entities (e.g. read from the in-memory catalog snapshot)
+    public static <R, D> CursorPageResponseDTO<D> toSlice(List<R> rows, int size, Function<R, KeysetCursor> positionOf,
+                                                          Function<R, D> mapper) {
+        int pageSize = clamp(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<R> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext ? positionOf.apply(page.get(page.size() - 1)).encode() : null;
+        List<D> content = page.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageResponseDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
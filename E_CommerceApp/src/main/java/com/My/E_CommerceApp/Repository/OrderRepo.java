@@ -3,11 +3,13 @@ package com.My.E_CommerceApp.Repository;
 import com.My.E_CommerceApp.Entity.Address;
 import com.My.E_CommerceApp.Entity.Order;
 import com.My.E_CommerceApp.Enum.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +26,14 @@ public interface OrderRepo extends JpaRepository<Order, Long> {
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     Long countByStatus(@Param("status") OrderStatus status);
+
+    // KEYSET (CURSOR) PAGINATION - newest first, (createdAt, id) is the stable sort key
+    List<Order> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt " +
+            "OR (o.createdAt = :createdAt AND o.id < :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
 }
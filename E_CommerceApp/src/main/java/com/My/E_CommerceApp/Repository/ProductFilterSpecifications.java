@@ -0,0 +1,167 @@
+package com.My.E_CommerceApp.Repository;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductFilterRequestDTO;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Entity.ProductSpecification;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Composable criteria for product listings. Every predicate is pushed into the SQL WHERE clause,
+ * so paging and sorting happen in the database instead of in memory.
+ */
+public final class ProductFilterSpecifications {
+
+    private ProductFilterSpecifications() {
+    }
+
+    /**
+     * Criteria for the filter, restricted to products in {@code status}. The status is passed by the caller,
+     * never taken from the request: public listings must only ever show ACTIVE products.
+     */
+    public static Specification<Product> fromFilter(ProductFilterRequestDTO filter, ProductStatus status) {
+        return fromFilter(filter, status, null);
+    }
+
+    /**
+     * Same as {@link #fromFilter(ProductFilterRequestDTO, ProductStatus)}, but with the spec attributes already
+     * resolved to product ids (from the in-memory attribute index) instead of EXISTS subqueries.
+     * Pass null to resolve the spec attributes in SQL.
+     */
+    public static Specification<Product> fromFilter(ProductFilterRequestDTO filter, ProductStatus status,
+                                                    Collection<Long> specMatchIds) {
+        List<Specification<Product>> specs = new ArrayList<>();
+
+        if (filter.getCategoryId() != null) {
+            specs.add(hasCategory(filter.getCategoryId()));
+        }
+        if (filter.getSubCategoryId() != null) {
+            specs.add(hasSubCategory(filter.getSubCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            specs.add(priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            specs.add(priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.getBrand() != null && !filter.getBrand().isBlank()) {
+            specs.add(brandContains(filter.getBrand()));
+        }
+        specs.add(hasStatus(status));
+        if (Boolean.TRUE.equals(filter.getInStock())) {
+            specs.add(inStock());
+        }
+        if (specMatchIds != null) {
+            specs.add(idIn(specMatchIds));
+        } else {
+            parseSpecAttributes(filter.getSpec())
+                    .forEach((key, values) -> specs.add(hasSpecAttribute(key, values)));
+        }
+
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Product> hasCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> hasSubCategory(Long subCategoryId) {
+        return (root, query, cb) -> cb.equal(root.get("subCategory").get("id"), subCategoryId);
+    }
+
+    public static Specification<Product> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), BigDecimal.valueOf(minPrice));
+    }
+
+    public static Specification<Product> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), BigDecimal.valueOf(maxPrice));
+    }
+
+    public static Specification<Product> brandContains(String brand) {
+        String pattern = "%" + brand.trim().toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get("brand")), pattern);
+    }
+
+    public static Specification<Product> hasVendor(Long vendorId) {
+        return (root, query, cb) -> cb.equal(root.get("vendor").get("id"), vendorId);
+    }
+
+    public static Specification<Product> hasStatus(ProductStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.<Integer>get("stock"), 0);
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    /**
+     * Matches products having a specification with the given key and any of the given values
+     * (case-insensitive, surrounding whitespace ignored, as in SpecAttributeIndex), expressed as an
+     * EXISTS subquery so the product row is never duplicated.
+     */
+    public static Specification<Product> hasSpecAttribute(String key, List<String> values) {
+        String normalizedKey = normalizeSpecText(key);
+        List<String> normalizedValues = values.stream()
+                .map(ProductFilterSpecifications::normalizeSpecText)
+                .collect(Collectors.toList());
+
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<ProductSpecification> spec = subquery.from(ProductSpecification.class);
+            subquery.select(spec.get("product").<Long>get("id"))
+                    .where(
+                            cb.equal(spec.get("product"), root),
+                            cb.equal(cb.lower(cb.trim(spec.<String>get("key"))), normalizedKey),
+                            cb.lower(cb.trim(spec.<String>get("value"))).in(normalizedValues)
+                    );
+            return cb.exists(subquery);
+        };
+    }
+
+    // Same normalisation as SpecAttributeIndex, so the SQL fallback and the index agree on matches
+    private static String normalizeSpecText(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "RAM:16GB" -> {RAM=[16GB]}, "Color:red|blue" -> {Color=[red, blue]}
+    public static Map<String, List<String>> parseSpecAttributes(List<String> rawSpecs) {
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        if (rawSpecs == null) {
+            return attributes;
+        }
+
+        for (String raw : rawSpecs) {
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid spec filter '" + raw + "', expected key:value or key:value1|value2");
+            }
+            String key = raw.substring(0, separator).trim();
+            List<String> values = Arrays.stream(raw.substring(separator + 1).split("\\|"))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .collect(Collectors.toList());
+            if (values.isEmpty()) {
+                throw new BadRequestException("Invalid spec filter '" + raw + "', no values given");
+            }
+            attributes.computeIfAbsent(key, k -> new ArrayList<>()).addAll(values);
+        }
+        return attributes;
+    }
+}
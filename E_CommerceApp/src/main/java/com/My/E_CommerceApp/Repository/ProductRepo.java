@@ -1,47 +1,122 @@
 package com.My.E_CommerceApp.Repository;
 
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductCardDTO;
 import com.My.E_CommerceApp.Entity.Product;
 import com.My.E_CommerceApp.Enum.ProductStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepo extends JpaRepository<Product, Long> {
+public interface ProductRepo extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
+    // Listing methods use the "Product.listing" fetch plan so category, sub-category and vendor
+    // come back in the same query instead of one lazy load per row
+    @EntityGraph("Product.listing")
     List<Product> findByVendorId(Long vendorId);
+    @EntityGraph("Product.listing")
     Page<Product> findByVendorId(Long vendorId, Pageable pageable);
+    @EntityGraph("Product.listing")
     List<Product> findByVendorIdAndStatus(Long vendorId, ProductStatus status);
     Long countByVendorId(Long vendorId);
 
+    // Multi-get: to-one associations joined, images and specifications batch-fetched
+    @EntityGraph("Product.listing")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // Product detail page: to-one associations and images in one query
+    @EntityGraph("Product.detail")
+    Optional<Product> findWithDetailsById(Long id);
+
+    @Override
+    @EntityGraph("Product.listing")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph("Product.listing")
+    Page<Product> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("Product.listing")
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph("Product.listing")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    // Card projections (view=card): only the columns a listing tile shows, no entities or collections
+    String CARD_SELECT = "SELECT new com.My.E_CommerceApp.DTO.ResponseDTO.ProductCardDTO(" +
+            "p.id, p.name, p.price, p.discount, " +
+            "p.primaryImagePath, " +
+            "p.rating, v.shopName) " +
+            "FROM Product p LEFT JOIN p.vendor v ";
+
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<ProductCardDTO> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(CARD_SELECT + "WHERE p.id IN :ids AND p.status = :status")
+    List<ProductCardDTO> findCardsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") ProductStatus status);
+
+    @Query(CARD_SELECT + "WHERE p.category.id = :categoryId")
+    List<ProductCardDTO> findCardsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(CARD_SELECT + "WHERE p.vendor.id = :vendorId")
+    List<ProductCardDTO> findCardsByVendorId(@Param("vendorId") Long vendorId);
+
+    @Query(value = CARD_SELECT + "WHERE p.vendor.id = :vendorId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.vendor.id = :vendorId")
+    Page<ProductCardDTO> findCardsByVendorId(@Param("vendorId") Long vendorId, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = :status")
+    Page<ProductCardDTO> findCardsByStatus(@Param("status") ProductStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.primaryImagePath = :path WHERE p.id = :productId")
+    int updatePrimaryImagePath(@Param("productId") Long productId, @Param("path") String path);
+
+    // Fills primary_image_path for rows written before the column existed
+    @Modifying
+    @Query(value = "UPDATE products p SET p.primary_image_path = (" +
+            "SELECT fd.file_path FROM file_data fd WHERE fd.product_id = p.id AND fd.is_active = true " +
+            "ORDER BY fd.is_primary DESC, fd.sort_order ASC, fd.id ASC LIMIT 1) " +
+            "WHERE p.primary_image_path IS NULL " +
+            "AND EXISTS (SELECT 1 FROM file_data fd WHERE fd.product_id = p.id AND fd.is_active = true)",
+            nativeQuery = true)
+    int backfillPrimaryImagePaths();
+
     // Category methods
+    @EntityGraph("Product.listing")
     List<Product> findByCategoryId(Long categoryId);
+    @EntityGraph("Product.listing")
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
 
     // Status methods
+    @EntityGraph("Product.listing")
     List<Product> findByStatus(ProductStatus status);
+    @EntityGraph("Product.listing")
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
+    // Keyset batches in id order (full index rebuilds): no OFFSET scan, and stable while rows change
+    @EntityGraph("Product.listing")
+    List<Product> findByStatusAndIdGreaterThanOrderByIdAsc(ProductStatus status, Long id, Pageable pageable);
 
-    // Filter methods
-    @Query("SELECT p FROM Product p WHERE " +
-            "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-            "(:subCategoryId IS NULL OR p.subCategory.id = :subCategoryId) AND " +
-            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-            "(:brand IS NULL OR LOWER(p.brand) LIKE LOWER(CONCAT('%', :brand, '%'))) AND " +
-            "(:status IS NULL OR p.status = :status)")
-    List<Product> findByFilters(@Param("categoryId") Long categoryId,
-                                @Param("subCategoryId") Long subCategoryId,
-                                @Param("minPrice") Double minPrice,
-                                @Param("maxPrice") Double maxPrice,
-                                @Param("brand") String brand,
-                                @Param("status") ProductStatus status);
+    // Filter methods: see ProductFilterSpecifications (JpaSpecificationExecutor)
 
     // Search methods
     List<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrBrandContainingIgnoreCase(
@@ -50,62 +125,44 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
     Page<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrBrandContainingIgnoreCase(
             String name, String description, String brand, Pageable pageable);
 
-    // ✅ UPDATED: Trending products with VENDOR table
-    @Query(value = """
-        WITH ranked_products AS (
-            SELECT p.*, 
-                   v.shop_name as vendor_name,
-                   ROW_NUMBER() OVER (PARTITION BY p.vendor_id ORDER BY 
-                       (COALESCE(p.rating, 0) * 0.3 + 
-                        COALESCE(p.sales_count, 0) * 0.4 + 
-                        COALESCE(p.view_count, 0) * 0.2 + 
-                        COALESCE(p.admin_boost, 0) * 0.1 +
-                        CASE WHEN p.created_at > CURRENT_DATE - INTERVAL 30 DAY THEN 0.1 ELSE 0 END) DESC
-                   ) as vendor_rank,
-                   (COALESCE(p.rating, 0) * 0.3 + 
-                    COALESCE(p.sales_count, 0) * 0.4 + 
-                    COALESCE(p.view_count, 0) * 0.2 + 
-                    COALESCE(p.admin_boost, 0) * 0.1 +
-                    CASE WHEN p.created_at > CURRENT_DATE - INTERVAL 30 DAY THEN 0.1 ELSE 0 END) as performance_score
-            FROM products p
-            JOIN vendors v ON p.vendor_id = v.id
-            WHERE p.status = 'ACTIVE' 
-            AND p.stock > 0
-            AND v.vendor_status = 'ACTIVE'
-        )
-        SELECT * FROM ranked_products 
-        WHERE vendor_rank <= 2
-        ORDER BY performance_score DESC, created_at DESC
-        LIMIT :limit
-        """, nativeQuery = true)
-    List<Product> findTrendingProducts(@Param("limit") int limit);
-
-    // ✅ UPDATED: Best sellers with VENDOR
-    @Query("""
-        SELECT p FROM Product p 
-        WHERE p.status = 'ACTIVE' 
-        AND p.stock > 0 
-        AND p.vendor.vendorStatus = 'ACTIVE'
-        ORDER BY p.salesCount DESC, p.rating DESC
-        """)
-    List<Product> findBestSellingProducts(Pageable pageable);
-
-    // ✅ UPDATED: Featured products with VENDOR
-    @Query("""
-        SELECT p FROM Product p 
-        WHERE p.status = 'ACTIVE' 
-        AND p.stock > 0 
-        AND p.vendor.vendorStatus = 'ACTIVE'
-        AND (p.isFeatured = true OR p.rating >= 4.0 OR p.salesCount >= 50)
-        ORDER BY p.isFeatured DESC, p.adminBoost DESC, p.salesCount DESC
-        """)
-    List<Product> findFeaturedProducts(Pageable pageable);
+    // Trending, best-seller and featured rails: see ProductScoreRepo (product_scores read model)
+
+    // Catalog export: forward-only cursor in id order (fetch size needs useCursorFetch=true on MySQL)
+    @EntityGraph("Product.listing")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p WHERE p.status = :status " +
+            "AND p.id >= :fromId AND p.id <= :toId ORDER BY p.id")
+    Stream<Product> streamForExport(@Param("status") ProductStatus status,
+                                    @Param("fromId") Long fromId,
+                                    @Param("toId") Long toId);
+
+    // Version stamps for conditional GETs of the product detail: the product, the rows its DTO
+    // shows names from, and its images (count catches deletes)
+    @Query("SELECT p.updatedAt, c.updatedAt, sc.updatedAt, v.updatedAt, " +
+            "(SELECT COUNT(fd) FROM FileData fd WHERE fd.product.id = p.id), " +
+            "(SELECT MAX(fd.updatedAt) FROM FileData fd WHERE fd.product.id = p.id) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.subCategory sc LEFT JOIN p.vendor v " +
+            "WHERE p.id = :id")
+    List<Object[]> findVersionStamps(@Param("id") Long id);
+
+    // Ownership check for bulk vendor updates: which of these ids belong to the vendor
+    @Query("SELECT p.id FROM Product p WHERE p.vendor.id = :vendorId AND p.id IN :ids")
+    List<Long> findIdsOwnedByVendor(@Param("vendorId") Long vendorId, @Param("ids") Collection<Long> ids);
+
+    // Every product of a vendor, for publishing vendor-level changes
+    @Query("SELECT p.id FROM Product p WHERE p.vendor.id = :vendorId")
+    List<Long> findIdsByVendorId(@Param("vendorId") Long vendorId);
+
+    // Busiest listings first, by sales of their products; startup warm-up preloads these
+    @Query("SELECT p.category.id FROM Product p WHERE p.status = :status " +
+            "GROUP BY p.category.id ORDER BY SUM(p.salesCount) DESC, COUNT(p) DESC")
+    List<Long> findTopCategoryIds(@Param("status") ProductStatus status, Pageable pageable);
+
+    @Query("SELECT p.subCategory.id FROM Product p WHERE p.status = :status AND p.subCategory IS NOT NULL " +
+            "GROUP BY p.subCategory.id ORDER BY SUM(p.salesCount) DESC, COUNT(p) DESC")
+    List<Long> findTopSubCategoryIds(@Param("status") ProductStatus status, Pageable pageable);
 
     // Update product stats
-    @Modifying
-    @Query("UPDATE Product p SET p.viewCount = COALESCE(p.viewCount, 0) + 1 WHERE p.id = :productId")
-    void incrementViewCount(@Param("productId") Long productId);
-
     @Modifying
     @Query("UPDATE Product p SET p.salesCount = COALESCE(p.salesCount, 0) + :quantity WHERE p.id = :productId")
     void incrementSalesCount(@Param("productId") Long productId, @Param("quantity") int quantity);
@@ -125,8 +182,61 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
     List<Object[]> getVendorDistributionStats();
 
     // ✅ NEW: Additional useful methods
+    @EntityGraph("Product.listing")
     List<Product> findByCategoryIdAndStatus(Long categoryId, ProductStatus status);
+    @EntityGraph("Product.listing")
     Page<Product> findByCategoryIdAndStatus(Long categoryId, ProductStatus status, Pageable pageable);
-    List<Product> findByIsFeaturedTrueAndStatus(ProductStatus status);
+
+    // Sub-category listings (idx_products_sub_category_status)
+    @EntityGraph("Product.listing")
+    List<Product> findBySubCategoryIdAndStatus(Long subCategoryId, ProductStatus status);
+    @EntityGraph("Product.listing")
+    Page<Product> findBySubCategoryIdAndStatus(Long subCategoryId, ProductStatus status, Pageable pageable);
+    @EntityGraph("Product.listing")
+    List<Product> findBySubCategoryIdAndStatusOrderByCreatedAtDescIdDesc(Long subCategoryId, ProductStatus status,
+                                                                         Pageable pageable);
+
+    @EntityGraph("Product.listing")
+    @Query("SELECT p FROM Product p WHERE p.subCategory.id = :subCategoryId AND p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findBySubCategoryPageAfter(@Param("subCategoryId") Long subCategoryId,
+                                             @Param("status") ProductStatus status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    // Featured products of a category (idx_products_category_featured_status)
+    @EntityGraph("Product.listing")
+    List<Product> findByCategoryIdAndIsFeaturedTrueAndStatus(Long categoryId, ProductStatus status);
+    @EntityGraph("Product.listing")
+    Page<Product> findByCategoryIdAndIsFeaturedTrueAndStatus(Long categoryId, ProductStatus status, Pageable pageable);
+    @EntityGraph("Product.listing")
+    List<Product> findByCategoryIdAndIsFeaturedTrueAndStatusOrderByCreatedAtDescIdDesc(Long categoryId,
+                                                                                       ProductStatus status,
+                                                                                       Pageable pageable);
+
+    @EntityGraph("Product.listing")
+    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.isFeatured = true AND p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findFeaturedByCategoryPageAfter(@Param("categoryId") Long categoryId,
+                                                  @Param("status") ProductStatus status,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
+
     Long countByStatus(ProductStatus status);
-}
\ No newline at end of file
+
+    // KEYSET (CURSOR) PAGINATION - newest first, (createdAt, id) is the stable sort key
+    @EntityGraph("Product.listing")
+    List<Product> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @EntityGraph("Product.listing")
+    @Query("SELECT p FROM Product p WHERE p.createdAt < :createdAt " +
+            "OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.My.E_CommerceApp.Repository;
+
+import com.My.E_CommerceApp.Entity.ProductScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductScoreRepo extends JpaRepository<ProductScore, Long> {
+
+    // Top-N reads, each served by one of the product_scores indexes
+
+    // Best two products per vendor, highest performance score first
+    @Query("""
+        SELECT s.productId FROM ProductScore s
+        WHERE s.eligible = true AND s.vendorRank <= 2
+        ORDER BY s.performanceScore DESC, s.productCreatedAt DESC
+        """)
+    List<Long> findTrendingProductIds(Pageable pageable);
+
+    @Query("""
+        SELECT s.productId FROM ProductScore s
+        WHERE s.eligible = true
+        ORDER BY s.salesCount DESC, s.rating DESC
+        """)
+    List<Long> findBestSellingProductIds(Pageable pageable);
+
+    @Query("""
+        SELECT s.productId FROM ProductScore s
+        WHERE s.featuredCandidate = true
+        ORDER BY s.isFeatured DESC, s.adminBoost DESC, s.salesCount DESC
+        """)
+    List<Long> findFeaturedProductIds(Pageable pageable);
+}
@@ -4,6 +4,7 @@ import com.My.E_CommerceApp.Entity.ProductSpecification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +17,7 @@ public interface ProductSpecificationRepo extends JpaRepository<ProductSpecifica
 
     // Find specification by product and key
     List<ProductSpecification> findByProductIdAndKey(Long productId, String key);
+
+    // Find specifications for a batch of products (avoids one query per product)
+    List<ProductSpecification> findByProductIdIn(Collection<Long> productIds);
 }
@@ -0,0 +1,51 @@
+package com.My.E_CommerceApp.Repository;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators for a conditional GET: a strong ETag and a Last-Modified time, computed from the
+ * {@code updatedAt} stamps (and row counts) of every row a response is built from. Those values
+ * come from a version-only query, so a 304 never loads or maps the entity itself.
+ */
+@Getter
+public final class ResourceVersion {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String eTag;
+    private final long lastModified;    // epoch millis, -1 when no timestamp is known
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param type   resource kind, so equal ids of different resources never share an ETag
+     * @param stamps updatedAt values (LocalDateTime) and counts of the rows the response depends on; nulls allowed
+     */
+    public static ResourceVersion of(String type, Object id, Object... stamps) {
+        StringBuilder key = new StringBuilder(type).append('|').append(id);
+        LocalDateTime latest = null;
+        for (Object stamp : stamps) {
+            key.append('|').append(stamp);
+            if (stamp instanceof LocalDateTime time && (latest == null || time.isAfter(latest))) {
+                latest = time;
+            }
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        String eTag = "\"" + type + "-" + id + "-" + Long.toHexString(hash) + "\"";
+        long lastModified = latest != null ? latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        return new ResourceVersion(eTag, lastModified);
+    }
+}
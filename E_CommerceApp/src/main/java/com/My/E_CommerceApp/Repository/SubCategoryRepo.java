@@ -2,9 +2,12 @@ package com.My.E_CommerceApp.Repository;
 
 import com.My.E_CommerceApp.Entity.SubCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SubCategoryRepo extends JpaRepository<SubCategory, Long> {
@@ -13,4 +16,12 @@ public interface SubCategoryRepo extends JpaRepository<SubCategory, Long> {
 
     // Find sub-category by name and category
     List<SubCategory> findByCategoryIdAndName(Long categoryId, String name);
+    Optional<SubCategory> findFirstByCategoryIdAndNameIgnoreCase(Long categoryId, String name);
+
+    // Version stamps for conditional GETs (the DTO carries the parent category's name)
+    @Query("SELECT sc.updatedAt, c.updatedAt FROM SubCategory sc LEFT JOIN sc.category c WHERE sc.id = :id")
+    List<Object[]> findVersionStamps(@Param("id") Long id);
+
+    @Query("SELECT COUNT(sc), MAX(sc.updatedAt), (SELECT MAX(c.updatedAt) FROM Category c) FROM SubCategory sc")
+    List<Object[]> findListVersionStamps();
 }
@@ -11,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,4 +70,14 @@ public interface UserRepo extends JpaRepository<User, Long> {
     // 🔹 PERFORMANCE OPTIMIZED QUERIES (for dropdowns/lists)
     @Query("SELECT u.id, u.fullName, u.email, u.role FROM User u WHERE u.role = :role AND u.isActive = true")
     List<Object[]> findBasicUserInfoByRole(@Param("role") Role role);
+
+    // 🔹 KEYSET (CURSOR) PAGINATION - newest first, (createdAt, id) is the stable sort key
+    List<User> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.createdAt < :createdAt " +
+            "OR (u.createdAt = :createdAt AND u.id < :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,10 @@ public interface VendorRepo extends JpaRepository<Vendor, Long> {
 
     // 🔹 USER-RELATED QUERIES
     Optional<Vendor> findByUserId(Long userId);
+
+    // Version stamps for conditional GETs (the DTO embeds basic user info)
+    @Query("SELECT v.updatedAt, u.updatedAt FROM Vendor v LEFT JOIN v.user u WHERE v.id = :id")
+    List<Object[]> findVersionStamps(@Param("id") Long id);
     Optional<Vendor> findByUserEmailIgnoreCase(String email);
 
     @Query("SELECT v FROM Vendor v WHERE v.user.id IN :userIds")
@@ -92,4 +97,14 @@ public interface VendorRepo extends JpaRepository<Vendor, Long> {
 
     @Query("SELECT v FROM Vendor v ORDER BY v.averageRating DESC")
     List<Vendor> findTopRatedVendors(Pageable pageable);
+
+    // 🔹 KEYSET (CURSOR) PAGINATION - newest first, (createdAt, id) is the stable sort key
+    List<Vendor> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    @Query("SELECT v FROM Vendor v WHERE v.createdAt < :createdAt " +
+            "OR (v.createdAt = :createdAt AND v.id < :id) " +
+            "ORDER BY v.createdAt DESC, v.id DESC")
+    List<Vendor> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
 }
@@ -0,0 +1,326 @@
+package com.My.E_CommerceApp.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index over active products.
+ *
+ * Every product gets a dense ordinal, and every facet value (brand, price bucket, sub-category,
+ * specification value, in-stock) keeps a bitmap of the ordinals that carry it. Facet counts for a
+ * filter set are bitmap intersections; each facet is counted against all filters except its own,
+ * so a shopper can still see (and add) the alternatives to a value they already picked.
+ */
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String SUB_CATEGORY = "subCategory";
+    public static final String BRAND = "brand";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+    public static final String SPEC_PREFIX = "spec:";
+
+    private static final double[] PRICE_BUCKET_BOUNDS = {25, 50, 100, 250, 500, 1000};
+    private static final String IN_STOCK_VALUE = "true";
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private double[] prices = new double[1024];
+
+    // facet -> value key -> products having it
+    private final Map<String, Map<String, FacetValue>> facets = new HashMap<>();
+    // ordinal -> (facet, value key) pairs, so a product can be taken out of every bitmap it is in
+    private final Map<Integer, List<String[]>> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class FacetValue {
+        private final String label;
+        private final BitSet products = new BitSet();
+
+        private FacetValue(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Filters for a facet request. Null / empty fields are not applied.
+     * Brand matches as case-insensitive "contains", like the SQL filter; spec values are OR-ed within a key.
+     */
+    public record FacetQuery(Long categoryId, Long subCategoryId, Double minPrice, Double maxPrice,
+                             String brand, boolean inStockOnly, Map<String, List<String>> specs) {
+    }
+
+    public record FacetCount(String value, String label, int count) {
+    }
+
+    public record FacetCounts(int total, Map<String, List<FacetCount>> facets) {
+    }
+
+    // ==================== WRITE PATH ====================
+
+    public void index(long productId, Long categoryId, Long subCategoryId, String brand, double price,
+                      boolean inStock, Map<String, ? extends Collection<String>> specifications) {
+        List<String[]> postings = new ArrayList<>();
+        if (categoryId != null) {
+            postings.add(new String[]{CATEGORY, categoryId.toString(), categoryId.toString()});
+        }
+        if (subCategoryId != null) {
+            postings.add(new String[]{SUB_CATEGORY, subCategoryId.toString(), subCategoryId.toString()});
+        }
+        if (brand != null && !brand.isBlank()) {
+            postings.add(new String[]{BRAND, normalize(brand), brand.trim()});
+        }
+        String bucket = priceBucket(price);
+        postings.add(new String[]{PRICE, bucket, bucket});
+        if (inStock) {
+            postings.add(new String[]{IN_STOCK, IN_STOCK_VALUE, "In stock"});
+        }
+        if (specifications != null) {
+            specifications.forEach((key, values) -> {
+                if (key == null || key.isBlank() || values == null) {
+                    return;
+                }
+                String facet = SPEC_PREFIX + normalize(key);
+                for (String value : values) {
+                    if (value != null && !value.isBlank()) {
+                        postings.add(new String[]{facet, normalize(value), value.trim()});
+                    }
+                }
+            });
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+
+            int ordinal = freeOrdinals.isEmpty() ? productIds.size() : freeOrdinals.pop();
+            if (ordinal == productIds.size()) {
+                productIds.add(productId);
+            } else {
+                productIds.set(ordinal, productId);
+            }
+            if (ordinal >= prices.length) {
+                prices = Arrays.copyOf(prices, Math.max(ordinal + 1, prices.length * 2));
+            }
+            prices[ordinal] = price;
+            ordinals.put(productId, ordinal);
+            live.set(ordinal);
+
+            for (String[] posting : postings) {
+                facets.computeIfAbsent(posting[0], facet -> new HashMap<>())
+                        .computeIfAbsent(posting[1], value -> new FacetValue(posting[2]))
+                        .products.set(ordinal);
+            }
+            documents.put(ordinal, postings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        for (String[] posting : documents.remove(ordinal)) {
+            Map<String, FacetValue> values = facets.get(posting[0]);
+            FacetValue value = values == null ? null : values.get(posting[1]);
+            if (value == null) {
+                continue;   // same value listed twice on one product, already cleared
+            }
+            value.products.clear(ordinal);
+            if (value.products.isEmpty()) {
+                values.remove(posting[1]);
+                if (values.isEmpty()) {
+                    facets.remove(posting[0]);
+                }
+            }
+        }
+        live.clear(ordinal);
+        productIds.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    // ==================== QUERY ====================
+
+    public FacetCounts count(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            // Category scopes the whole listing, it is not a facet the shopper toggles
+            BitSet scope = (BitSet) live.clone();
+            if (query.categoryId() != null) {
+                scope.and(bitsOf(CATEGORY, query.categoryId().toString()));
+            }
+
+            Map<String, BitSet> filters = new LinkedHashMap<>();
+            if (query.subCategoryId() != null) {
+                filters.put(SUB_CATEGORY, bitsOf(SUB_CATEGORY, query.subCategoryId().toString()));
+            }
+            if (query.brand() != null && !query.brand().isBlank()) {
+                filters.put(BRAND, brandsContaining(normalize(query.brand())));
+            }
+            if (query.minPrice() != null || query.maxPrice() != null) {
+                filters.put(PRICE, pricesBetween(scope, query.minPrice(), query.maxPrice()));
+            }
+            if (query.inStockOnly()) {
+                filters.put(IN_STOCK, bitsOf(IN_STOCK, IN_STOCK_VALUE));
+            }
+            if (query.specs() != null) {
+                query.specs().forEach((key, values) -> {
+                    String facet = SPEC_PREFIX + normalize(key);
+                    BitSet specMatches = new BitSet();
+                    for (String value : values) {
+                        specMatches.or(bitsOf(facet, normalize(value)));
+                    }
+                    filters.merge(facet, specMatches, (a, b) -> {
+                        a.and(b);
+                        return a;
+                    });
+                });
+            }
+
+            BitSet matching = intersect(scope, filters, null);
+            Map<String, List<FacetCount>> counts = new LinkedHashMap<>();
+            counts.put(SUB_CATEGORY, countValues(SUB_CATEGORY, scope, filters, matching));
+            counts.put(BRAND, countValues(BRAND, scope, filters, matching));
+            counts.put(PRICE, countValues(PRICE, scope, filters, matching));
+            counts.put(IN_STOCK, countValues(IN_STOCK, scope, filters, matching));
+            facets.keySet().stream()
+                    .filter(facet -> facet.startsWith(SPEC_PREFIX))
+                    .sorted()
+                    .forEach(facet -> {
+                        List<FacetCount> specCounts = countValues(facet, scope, filters, matching);
+                        if (!specCounts.isEmpty()) {
+                            counts.put(facet, specCounts);
+                        }
+                    });
+
+            return new FacetCounts(matching.cardinality(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counts each value of a facet within the products matching every filter except the facet's own
+    private List<FacetCount> countValues(String facet, BitSet scope, Map<String, BitSet> filters, BitSet matching) {
+        Map<String, FacetValue> values = facets.get(facet);
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        BitSet candidates = filters.containsKey(facet) ? intersect(scope, filters, facet) : matching;
+
+        List<FacetCount> result = new ArrayList<>();
+        for (Map.Entry<String, FacetValue> entry : values.entrySet()) {
+            BitSet overlap = (BitSet) entry.getValue().products.clone();
+            overlap.and(candidates);
+            int count = overlap.cardinality();
+            if (count > 0) {
+                result.add(new FacetCount(entry.getKey(), entry.getValue().label, count));
+            }
+        }
+
+        Comparator<FacetCount> order = PRICE.equals(facet)
+                ? Comparator.comparingDouble(count -> priceBucketStart(count.value()))
+                : Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::label);
+        result.sort(order);
+        return result;
+    }
+
+    private BitSet intersect(BitSet scope, Map<String, BitSet> filters, String excludedFacet) {
+        BitSet result = (BitSet) scope.clone();
+        filters.forEach((facet, bits) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(bits);
+            }
+        });
+        return result;
+    }
+
+    private BitSet bitsOf(String facet, String value) {
+        Map<String, FacetValue> values = facets.get(facet);
+        FacetValue facetValue = values == null ? null : values.get(value);
+        return facetValue == null ? new BitSet() : facetValue.products;
+    }
+
+    private BitSet brandsContaining(String term) {
+        BitSet result = new BitSet();
+        Map<String, FacetValue> brands = facets.get(BRAND);
+        if (brands != null) {
+            brands.forEach((key, value) -> {
+                if (key.contains(term)) {
+                    result.or(value.products);
+                }
+            });
+        }
+        return result;
+    }
+
+    private BitSet pricesBetween(BitSet scope, Double minPrice, Double maxPrice) {
+        double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+        BitSet result = new BitSet();
+        for (int ordinal = scope.nextSetBit(0); ordinal >= 0; ordinal = scope.nextSetBit(ordinal + 1)) {
+            if (prices[ordinal] >= min && prices[ordinal] <= max) {
+                result.set(ordinal);
+            }
+        }
+        return result;
+    }
+
+    // ==================== HELPERS ====================
+
+    // 0-25, 25-50, ..., 1000+ (lower bound inclusive)
+    static String priceBucket(double price) {
+        double lower = 0;
+        for (double bound : PRICE_BUCKET_BOUNDS) {
+            if (price < bound) {
+                return formatBound(lower) + "-" + formatBound(bound);
+            }
+            lower = bound;
+        }
+        return formatBound(lower) + "+";
+    }
+
+    private static double priceBucketStart(String bucket) {
+        int end = bucket.indexOf('-');
+        return Double.parseDouble(bucket.substring(0, end > 0 ? end : bucket.length() - 1));
+    }
+
+    private static String formatBound(double bound) {
+        return String.valueOf((long) bound);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,319 @@
+package com.My.E_CommerceApp.Search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product text fields.
+ *
+ * Terms are weighted by the field they came from (name > brand > specifications > description),
+ * scored with a BM25-style saturation, and blended with sales and rating so popular products
+ * win ties. Misspelled query terms are matched through a one-edit deletion neighbourhood,
+ * and the last query term is also treated as a prefix so partially typed words still match.
+ *
+ * Thread-safe. A full rebuild fills a new instance and swaps it in, so searches keep using the
+ * complete old index until the new one is ready.
+ */
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.5f;
+    private static final float SPECIFICATION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float FUZZY_MATCH = 0.6f;
+
+    private static final float BM25_K1 = 1.2f;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // term -> (productId -> field-weighted term frequency)
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    // single-character deletion -> terms producing it (typo tolerance)
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private final NavigableSet<String> vocabulary = new TreeSet<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record IndexedDocument(Set<String> terms, int salesCount, double rating) {
+    }
+
+    private record Hit(long productId, double score) {
+    }
+
+    /** The best {@code limit} matches, best first, and how many products matched in all. */
+    public record Hits(List<Long> productIds, int totalMatches) {
+
+        public static final Hits NONE = new Hits(Collections.emptyList(), 0);
+    }
+
+    // ==================== WRITE PATH ====================
+
+    public void index(long productId, String name, String brand, String description,
+                      Collection<String> specificationValues, int salesCount, double rating) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addField(termWeights, name, NAME_WEIGHT);
+        addField(termWeights, brand, BRAND_WEIGHT);
+        addField(termWeights, description, DESCRIPTION_WEIGHT);
+        if (specificationValues != null) {
+            for (String value : specificationValues) {
+                addField(termWeights, value, SPECIFICATION_WEIGHT);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            for (Map.Entry<String, Float> entry : termWeights.entrySet()) {
+                String term = entry.getKey();
+                Map<Long, Float> docs = postings.get(term);
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    postings.put(term, docs);
+                    addToVocabulary(term);
+                }
+                docs.put(productId, entry.getValue());
+            }
+            documents.put(productId, new IndexedDocument(termWeights.keySet(), salesCount, rating));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addField(Map<String, Float> termWeights, String text, float weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void removeInternal(long productId) {
+        IndexedDocument existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(productId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                removeFromVocabulary(term);
+            }
+        }
+    }
+
+    private void addToVocabulary(String term) {
+        vocabulary.add(term);
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String deletion : deletionsOf(term)) {
+                deletions.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    private void removeFromVocabulary(String term) {
+        vocabulary.remove(term);
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String deletion : deletionsOf(term)) {
+                Set<String> terms = deletions.get(deletion);
+                if (terms != null) {
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        deletions.remove(deletion);
+                    }
+                }
+            }
+        }
+    }
+
+    // ==================== READ PATH ====================
+
+    /**
+     * Returns ids of the {@code limit} best matching products, best match first (ties: newest id first).
+     * Matches are selected with a heap bounded by {@code limit}, so the full match set is never sorted.
+     */
+    public Hits search(String query, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Hits.NONE;
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocuments = documents.size();
+            Map<Long, Float> scores = new HashMap<>();
+            Map<Long, Integer> matchedTokens = new HashMap<>();
+
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean lastToken = i == tokens.size() - 1;
+                Map<String, Float> expansions = expand(tokens.get(i), lastToken);
+
+                // A document scores the best expansion of each query token, not the sum of all of them
+                Map<Long, Float> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+                    Map<Long, Float> docs = postings.get(expansion.getKey());
+                    float idf = idf(totalDocuments, docs.size());
+                    for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+                        float tf = doc.getValue();
+                        float score = expansion.getValue() * idf * (tf * (BM25_K1 + 1)) / (tf + BM25_K1);
+                        tokenScores.merge(doc.getKey(), score, Math::max);
+                    }
+                }
+
+                for (Map.Entry<Long, Float> entry : tokenScores.entrySet()) {
+                    scores.merge(entry.getKey(), entry.getValue(), Float::sum);
+                    matchedTokens.merge(entry.getKey(), 1, Integer::sum);
+                }
+            }
+
+            // Min-heap on (score, id): the root is the worst hit kept so far
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+                    (a, b) -> compareHits(b, a));
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                Long productId = entry.getKey();
+                double coordination = (double) matchedTokens.get(productId) / tokens.size();
+                Hit hit = new Hit(productId, entry.getValue() * coordination * coordination * popularity(productId));
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (compareHits(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll().productId();
+            }
+            return new Hits(List.of(ranked), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Negative when a ranks before b: higher score first, then higher id
+    private static int compareHits(Hit a, Hit b) {
+        int byScore = Double.compare(b.score(), a.score());
+        return byScore != 0 ? byScore : Long.compare(b.productId(), a.productId());
+    }
+
+    private Map<String, Float> expand(String token, boolean allowPrefix) {
+        Map<String, Float> expansions = new HashMap<>();
+        if (postings.containsKey(token)) {
+            expansions.put(token, EXACT_MATCH);
+        }
+
+        if (allowPrefix && token.length() >= 2) {
+            int added = 0;
+            for (String term : vocabulary.subSet(token, false, token + Character.MAX_VALUE, false)) {
+                if (added++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.putIfAbsent(term, PREFIX_MATCH);
+            }
+        }
+
+        if (!expansions.containsKey(token) && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            for (String candidate : fuzzyCandidates(token)) {
+                if (editDistance(token, candidate, maxEdits) <= maxEdits) {
+                    expansions.putIfAbsent(candidate, FUZZY_MATCH);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private Set<String> fuzzyCandidates(String token) {
+        Set<String> candidates = new HashSet<>(deletions.getOrDefault(token, Collections.emptySet()));
+        for (String deletion : deletionsOf(token)) {
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            candidates.addAll(deletions.getOrDefault(deletion, Collections.emptySet()));
+        }
+        return candidates;
+    }
+
+    private double popularity(Long productId) {
+        IndexedDocument document = documents.get(productId);
+        if (document == null) {
+            return 1.0;
+        }
+        return 1.0 + 0.15 * Math.log1p(Math.max(0, document.salesCount())) + 0.1 * document.rating();
+    }
+
+    private static float idf(int totalDocuments, int documentFrequency) {
+        return (float) Math.log(1 + (totalDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance, abandoning early once every cell in a row exceeds {@code maxEdits}.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,40 @@
+package com.My.E_CommerceApp.Search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into lower-cased search terms.
+ * Used for both indexing and querying so the two always agree on term boundaries.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from",
+            "in", "is", "it", "of", "on", "or", "the", "to", "with"
+    );
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        for (String raw : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (raw.isEmpty() || raw.length() > MAX_TERM_LENGTH || STOP_WORDS.contains(raw)) {
+                continue;
+            }
+            tokens.add(raw);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,283 @@
+package com.My.E_CommerceApp.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from product specification attributes ("ram" = "16gb") to product ids.
+ *
+ * Keys and values are normalised (trimmed, lower-cased) and interned into a dictionary, so every
+ * distinct key/value pair is stored once and identified by an int. Each attribute id owns a sorted
+ * posting list of product ids (a primitive long array, 8 bytes per specification row), and lookups
+ * union the values of a key and intersect across keys by merging sorted arrays.
+ */
+public class SpecAttributeIndex {
+
+    private static final long[] NO_PRODUCTS = new long[0];
+
+    // Dictionary: key -> key id, (key id, value) -> attribute id
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private final List<Map<String, Integer>> valueIdsByKey = new ArrayList<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    // product id -> attribute ids it is listed under
+    private final Map<Long, int[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ==================== WRITE PATH ====================
+
+    public void index(long productId, Map<String, ? extends Collection<String>> specifications) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            if (specifications == null || specifications.isEmpty()) {
+                return;
+            }
+
+            Set<Integer> attributeIds = new LinkedHashSet<>();
+            specifications.forEach((key, values) -> {
+                if (key == null || key.isBlank() || values == null) {
+                    return;
+                }
+                int keyId = internKey(key);
+                for (String value : values) {
+                    if (value != null && !value.isBlank()) {
+                        attributeIds.add(internValue(keyId, value));
+                    }
+                }
+            });
+
+            int[] ids = attributeIds.stream().mapToInt(Integer::intValue).toArray();
+            for (int attributeId : ids) {
+                postings.get(attributeId).add(productId);
+            }
+            documents.put(productId, ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int attributeCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long productId) {
+        int[] attributeIds = documents.remove(productId);
+        if (attributeIds != null) {
+            for (int attributeId : attributeIds) {
+                postings.get(attributeId).remove(productId);
+            }
+        }
+    }
+
+    private int internKey(String key) {
+        String normalized = normalize(key);
+        Integer keyId = keyIds.get(normalized);
+        if (keyId == null) {
+            keyId = valueIdsByKey.size();
+            keyIds.put(normalized, keyId);
+            valueIdsByKey.add(new HashMap<>());
+        }
+        return keyId;
+    }
+
+    private int internValue(int keyId, String value) {
+        Map<String, Integer> valueIds = valueIdsByKey.get(keyId);
+        String normalized = normalize(value);
+        Integer attributeId = valueIds.get(normalized);
+        if (attributeId == null) {
+            attributeId = postings.size();
+            valueIds.put(normalized, attributeId);
+            postings.add(new Postings());
+        }
+        return attributeId;
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Sorted ids of products that, for every key, have at least one of the listed values
+     * (case-insensitive). Unknown keys or values match nothing.
+     */
+    public long[] findProductIds(Map<String, ? extends Collection<String>> attributes) {
+        lock.readLock().lock();
+        try {
+            List<IdList> perKey = new ArrayList<>();
+            for (Map.Entry<String, ? extends Collection<String>> entry : attributes.entrySet()) {
+                Integer keyId = keyIds.get(normalize(entry.getKey()));
+                if (keyId == null) {
+                    return NO_PRODUCTS;
+                }
+                IdList matches = IdList.EMPTY;
+                for (String value : entry.getValue()) {
+                    Integer attributeId = valueIdsByKey.get(keyId).get(normalize(value));
+                    if (attributeId != null) {
+                        Postings values = postings.get(attributeId);
+                        matches = union(matches, new IdList(values.ids, values.size));
+                    }
+                }
+                if (matches.size() == 0) {
+                    return NO_PRODUCTS;
+                }
+                perKey.add(matches);
+            }
+            if (perKey.isEmpty()) {
+                return NO_PRODUCTS;
+            }
+
+            // Smallest list first keeps every intersection step as cheap as possible
+            perKey.sort(Comparator.comparingInt(IdList::size));
+            IdList result = perKey.get(0);
+            for (int i = 1; i < perKey.size() && result.size() > 0; i++) {
+                result = intersect(result, perKey.get(i));
+            }
+            // Posting arrays are live, hand out a private copy
+            return Arrays.copyOf(result.ids(), result.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    // Sorted ids; only the first size entries are valid
+    record IdList(long[] ids, int size) {
+        static final IdList EMPTY = new IdList(NO_PRODUCTS, 0);
+    }
+
+    static IdList union(IdList left, IdList right) {
+        if (left.size() == 0) {
+            return right;
+        }
+        if (right.size() == 0) {
+            return left;
+        }
+        long[] a = left.ids(), b = right.ids();
+        long[] out = new long[left.size() + right.size()];
+        int i = 0, j = 0, n = 0;
+        while (i < left.size() && j < right.size()) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < left.size()) {
+            out[n++] = a[i++];
+        }
+        while (j < right.size()) {
+            out[n++] = b[j++];
+        }
+        return new IdList(out, n);
+    }
+
+    static IdList intersect(IdList left, IdList right) {
+        if (left.size() > right.size()) {
+            return intersect(right, left);
+        }
+        long[] a = left.ids(), b = right.ids();
+        if ((long) left.size() * 16 < right.size()) {
+            // Much smaller left side: binary-search each id instead of walking the long list
+            long[] out = new long[left.size()];
+            int n = 0, from = 0;
+            for (int i = 0; i < left.size() && from < right.size(); i++) {
+                int position = Arrays.binarySearch(b, from, right.size(), a[i]);
+                if (position >= 0) {
+                    out[n++] = a[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return new IdList(out, n);
+        }
+
+        long[] out = new long[Math.min(left.size(), right.size())];
+        int i = 0, j = 0, n = 0;
+        while (i < left.size() && j < right.size()) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return new IdList(out, n);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Growable sorted array of product ids; appends are O(1) when ids arrive in ascending order (rebuilds)
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long productId) {
+            if (size > 0 && ids[size - 1] >= productId) {
+                int position = Arrays.binarySearch(ids, 0, size, productId);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, productId);
+                return;
+            }
+            insertAt(size, productId);
+        }
+
+        private void insertAt(int position, long productId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = productId;
+            size++;
+        }
+
+        private void remove(long productId) {
+            int position = Arrays.binarySearch(ids, 0, size, productId);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.My.E_CommerceApp.Search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead completions over product names, brands, category and sub-category names.
+ *
+ * Phrases live in a radix (path-compressed) trie. Each phrase is inserted from the start of each of its
+ * first few words, so "gal" completes "Samsung Galaxy S23". Every node caches the top-K phrases of its
+ * subtree by weight, so a lookup is a walk down the prefix plus a copy of at most K entries.
+ *
+ * A phrase's weight is the sum of its contributing products' popularity; when a product is re-indexed
+ * or removed only the paths of the phrases it touches are re-ranked, bottom-up.
+ */
+public class SuggestionTrie {
+
+    public static final int TOP_K = 10;
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WORD_STARTS = 4;
+
+    public enum SuggestionType {
+        PRODUCT, BRAND, CATEGORY, SUB_CATEGORY
+    }
+
+    public record Suggestion(String text, SuggestionType type, double weight) {
+    }
+
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private int[] terminals = new int[0];
+        private int[] topK = new int[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Phrase {
+        private final String text;
+        private final SuggestionType type;
+        private final List<String> keys;
+        private double weight;
+        private int contributors;
+
+        private Phrase(String text, SuggestionType type, List<String> keys) {
+            this.text = text;
+            this.type = type;
+            this.keys = keys;
+        }
+    }
+
+    private record Contribution(int phraseId, double weight) {
+    }
+
+    private final Node root = new Node("");
+    private final List<Phrase> phrases = new ArrayList<>();
+    private final ArrayDeque<Integer> freePhraseIds = new ArrayDeque<>();
+    private final Map<String, Integer> phraseIds = new HashMap<>();
+    private final Map<Long, List<Contribution>> contributions = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Comparator<Integer> byWeight = Comparator
+            .comparingDouble((Integer id) -> phrases.get(id).weight).reversed()
+            .thenComparing(id -> phrases.get(id).text);
+
+    // ==================== WRITE PATH ====================
+
+    public void index(long productId, String name, String brand, String categoryName, String subCategoryName,
+                      double weight) {
+        Map<String, SuggestionType> productPhrases = new HashMap<>();
+        addPhrase(productPhrases, name, SuggestionType.PRODUCT);
+        addPhrase(productPhrases, brand, SuggestionType.BRAND);
+        addPhrase(productPhrases, categoryName, SuggestionType.CATEGORY);
+        addPhrase(productPhrases, subCategoryName, SuggestionType.SUB_CATEGORY);
+
+        lock.writeLock().lock();
+        try {
+            Map<Integer, Double> previousWeights = new LinkedHashMap<>();
+            removeContributions(productId, previousWeights);
+
+            List<Contribution> added = new ArrayList<>();
+            productPhrases.forEach((text, type) -> {
+                int phraseId = phraseIdFor(text, type);
+                Phrase phrase = phrases.get(phraseId);
+                previousWeights.putIfAbsent(phraseId, phrase.weight);
+                phrase.weight += weight;
+                phrase.contributors++;
+                added.add(new Contribution(phraseId, weight));
+            });
+            contributions.put(productId, added);
+
+            applyWeightChanges(previousWeights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Map<Integer, Double> previousWeights = new LinkedHashMap<>();
+            removeContributions(productId, previousWeights);
+            applyWeightChanges(previousWeights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return phraseIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addPhrase(Map<String, SuggestionType> target, String text, SuggestionType type) {
+        if (text != null && !normalize(text).isEmpty()) {
+            target.putIfAbsent(text.trim(), type);
+        }
+    }
+
+    private int phraseIdFor(String text, SuggestionType type) {
+        String identity = type + "|" + normalize(text);
+        Integer existing = phraseIds.get(identity);
+        if (existing != null) {
+            return existing;
+        }
+
+        Phrase phrase = new Phrase(text, type, keysOf(text));
+        int phraseId;
+        if (freePhraseIds.isEmpty()) {
+            phraseId = phrases.size();
+            phrases.add(phrase);
+        } else {
+            phraseId = freePhraseIds.pop();
+            phrases.set(phraseId, phrase);
+        }
+        phraseIds.put(identity, phraseId);
+        for (String key : phrase.keys) {
+            Node node = insertKey(key);
+            node.terminals = append(node.terminals, phraseId);
+        }
+        return phraseId;
+    }
+
+    private void removeContributions(long productId, Map<Integer, Double> previousWeights) {
+        List<Contribution> previous = contributions.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (Contribution contribution : previous) {
+            Phrase phrase = phrases.get(contribution.phraseId());
+            previousWeights.putIfAbsent(contribution.phraseId(), phrase.weight);
+            phrase.weight -= contribution.weight();
+            phrase.contributors--;
+        }
+    }
+
+    private void applyWeightChanges(Map<Integer, Double> previousWeights) {
+        previousWeights.forEach((phraseId, previousWeight) -> {
+            Phrase phrase = phrases.get(phraseId);
+            if (phrase.contributors <= 0) {
+                removePhrase(phraseId);
+            } else if (phrase.weight > previousWeight) {
+                for (String key : phrase.keys) {
+                    promote(pathTo(key), phraseId);
+                }
+            } else if (phrase.weight < previousWeight) {
+                for (String key : phrase.keys) {
+                    demote(pathTo(key), phraseId);
+                }
+            }
+        });
+    }
+
+    /*
+     * Ranking maintenance, bottom-up along one key path. A node's top-K is drawn from its terminals and its
+     * children's top-K, so once the phrase is not (or no longer) in a node's list it cannot be in any
+     * ancestor's list through this path and the walk stops.
+     */
+
+    // Weight went up: O(K) per node, no need to look at siblings
+    private void promote(List<Node> path, int phraseId) {
+        double weight = phrases.get(phraseId).weight;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (contains(node.topK, phraseId)) {
+                node.topK = sorted(node.topK);
+            } else if (node.topK.length < TOP_K || weight > phrases.get(node.topK[node.topK.length - 1]).weight) {
+                int[] ranked = sorted(append(node.topK, phraseId));
+                node.topK = ranked.length > TOP_K ? Arrays.copyOf(ranked, TOP_K) : ranked;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Weight went down: a full list has to be recomputed, something outside it may now rank higher
+    private void demote(List<Node> path, int phraseId) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (!contains(node.topK, phraseId)) {
+                return;
+            }
+            node.topK = node.topK.length < TOP_K ? sorted(node.topK) : computeTopK(node);
+        }
+    }
+
+    private void removePhrase(int phraseId) {
+        Phrase phrase = phrases.get(phraseId);
+        phrases.set(phraseId, null);
+        phraseIds.remove(phrase.type + "|" + normalize(phrase.text));
+
+        for (String key : phrase.keys) {
+            List<Node> path = pathTo(key);
+            if (path == null) {
+                continue;
+            }
+            Node terminal = path.get(path.size() - 1);
+            terminal.terminals = without(terminal.terminals, phraseId);
+
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (i > 0 && node.terminals.length == 0 && node.children.isEmpty()) {
+                    path.get(i - 1).children.remove(node.label.charAt(0));
+                    continue;
+                }
+                if (!contains(node.topK, phraseId)) {
+                    break;
+                }
+                node.topK = computeTopK(node);
+            }
+        }
+        freePhraseIds.push(phraseId);
+    }
+
+    private int[] computeTopK(Node node) {
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (int phraseId : node.terminals) {
+            if (phrases.get(phraseId) != null) {
+                candidates.add(phraseId);
+            }
+        }
+        for (Node child : node.children.values()) {
+            for (int phraseId : child.topK) {
+                if (phrases.get(phraseId) != null) {
+                    candidates.add(phraseId);
+                }
+            }
+        }
+        return candidates.stream()
+                .sorted(byWeight)
+                .limit(TOP_K)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private Node insertKey(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            char next = key.charAt(i);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(next, child);
+                return child;
+            }
+
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: node -> middle (shared part) -> child (rest of the old label)
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                middle.topK = child.topK.clone();
+                node.children.put(next, middle);
+                child = middle;
+            }
+            i += common;
+            node = child;
+        }
+        return node;
+    }
+
+    // Nodes from the root to the node where the key ends exactly, or null if the key is not in the trie
+    private List<Node> pathTo(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    // ==================== QUERY ====================
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<Suggestion> result = new ArrayList<>();
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    return result;
+                }
+                int common = commonPrefixLength(child.label, key, i);
+                if (i + common < key.length() && common < child.label.length()) {
+                    return result;   // diverges inside the edge
+                }
+                i += common;
+                node = child;
+            }
+
+            for (int phraseId : node.topK) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                Phrase phrase = phrases.get(phraseId);
+                result.add(new Suggestion(phrase.text, phrase.type, phrase.weight));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    // "Samsung Galaxy S23" -> "samsung galaxy s23", "galaxy s23", "s23"
+    private static List<String> keysOf(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start >= 0 && keys.size() < MAX_WORD_STARTS) {
+            String key = normalized.substring(start);
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] append(int[] values, int value) {
+        for (int existing : values) {
+            if (existing == value) {
+                return values;
+            }
+        }
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private int[] sorted(int[] phraseIdsToSort) {
+        return Arrays.stream(phraseIdsToSort).boxed().sorted(byWeight).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int existing : values) {
+            if (existing == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] without(int[] values, int value) {
+        return Arrays.stream(values).filter(existing -> existing != value).toArray();
+    }
+}
@@ -11,7 +11,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -199,22 +198,10 @@ public class CartItemService {
     }
 
     // ✅ REUSABLE HELPER METHOD (Same as in OrderService)
+    // Reads the denormalized column kept by FileDataService; never loads the images collection
     private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return "/images/default-product.png"; // Default image
-        }
-
-        // Priority: Primary image > Sorted image > First image
-        return product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst()
-                .map(FileData::getFilePath)
-                .orElseGet(() ->
-                        product.getImages().stream()
-                                .min(Comparator.comparing(FileData::getSortOrder))
-                                .map(FileData::getFilePath)
-                                .orElse(product.getImages().get(0).getFilePath())
-                );
+        String path = product.getPrimaryImagePath();
+        return path != null ? path : "/images/default-product.png"; // Default image
     }
 
     // ✅ CONVERT: DTO to Entity (for internal use)
@@ -0,0 +1,548 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Catalog.CatalogRow;
+import com.My.E_CommerceApp.Catalog.CatalogSnapshot;
+import com.My.E_CommerceApp.Catalog.CatalogSnapshotFile;
+import com.My.E_CommerceApp.DTO.RequestDTO.FileDataDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductSpecificationDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductCardDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductResponseDTO;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the in-memory {@link CatalogSnapshot} that storefront reads (product detail, rails, search results,
+ * recommendations, category and sub-category listings) are served from.
+ *
+ * The snapshot is built with plain JDBC once the application is ready and rebuilt periodically; in between
+ * it follows ProductChangeBus: changed products are re-read and applied copy-on-write, and the new snapshot
+ * is published with a single volatile write. Readers take {@link #current()} once per request and never lock.
+ * Like the other change listeners it trails commits by the bus's dispatch delay.
+ *
+ * Until the first build completes {@link #current()} is null and callers read from the database.
+ *
+ * The snapshot is also written to a file in the background (see {@link CatalogSnapshotFile}) after each full
+ * build and then periodically when it changed. At startup that file is loaded instead of the full build, and
+ * the products changed since its watermark, plus any whose presence disagrees with the database (deleted,
+ * re-activated), are re-read, so a restart serves reads after a file load and a small replay.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService implements ProductChangeListener {
+
+    // The sales counter is not part of the snapshot
+    private static final Set<ProductChangeType> RELEVANT_CHANGES = EnumSet.complementOf(EnumSet.of(ProductChangeType.SALES));
+    private static final int COMPACT_MIN_DEAD_SLOTS = 1024;
+    // Replay also covers transactions that set updated_at before the watermark but committed after it
+    private static final long REPLAY_OVERLAP_SECONDS = 60;
+
+    private static final String PRODUCT_COLUMNS_SQL = """
+        SELECT id, name, description, price, stock, discount, brand, rating, is_featured, category_id,
+               sub_category_id, vendor_id, primary_image_path, created_at, updated_at
+        FROM products
+        """;
+
+    private static final String IMAGES_SQL = """
+        SELECT id, product_id, file_name, file_path, file_type, file_size, alt_text, sort_order, is_primary, mime_type
+        FROM file_data
+        WHERE product_id IN (:ids)
+        ORDER BY id
+        """;
+
+    private static final String SPECIFICATIONS_SQL = """
+        SELECT product_id, spec_key, spec_value, display_order
+        FROM product_specifications
+        WHERE product_id IN (:ids)
+        ORDER BY id
+        """;
+
+    private static final String CATEGORY_NAMES_SQL = "SELECT id, name FROM categories";
+    private static final String SUB_CATEGORY_NAMES_SQL = "SELECT id, name FROM sub_categories";
+    private static final String VENDOR_NAMES_SQL = "SELECT id, shop_name AS name FROM vendors";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final boolean persistEnabled;
+    private final Path persistPath;
+    private final ThreadPoolTaskExecutor persistWriter;
+
+    // Serialises writers (full build, incremental apply, name refresh); readers never take it
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private volatile CatalogSnapshot snapshot;
+    private volatile long publishedAt = System.currentTimeMillis();
+    private volatile long publishCount;
+    private volatile long persistedCount;
+    private final AtomicBoolean persistScheduled = new AtomicBoolean();
+
+    public CatalogSnapshotService(JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedJdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.catalog.enabled:true}") boolean enabled,
+                                  @Value("${app.catalog.batch-size:1000}") int batchSize,
+                                  @Value("${app.catalog.persist.enabled:true}") boolean persistEnabled,
+                                  @Value("${app.catalog.persist.path:data/catalog.snapshot}") String persistPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.persistEnabled = persistEnabled;
+        this.persistPath = Path.of(persistPath);
+
+        // Private single-thread writer (not a bean): serialising a large catalog never holds up a request or the bus
+        this.persistWriter = new ThreadPoolTaskExecutor();
+        persistWriter.setCorePoolSize(1);
+        persistWriter.setMaxPoolSize(1);
+        persistWriter.setThreadNamePrefix("catalog-snapshot-writer-");
+        persistWriter.initialize();
+
+        Gauge.builder("catalog.snapshot.products", this, service -> service.snapshot != null ? service.snapshot.size() : 0)
+                .description("ACTIVE products held by the in-memory catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, service -> System.currentTimeMillis() - service.publishedAt)
+                .description("Milliseconds since the catalog snapshot was last published")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistWriter.shutdown();
+    }
+
+    // ==================== READ PATH ====================
+
+    /** The current snapshot, or null while it is disabled or not built yet. */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    public ProductResponseDTO toDto(CatalogSnapshot catalog, CatalogRow row) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(row.id());
+        dto.setName(row.name());
+        dto.setDescription(row.description());
+        dto.setPrice(row.price());
+        dto.setStock(row.stock());
+        dto.setImages(row.images().stream().map(CatalogSnapshotService::toFileDataDto).collect(Collectors.toList()));
+        dto.setDiscount(row.discount());
+        dto.setBrand(row.brand());
+        dto.setCategoryName(catalog.categoryName(row.categoryId()));
+        dto.setSubCategoryName(catalog.subCategoryName(row.subCategoryId()));
+        dto.setStatus(ProductStatus.ACTIVE);
+        dto.setVendorId(row.vendorId());
+        dto.setVendorName(catalog.vendorName(row.vendorId()));
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+        dto.setSpecifications(row.specifications().stream().map(spec -> {
+            ProductSpecificationDTO specDTO = new ProductSpecificationDTO();
+            specDTO.setKey(spec.key());
+            specDTO.setValue(spec.value());
+            specDTO.setDisplayOrder(spec.displayOrder());
+            return specDTO;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+
+    /**
+     * Validators of the DTO built from this row. They hash everything the DTO shows (names included), so the
+     * ETag changes exactly when the snapshot's body does, even while the snapshot trails the database.
+     */
+    public ResourceVersion toVersion(CatalogSnapshot catalog, CatalogRow row) {
+        return ResourceVersion.of("product", row.id(), row.updatedAt(), row,
+                catalog.categoryName(row.categoryId()), catalog.subCategoryName(row.subCategoryId()),
+                catalog.vendorName(row.vendorId()));
+    }
+
+    public ProductCardDTO toCard(CatalogSnapshot catalog, CatalogRow row) {
+        return new ProductCardDTO(row.id(), row.name(), row.price(), row.discount(), row.primaryImagePath(),
+                row.rating(), catalog.vendorName(row.vendorId()));
+    }
+
+    private static FileDataDTO toFileDataDto(CatalogRow.Image image) {
+        return FileDataDTO.builder()
+                .id(image.id())
+                .fileName(image.fileName())
+                .filePath(image.filePath())
+                .fileType(image.fileType())
+                .fileSize(image.fileSize())
+                .altText(image.altText())
+                .sortOrder(image.sortOrder())
+                .isPrimary(image.isPrimary())
+                .mimeType(image.mimeType())
+                .build();
+    }
+
+    // ==================== FULL BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (persistEnabled && restore()) {
+            drainPending();
+            return;
+        }
+        rebuild();
+    }
+
+    // Also compacts the snapshot and picks up anything an incremental apply missed
+    @Scheduled(initialDelayString = "${app.catalog.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.catalog.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+            long lastId = 0;
+            while (true) {
+                List<CatalogRow> batch = jdbcTemplate.query(
+                        PRODUCT_COLUMNS_SQL + " WHERE status = 'ACTIVE' AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> toRow(rs), lastId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                withDetails(batch).forEach(builder::add);
+                lastId = batch.get(batch.size() - 1).id();
+            }
+
+            CatalogSnapshot built = builder.build(
+                    loadNames(CATEGORY_NAMES_SQL), loadNames(SUB_CATEGORY_NAMES_SQL), loadNames(VENDOR_NAMES_SQL));
+            publish(built);
+            log.info("Catalog snapshot built with {} products in {} ms",
+                    built.size(), System.currentTimeMillis() - started);
+            persist();
+        } catch (Exception ex) {
+            log.warn("Catalog snapshot build failed, will retry: {}", ex.getMessage());
+        } finally {
+            updateLock.unlock();
+        }
+        // Changes that arrived while the build held the lock
+        drainPending();
+    }
+
+    // Categories and sub-categories are renamed without a product change; vendor renames arrive as VENDOR
+    @Scheduled(initialDelayString = "${app.catalog.names-refresh-interval-ms:60000}",
+            fixedDelayString = "${app.catalog.names-refresh-interval-ms:60000}")
+    public void refreshNames() {
+        if (snapshot == null || !updateLock.tryLock()) {
+            return;
+        }
+        try {
+            publish(snapshot.withNames(loadNames(CATEGORY_NAMES_SQL), loadNames(SUB_CATEGORY_NAMES_SQL),
+                    loadNames(VENDOR_NAMES_SQL)));
+        } catch (Exception ex) {
+            log.warn("Catalog snapshot name refresh failed: {}", ex.getMessage());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    /**
+     * Queues the changed products and applies the queue unless another writer holds the lock; that writer
+     * drains the queue itself before it lets go, so nothing waits for the next change to be applied.
+     */
+    @Override
+    public void onProductsChanged(List<ProductChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        changes.stream()
+                .filter(change -> change.isAny(RELEVANT_CHANGES))
+                .forEach(change -> pendingIds.add(change.getProductId()));
+        drainPending();
+    }
+
+    private void drainPending() {
+        while (!pendingIds.isEmpty() && snapshot != null && updateLock.tryLock()) {
+            List<Long> ids = new ArrayList<>(pendingIds);
+            try {
+                pendingIds.removeAll(ids);
+                apply(ids);
+            } catch (Exception ex) {
+                // Kept for the next change or the periodic rebuild
+                pendingIds.addAll(ids);
+                log.warn("Catalog snapshot update failed for {} products, will retry: {}", ids.size(), ex.getMessage());
+                return;
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    // Re-reads the products: ACTIVE ones are written, the rest (inactive, deleted) dropped
+    private void apply(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        List<CatalogRow> active = withDetails(namedJdbcTemplate.query(
+                PRODUCT_COLUMNS_SQL + " WHERE status = 'ACTIVE' AND id IN (:ids)", params, (rs, rowNum) -> toRow(rs)));
+        Set<Long> activeIds = active.stream().map(CatalogRow::id).collect(Collectors.toSet());
+        List<Long> removed = ids.stream().filter(id -> !activeIds.contains(id)).collect(Collectors.toList());
+
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> subCategoryIds = new HashSet<>();
+        Set<Long> vendorIds = new HashSet<>();
+        for (CatalogRow row : active) {
+            categoryIds.add(row.categoryId());
+            subCategoryIds.add(row.subCategoryId());
+            vendorIds.add(row.vendorId());
+        }
+
+        CatalogSnapshot next = snapshot.withChanges(active, removed,
+                loadNames(CATEGORY_NAMES_SQL, categoryIds),
+                loadNames(SUB_CATEGORY_NAMES_SQL, subCategoryIds),
+                loadNames(VENDOR_NAMES_SQL, vendorIds));
+        if (next.deadSlots() > Math.max(COMPACT_MIN_DEAD_SLOTS, next.size() / 4)) {
+            next = next.compact();
+        }
+        publish(next);
+    }
+
+    private void publish(CatalogSnapshot next) {
+        snapshot = next;
+        publishCount++;
+        publishedAt = System.currentTimeMillis();
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    // Hands the write to the writer thread; skipped when nothing was published since the last write
+    @Scheduled(initialDelayString = "${app.catalog.persist.interval-ms:300000}",
+            fixedDelayString = "${app.catalog.persist.interval-ms:300000}")
+    public void persist() {
+        if (!persistEnabled || snapshot == null || persistedCount == publishCount) {
+            return;
+        }
+        if (persistScheduled.compareAndSet(false, true)) {
+            persistWriter.execute(() -> {
+                try {
+                    write();
+                } finally {
+                    persistScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void write() {
+        long count = publishCount;
+        CatalogSnapshot current = snapshot;
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime watermark = CatalogSnapshotFile.write(current, persistPath);
+            persistedCount = count;
+            log.info("Catalog snapshot written to {} ({} products, watermark {}) in {} ms",
+                    persistPath, current.size(), watermark, System.currentTimeMillis() - started);
+        } catch (Exception ex) {
+            log.warn("Catalog snapshot could not be written to {}: {}", persistPath, ex.getMessage());
+        }
+    }
+
+    /**
+     * Loads the persisted snapshot and brings it current: names are re-read, and the stale products are
+     * re-applied like change events. False (and nothing published) when there is no usable file.
+     */
+    private boolean restore() {
+        if (!Files.isRegularFile(persistPath)) {
+            return false;
+        }
+        updateLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(persistPath);
+            long loadedMs = System.currentTimeMillis() - started;
+
+            CatalogSnapshot restored = contents.snapshot().withNames(loadNames(CATEGORY_NAMES_SQL),
+                    loadNames(SUB_CATEGORY_NAMES_SQL), loadNames(VENDOR_NAMES_SQL));
+            List<Long> stale = staleIds(restored, contents.watermark());
+            publish(restored);
+            for (int from = 0; from < stale.size(); from += batchSize) {
+                apply(stale.subList(from, Math.min(from + batchSize, stale.size())));
+            }
+            // The file already holds the restored state; the replayed changes go out with the next periodic write
+            log.info("Catalog snapshot restored from {} with {} products in {} ms, {} products replayed since {} ({} ms in total)",
+                    persistPath, restored.size(), loadedMs, stale.size(), contents.watermark(),
+                    System.currentTimeMillis() - started);
+            return true;
+        } catch (Exception ex) {
+            log.warn("Catalog snapshot could not be restored from {}, rebuilding: {}", persistPath, ex.getMessage());
+            snapshot = null;
+            return false;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Products the restored snapshot may hold wrongly: changed (or had images changed) since the watermark,
+     * and those whose presence disagrees with the ACTIVE set in the database. Deletes leave no updated_at
+     * behind, so only the id comparison finds them.
+     */
+    private List<Long> staleIds(CatalogSnapshot restored, LocalDateTime watermark) {
+        Set<Long> stale = new HashSet<>();
+        if (watermark != null) {
+            Timestamp since = Timestamp.valueOf(watermark.minusSeconds(REPLAY_OVERLAP_SECONDS));
+            stale.addAll(jdbcTemplate.queryForList("SELECT id FROM products WHERE updated_at >= ?", Long.class, since));
+            jdbcTemplate.queryForList("SELECT DISTINCT product_id FROM file_data WHERE updated_at >= ?", Long.class, since)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .forEach(stale::add);
+        }
+
+        // Both id lists are ascending: one merge pass finds the ids present on one side only
+        long[] held = restored.ids();
+        List<Long> active = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE status = 'ACTIVE' ORDER BY id", Long.class);
+        int i = 0;
+        int j = 0;
+        while (i < held.length || j < active.size()) {
+            if (j == active.size() || (i < held.length && held[i] < active.get(j))) {
+                stale.add(held[i++]);
+            } else if (i == held.length || active.get(j) < held[i]) {
+                stale.add(active.get(j++));
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return new ArrayList<>(stale);
+    }
+
+    // ==================== LOADING ====================
+
+    private static CatalogRow toRow(ResultSet rs) throws SQLException {
+        Long subCategoryId = rs.getObject("sub_category_id", Long.class);
+        Long categoryId = rs.getObject("category_id", Long.class);
+        return new CatalogRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBigDecimal("price"),
+                rs.getInt("stock"),
+                rs.getObject("discount", Double.class),
+                rs.getString("brand"),
+                rs.getObject("rating", Double.class),
+                rs.getBoolean("is_featured"),
+                categoryId != null ? categoryId : CatalogRow.NONE,
+                subCategoryId != null ? subCategoryId : CatalogRow.NONE,
+                rs.getLong("vendor_id"),
+                rs.getString("primary_image_path"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                List.of(),
+                List.of()
+        );
+    }
+
+    // Attaches images and specifications, each read with one IN query for the whole batch
+    private List<CatalogRow> withDetails(List<CatalogRow> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                rows.stream().map(CatalogRow::id).collect(Collectors.toList()));
+
+        Map<Long, List<CatalogRow.Image>> images = new HashMap<>();
+        namedJdbcTemplate.query(IMAGES_SQL, params, rs -> {
+            images.computeIfAbsent(rs.getLong("product_id"), id -> new ArrayList<>()).add(new CatalogRow.Image(
+                    rs.getLong("id"),
+                    rs.getString("file_name"),
+                    rs.getString("file_path"),
+                    intern(rs.getString("file_type")),
+                    rs.getObject("file_size", Long.class),
+                    rs.getString("alt_text"),
+                    rs.getObject("sort_order", Integer.class),
+                    rs.getObject("is_primary", Boolean.class),
+                    intern(rs.getString("mime_type"))
+            ));
+        });
+
+        // Keys and most values repeat across products ("Colour", "Black"), so they are interned
+        Map<Long, List<CatalogRow.Spec>> specifications = new HashMap<>();
+        namedJdbcTemplate.query(SPECIFICATIONS_SQL, params, rs -> {
+            specifications.computeIfAbsent(rs.getLong("product_id"), id -> new ArrayList<>()).add(new CatalogRow.Spec(
+                    intern(rs.getString("spec_key")),
+                    intern(rs.getString("spec_value")),
+                    rs.getObject("display_order", Integer.class)
+            ));
+        });
+
+        List<CatalogRow> detailed = new ArrayList<>(rows.size());
+        for (CatalogRow row : rows) {
+            detailed.add(row.withDetails(images.getOrDefault(row.id(), List.of()),
+                    specifications.getOrDefault(row.id(), List.of())));
+        }
+        return detailed;
+    }
+
+    private Map<Long, String> loadNames(String sql) {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
+    private Map<Long, String> loadNames(String sql, Collection<Long> ids) {
+        Set<Long> wanted = ids.stream().filter(id -> id != CatalogRow.NONE).collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> names = new HashMap<>();
+        namedJdbcTemplate.query(sql + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", wanted), rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+}
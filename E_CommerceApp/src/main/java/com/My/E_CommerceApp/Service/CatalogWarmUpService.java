@@ -0,0 +1,351 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductFilterRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CategoryResponseDTO;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Enum.WarmUpStatus;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Startup warm-up: once the application reports ready, preloads the homepage rails and the busiest
+ * category / sub-category listings into their caches and runs the main product queries and DTO mappers
+ * over the best-selling products, so the JIT, Hibernate's query plan cache and the connection pool are
+ * hot before real traffic arrives.
+ *
+ * Steps run in parallel and share one time budget; whatever has not finished when it runs out is
+ * abandoned. Until the warm-up ends, CatalogWarmUpHealthIndicator keeps the readiness probe
+ * OUT_OF_SERVICE, so a load balancer holds traffic back without delaying startup itself.
+ */
+@Slf4j
+@Service
+public class CatalogWarmUpService {
+
+    private static final int[] RAIL_LIMITS = {10, 20, 50, 100};
+    private static final int LISTING_PAGE_SIZE = 10;
+    private static final int CURSOR_PAGE_SIZE = 20;
+    private static final int PRODUCT_BATCH_SIZE = 100;
+    private static final int RECOMMENDATION_LIMIT = 10;
+    // Same ordering the listing endpoints use, so the cached pages are the ones clients ask for
+    private static final Sort LISTING_SORT = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final SubCategoryService subCategoryService;
+    private final ProductScoreService productScoreService;
+    private final ProductRepo productRepo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final int hotProducts;
+    private final int hotCategories;
+    private final int mapperPasses;
+    private final ThreadPoolTaskExecutor warmUpExecutor;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile WarmUpStatus status = WarmUpStatus.PENDING;
+    private volatile long deadline;
+    private volatile long durationMs;
+    private volatile List<StepReport> steps = List.of();
+
+    public CatalogWarmUpService(ProductService productService,
+                                CategoryService categoryService,
+                                SubCategoryService subCategoryService,
+                                ProductScoreService productScoreService,
+                                ProductRepo productRepo,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.warmup.enabled:true}") boolean enabled,
+                                @Value("${app.warmup.timeout-ms:60000}") long timeoutMs,
+                                @Value("${app.warmup.parallelism:4}") int parallelism,
+                                @Value("${app.warmup.hot-products:500}") int hotProducts,
+                                @Value("${app.warmup.hot-categories:20}") int hotCategories,
+                                @Value("${app.warmup.mapper-passes:3}") int mapperPasses) {
+        this.productService = productService;
+        this.categoryService = categoryService;
+        this.subCategoryService = subCategoryService;
+        this.productScoreService = productScoreService;
+        this.productRepo = productRepo;
+        this.enabled = enabled;
+        this.timeoutMs = Math.max(1000, timeoutMs);
+        this.hotProducts = Math.max(1, hotProducts);
+        this.hotCategories = Math.max(1, hotCategories);
+        this.mapperPasses = Math.max(1, mapperPasses);
+
+        // Listings and mappers lazy-load outside any web request here, so each unit gets its own session
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // Private pool (not a bean): one coordinator thread plus the step workers
+        int workers = Math.max(1, parallelism);
+        this.warmUpExecutor = new ThreadPoolTaskExecutor();
+        warmUpExecutor.setCorePoolSize(workers + 1);
+        warmUpExecutor.setMaxPoolSize(workers + 1);
+        warmUpExecutor.setThreadNamePrefix("catalog-warmup-");
+        warmUpExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmUpExecutor.shutdown();
+    }
+
+    // ==================== STATE ====================
+
+    public WarmUpStatus getStatus() {
+        return status;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public List<StepReport> getSteps() {
+        return steps;
+    }
+
+    /** Units planned, finished and failed by one warm-up step. */
+    public record StepReport(String name, int planned, int done, int failed, long durationMs, boolean finished) {
+    }
+
+    // ==================== WARM-UP ====================
+
+    // Boot announces ACCEPTING_TRAFFIC after every ApplicationReadyEvent listener (index rebuilds) has run
+    @EventListener
+    public void onReadinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!enabled) {
+            status = WarmUpStatus.DISABLED;
+            warmUpExecutor.shutdown();
+            return;
+        }
+        status = WarmUpStatus.RUNNING;
+        warmUpExecutor.execute(this::warmUp);
+    }
+
+    private void warmUp() {
+        long startedAt = System.currentTimeMillis();
+        deadline = startedAt + timeoutMs;
+
+        List<StepRun> runs = List.of(
+                new StepRun("rails", this::warmRails),
+                new StepRun("listings", this::warmListings),
+                new StepRun("products", this::warmProducts),
+                new StepRun("search", this::warmSearch));
+        List<Future<?>> futures = new ArrayList<>();
+        for (StepRun run : runs) {
+            futures.add(warmUpExecutor.submit(() -> run.body.accept(run)));
+        }
+
+        boolean allFinished = true;
+        for (int i = 0; i < runs.size(); i++) {
+            StepRun run = runs.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                run.finished = true;
+            } catch (TimeoutException ex) {
+                futures.get(i).cancel(true);
+                allFinished = false;
+            } catch (ExecutionException ex) {
+                // The step itself broke (e.g. its id query failed); its units so far still count
+                log.warn("Warm-up step {} failed: {}", run.name, ex.getCause().getMessage());
+                run.finished = true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                allFinished = false;
+                break;
+            }
+        }
+
+        durationMs = System.currentTimeMillis() - startedAt;
+        steps = runs.stream().map(StepRun::report).collect(Collectors.toList());
+        status = allFinished ? WarmUpStatus.COMPLETED : WarmUpStatus.TIMED_OUT;
+
+        for (StepReport step : steps) {
+            log.info("Warm-up step {}: {}/{} units done, {} failed, {} ms{}", step.name(), step.done(),
+                    step.planned(), step.failed(), step.durationMs(), step.finished() ? "" : " (abandoned)");
+        }
+        log.info("Catalog warm-up {} in {} ms", status, durationMs);
+        warmUpExecutor.shutdown();
+    }
+
+    // Homepage rails, full and card views, at every limit bucket; scores are computed first if not ready yet
+    private void warmRails(StepRun step) {
+        List<IntFunction<?>> rails = List.of(
+                productService::getTrendingProducts,
+                productService::getBestSellingProducts,
+                productService::getFeaturedProducts,
+                productService::getTrendingProductCards,
+                productService::getBestSellingProductCards,
+                productService::getFeaturedProductCards);
+        step.planned = rails.size() * RAIL_LIMITS.length + (productScoreService.isReady() ? 0 : 1);
+
+        if (!productScoreService.isReady() && !step.run(productScoreService::refresh)) {
+            return;
+        }
+        for (int limit : RAIL_LIMITS) {
+            for (IntFunction<?> rail : rails) {
+                if (!step.run(() -> rail.apply(limit))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Category and sub-category sets, then the first page of the busiest listings in every paging style
+    private void warmListings(StepRun step) {
+        List<Long> categoryIds = inReadOnlyTransaction(() ->
+                productRepo.findTopCategoryIds(ProductStatus.ACTIVE, PageRequest.of(0, hotCategories)));
+        List<Long> subCategoryIds = inReadOnlyTransaction(() ->
+                productRepo.findTopSubCategoryIds(ProductStatus.ACTIVE, PageRequest.of(0, hotCategories)));
+        step.planned = 2 + 3 * categoryIds.size() + 3 * subCategoryIds.size();
+
+        Pageable firstPage = PageRequest.of(0, LISTING_PAGE_SIZE, LISTING_SORT);
+        List<Runnable> units = new ArrayList<>();
+        units.add(categoryService::getAllCategories);
+        units.add(subCategoryService::getAllSubCategories);
+        for (Long categoryId : categoryIds) {
+            units.add(() -> productService.getFeaturedProductsByCategory(categoryId));
+            units.add(() -> productService.getFeaturedProductsByCategory(categoryId, firstPage));
+            units.add(() -> productService.getFeaturedProductsByCategory(categoryId, null, CURSOR_PAGE_SIZE));
+        }
+        for (Long subCategoryId : subCategoryIds) {
+            units.add(() -> productService.getProductsBySubCategory(subCategoryId));
+            units.add(() -> productService.getProductsBySubCategory(subCategoryId, firstPage));
+            units.add(() -> productService.getProductsBySubCategory(subCategoryId, null, CURSOR_PAGE_SIZE));
+        }
+        step.runAllInReadOnlyTransaction(units);
+    }
+
+    // Best sellers through the multi-get and card mappers (several passes, for the JIT), then their recommendations
+    private void warmProducts(StepRun step) {
+        List<Long> ids = inReadOnlyTransaction(() -> productRepo.findByStatus(ProductStatus.ACTIVE,
+                        PageRequest.of(0, hotProducts, Sort.by("salesCount").descending())).stream()
+                .map(Product::getId)
+                .collect(Collectors.toList()));
+
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += PRODUCT_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + PRODUCT_BATCH_SIZE, ids.size())));
+        }
+        step.planned = mapperPasses * batches.size() * 2 + ids.size() * 2;
+
+        List<Runnable> units = new ArrayList<>();
+        for (int pass = 0; pass < mapperPasses; pass++) {
+            for (List<Long> batch : batches) {
+                units.add(() -> productService.getProductsByIds(batch));
+                units.add(() -> productRepo.findCardsByIdIn(batch));
+            }
+        }
+        for (Long id : ids) {
+            units.add(() -> productService.getSimilarProductCards(id, RECOMMENDATION_LIMIT));
+            units.add(() -> productService.getBoughtTogetherProductCards(id, RECOMMENDATION_LIMIT));
+        }
+        step.runAllInReadOnlyTransaction(units);
+    }
+
+    // Keyword search (names of the busiest categories) and facet counts of those categories
+    private void warmSearch(StepRun step) {
+        List<Long> categoryIds = inReadOnlyTransaction(() ->
+                productRepo.findTopCategoryIds(ProductStatus.ACTIVE, PageRequest.of(0, hotCategories)));
+        List<String> keywords = categoryService.getAllCategories().stream()
+                .filter(category -> categoryIds.contains(category.getId()))
+                .map(CategoryResponseDTO::getName)
+                .collect(Collectors.toList());
+        step.planned = 2 * keywords.size() + 2 * categoryIds.size();
+
+        Pageable firstPage = PageRequest.of(0, LISTING_PAGE_SIZE);
+        List<Runnable> units = new ArrayList<>();
+        for (String keyword : keywords) {
+            units.add(() -> productService.searchProducts(keyword, firstPage));
+            units.add(() -> productService.searchProductCards(keyword, firstPage));
+        }
+        for (Long categoryId : categoryIds) {
+            ProductFilterRequestDTO filter = new ProductFilterRequestDTO();
+            filter.setCategoryId(categoryId);
+            units.add(() -> productService.getFacets(filter));
+            units.add(() -> productService.filterProducts(filter, firstPage));
+        }
+        step.runAllInReadOnlyTransaction(units);
+    }
+
+    // ==================== HELPERS ====================
+
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        return readOnlyTransaction.execute(status -> action.get());
+    }
+
+    private final class StepRun {
+
+        private final String name;
+        private final Consumer<StepRun> body;
+        private final long startedAt = System.currentTimeMillis();
+        // Written by the step's worker, read by the coordinator once the step ended or was abandoned
+        private volatile int planned;
+        private volatile int done;
+        private volatile int failed;
+        private volatile boolean finished;
+        private volatile long finishedAt;
+
+        private StepRun(String name, Consumer<StepRun> body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        /** Runs one unit of work; false once the time budget is spent or the step was cancelled. */
+        private boolean run(Runnable unit) {
+            if (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            try {
+                unit.run();
+                done++;
+            } catch (Exception ex) {
+                failed++;
+                log.debug("Warm-up unit of step {} failed: {}", name, ex.getMessage());
+            }
+            finishedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        private void runAllInReadOnlyTransaction(List<Runnable> units) {
+            for (Runnable unit : units) {
+                if (!run(() -> readOnlyTransaction.executeWithoutResult(status -> unit.run()))) {
+                    return;
+                }
+            }
+        }
+
+        private StepReport report() {
+            long end = finished && finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            return new StepReport(name, planned, done, failed, end - startedAt, finished);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
 import com.My.E_CommerceApp.Repository.AddressRepo;
 import com.My.E_CommerceApp.Repository.CategoryRepo;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,7 +16,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -75,6 +78,16 @@ public class CategoryService {
         return toDto(category);
     }
 
+    // ✅ Version stamps for conditional GETs (no entity load)
+    public Optional<ResourceVersion> getCategoryVersion(Long id) {
+        List<LocalDateTime> stamps = categoryRepo.findUpdatedAtById(id);
+        return stamps.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.of("category", id, stamps.get(0)));
+    }
+
+    public ResourceVersion getAllCategoriesVersion() {
+        return ResourceVersion.of("categories", "all", categoryRepo.findListVersionStamps().get(0));
+    }
+
     // ✅ Update Category with duplicate check and proper validation
     @Transactional
     public CategoryResponseDTO updateCategory(Long id, CategoryRequestDTO dto) {
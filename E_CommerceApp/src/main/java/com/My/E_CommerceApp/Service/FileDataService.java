@@ -2,13 +2,17 @@ package com.My.E_CommerceApp.Service;
 
 import com.My.E_CommerceApp.Entity.FileData;
 import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
 import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
 import com.My.E_CommerceApp.Exception.CustomException.UnauthorizedAccessException;
 import com.My.E_CommerceApp.Repository.FileDataRepo;
 import com.My.E_CommerceApp.Repository.ProductRepo;
 import lombok.RequiredArgsConstructor;
-import com.My.E_CommerceApp.Entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.stereotype.Service;
@@ -23,11 +27,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileDataService {
     private final FileDataRepo fileDataRepo;
     private final ProductRepo productRepo;
+    private final ProductChangeBus productChangeBus;
 
     // -------------------- Remove Image from Product -------------------- //
     @Transactional
@@ -64,6 +70,7 @@ public class FileDataService {
             // Soft delete the file data (assuming you have isActive field in Base class)
             fileData.setIsActive(false);
             fileDataRepo.save(fileData);
+            syncPrimaryImagePath(productId);
 
             // Alternatively, if you want hard delete:
             // fileDataRepo.delete(fileData);
@@ -105,6 +112,7 @@ public class FileDataService {
             // Set the new primary image
             newPrimaryImage.setIsPrimary(true);
             FileData updatedPrimary = fileDataRepo.save(newPrimaryImage);
+            syncPrimaryImagePath(productId);
 
             return updatedPrimary;
 
@@ -146,7 +154,9 @@ public class FileDataService {
                 fileData.setIsPrimary(true);
             }
 
-            return fileDataRepo.save(fileData);
+            FileData saved = fileDataRepo.save(fileData);
+            syncPrimaryImagePath(productId);
+            return saved;
         } catch (Exception ex) {
             throw new OperationFailedException("Add image to product", ex.getMessage());
         }
@@ -186,6 +196,7 @@ public class FileDataService {
                 image.setSortOrder(i);
                 fileDataRepo.save(image);
             }
+            syncPrimaryImagePath(productId);
         } catch (Exception ex) {
             throw new OperationFailedException("Reorder images", ex.getMessage());
         }
@@ -223,10 +234,35 @@ public class FileDataService {
             FileData fileData = saveFileToSystem(file, product, altTexts, sortOrders, isPrimary, i);
             uploadedImages.add(fileDataRepo.save(fileData));
         }
+        syncPrimaryImagePath(productId);
 
         return uploadedImages;
     }
 
+    // -------------------- Primary Image Path -------------------- //
+
+    /**
+     * Recomputes Product.primaryImagePath from the product's active images, so cart and order
+     * rendering read one column instead of loading the images collection. Called by every method
+     * here that adds, removes, reorders or re-flags images, inside the same transaction, which also
+     * makes it the one place image changes are published.
+     */
+    private void syncPrimaryImagePath(Long productId) {
+        List<String> paths = fileDataRepo.findDisplayImagePaths(productId, PageRequest.of(0, 1));
+        productRepo.updatePrimaryImagePath(productId, paths.isEmpty() ? null : paths.get(0));
+        productChangeBus.publish(ProductChangeType.IMAGES, productId);
+    }
+
+    // Products that already had images when the column was introduced
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPrimaryImagePaths() {
+        int updated = productRepo.backfillPrimaryImagePaths();
+        if (updated > 0) {
+            log.info("Backfilled primary image path for {} products", updated);
+        }
+    }
+
     private FileData saveFileToSystem(MultipartFile file, Product product,
                                       List<String> altTexts, List<Integer> sortOrders,
                                       List<Boolean> isPrimary, int index) throws IOException {
@@ -3,7 +3,6 @@ package com.My.E_CommerceApp.Service;
 import com.My.E_CommerceApp.DTO.RequestDTO.OrderItemRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.OrderItemUpdateRequestDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.OrderItemResponseDTO;
-import com.My.E_CommerceApp.Entity.FileData;
 import com.My.E_CommerceApp.Entity.Order;
 import com.My.E_CommerceApp.Entity.OrderItem;
 import com.My.E_CommerceApp.Entity.Product;
@@ -15,7 +14,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +23,7 @@ public class OrderItemService {
     private final OrderRepo orderRepo;
     private final ProductRepo productRepo;
     private final OrderItemRepo orderItemRepo;
+    private final ProductChangeBus productChangeBus;
 
     // ✅ ADD ITEM TO EXISTING ORDER
     @Transactional
@@ -161,8 +160,10 @@ public class OrderItemService {
 
     // ✅ UPDATE PRODUCT STOCK
     private void updateProductStock(Product product, int quantityChange) {
-        product.setStock(product.getStock() + quantityChange);
+        int previousStock = product.getStock();
+        product.setStock(previousStock + quantityChange);
         productRepo.save(product);
+        productChangeBus.publishStockChange(product, previousStock);
     }
 
     // ✅ CONVERT TO DTO
@@ -182,22 +183,9 @@ public class OrderItemService {
     }
 
     // ✅ HELPER METHOD TO EXTRACT PRODUCT IMAGE URL
+    // Primary (else lowest sortOrder) image, denormalized on the product by FileDataService
     private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return null;
-        }
-
-        // Priority: Primary image > Sorted image > First image
-        return product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst()
-                .map(FileData::getFilePath)
-                .orElseGet(() ->
-                        product.getImages().stream()
-                                .min(Comparator.comparing(FileData::getSortOrder))
-                                .map(FileData::getFilePath)
-                                .orElse(product.getImages().get(0).getFilePath())
-                );
+        return product.getPrimaryImagePath();
     }
 
     // ✅ GET ORDER ITEM RESPONSE
@@ -2,6 +2,7 @@ package com.My.E_CommerceApp.Service;
 
 import com.My.E_CommerceApp.DTO.RequestDTO.OrderItemRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.OrderRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.OrderItemResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.OrderResponseDTO;
 import com.My.E_CommerceApp.Entity.*;
@@ -17,9 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +32,7 @@ public class OrderService {
     private final AddressRepo addressRepo;
     private final CartService cartService;
     private final CartItemRepo cartItemRepo;
+    private final ProductChangeBus productChangeBus;
 
     // ✅ CREATE ORDER FROM REQUEST DTO (Controller calls this as save())
     @Transactional
@@ -133,8 +133,10 @@ public class OrderService {
 
     // ✅ UPDATE PRODUCT STOCK
     private void updateProductStock(Product product, Integer quantitySold) {
-        product.setStock(product.getStock() - quantitySold);
+        int previousStock = product.getStock();
+        product.setStock(previousStock - quantitySold);
         productRepo.save(product);
+        productChangeBus.publishStockChange(product, previousStock);
     }
 
     // ✅ CREATE ORDER MANUALLY (Admin/Backend use)
@@ -196,6 +198,18 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    // ✅ GET ORDERS BY CURSOR (keyset pagination, newest first)
+    public CursorPageResponseDTO<OrderResponseDTO> findAll(String cursor, int size) {
+        List<Order> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepo.findAllByOrderByCreatedAtDescIdDesc(KeysetCursor.limit(size));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = orderRepo.findPageAfter(position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+        }
+        return KeysetCursor.toSlice(rows, size, this::toDto);
+    }
+
     // ✅ GET ORDERS BY USER
     public List<OrderResponseDTO> getOrdersByUser(Long userId) {
         List<Order> orders = orderRepo.findAll().stream()
@@ -232,8 +246,10 @@ public class OrderService {
         // Restore product stock
         for (OrderItem item : order.getOrderItems()) {
             Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
+            int previousStock = product.getStock();
+            product.setStock(previousStock + item.getQuantity());
             productRepo.save(product);
+            productChangeBus.publishStockChange(product, previousStock);
         }
 
         order.setStatus(OrderStatus.CANCELLED);
@@ -287,27 +303,8 @@ public class OrderService {
     }
 
     // ✅ HELPER METHOD TO GET PRODUCT IMAGE URL
+    // Primary (else lowest sortOrder) image, denormalized on the product by FileDataService
     private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return null;
-        }
-
-        // Try to get primary image first
-        Optional<FileData> primaryImage = product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst();
-
-        if (primaryImage.isPresent()) {
-            return primaryImage.get().getFilePath();
-        }
-
-        // If no primary, get first image by sort order
-        return product.getImages().stream()
-                .min(Comparator.comparing(FileData::getSortOrder))
-                .map(FileData::getFilePath)
-                .orElseGet(() -> {
-                    // Fallback: get any image
-                    return product.getImages().get(0).getFilePath();
-                });
+        return product.getPrimaryImagePath();
     }
 }
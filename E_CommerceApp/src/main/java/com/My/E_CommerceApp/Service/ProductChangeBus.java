@@ -0,0 +1,282 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox plus in-process bus for product changes.
+ *
+ * Writers call {@link #publish} inside the transaction that changes the product; the change is inserted
+ * into product_change_outbox by the same transaction, so it exists exactly when the change committed.
+ * After commit the dispatcher thread is woken; it reads the outbox in id order, merges the entries of
+ * each product into one {@link ProductChange}, hands the batch to every {@link ProductChangeListener}
+ * and then deletes exactly the rows it dispatched (a row of a transaction that commits late, behind a
+ * higher id, is picked up by the next drain). A single thread dispatches, so batches never overlap or
+ * overtake each other, and a product's change is dispatched only after it committed.
+ *
+ * Delivery is at-least-once: if any listener throws, the rows stay in the outbox and the whole batch
+ * is redelivered to every listener after a poll interval. A batch that still fails after max-attempts
+ * deliveries is dropped with an error, so one broken listener cannot stall the others forever; the
+ * listener then catches up on its periodic rebuild.
+ *
+ * Rows left behind by a crash are replayed at startup, and the outbox is polled as a safety net for
+ * wake-ups lost between commit and signal. The bus is in-process: every instance drains the same
+ * table, so with several nodes each change reaches only one of them. It backs this single-node
+ * deployment's in-memory caches and indexes, not cross-node invalidation.
+ */
+@Slf4j
+@Service
+public class ProductChangeBus {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO product_change_outbox (product_id, change_type, previous_category_id,
+                                           previous_sub_category_id, created_at)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private static final String SELECT_SQL = """
+        SELECT id, product_id, change_type, previous_category_id, previous_sub_category_id
+        FROM product_change_outbox
+        ORDER BY id
+        LIMIT ?
+        """;
+
+    private static final String DELETE_SQL = "DELETE FROM product_change_outbox WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    // Resolved per dispatch: listeners (ProductService among them) also publish, so they cannot be constructor-injected
+    private final ObjectProvider<ProductChangeListener> listeners;
+    private final int batchSize;
+    private final long dispatchDelayMs;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final ThreadPoolTaskScheduler dispatcher;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile long lastDrainAt = System.currentTimeMillis();
+    // Dispatcher thread only: failed deliveries of the batch at the head of the outbox
+    private int failedAttempts;
+    private long retryNotBefore;
+
+    public ProductChangeBus(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedJdbcTemplate,
+                            ObjectProvider<ProductChangeListener> listeners,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.product-events.batch-size:500}") int batchSize,
+                            @Value("${app.product-events.dispatch-delay-ms:50}") long dispatchDelayMs,
+                            @Value("${app.product-events.poll-interval-ms:5000}") long pollIntervalMs,
+                            @Value("${app.product-events.max-attempts:5}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.listeners = listeners;
+        this.batchSize = Math.max(1, batchSize);
+        this.dispatchDelayMs = Math.max(0, dispatchDelayMs);
+        this.pollIntervalMs = Math.max(100, pollIntervalMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        // Private single-thread scheduler (not a bean): one dispatcher is what keeps batches in order
+        this.dispatcher = new ThreadPoolTaskScheduler();
+        dispatcher.setPoolSize(1);
+        dispatcher.setThreadNamePrefix("product-change-dispatch-");
+        dispatcher.initialize();
+
+        Gauge.builder("products.changes.dispatch.lag", this, bus -> System.currentTimeMillis() - bus.lastDrainAt)
+                .description("Milliseconds since the product change outbox was last drained")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    // ==================== PUBLISH ====================
+
+    public void publish(ProductChangeType type, Long productId) {
+        publish(type, List.of(productId));
+    }
+
+    public void publish(ProductChangeType type, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(productIds.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long productId : productIds) {
+            rows.add(new Object[]{productId, type.name(), null, null, now});
+        }
+        insert(rows);
+    }
+
+    /**
+     * Publishes a change that may move the product out of its current listings (an edit, a delete).
+     * Call it before modifying the product: its category and sub-category are recorded as the previous
+     * placement so listeners can evict listings the product is about to leave.
+     */
+    public void publishWithPlacement(ProductChangeType type, Product product) {
+        insert(List.<Object[]>of(new Object[]{
+                product.getId(),
+                type.name(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getSubCategory() != null ? product.getSubCategory().getId() : null,
+                Timestamp.valueOf(LocalDateTime.now())
+        }));
+    }
+
+    // Most listeners only care when the product moves in or out of stock; those holding the level take STOCK
+    public void publishStockChange(Product product, int previousStock) {
+        int currentStock = product.getStock() != null ? product.getStock() : 0;
+        if (currentStock == previousStock) {
+            return;
+        }
+        publish(ProductChangeType.STOCK, product.getId());
+        if ((previousStock > 0) != (currentStock > 0)) {
+            publish(ProductChangeType.AVAILABILITY, product.getId());
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal();
+            return;
+        }
+        // One wake-up per transaction, however many changes it publishes
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signal();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeBus.this);
+                }
+            });
+        }
+    }
+
+    // ==================== DISPATCH ====================
+
+    /**
+     * Schedules a drain after a short delay, so changes committed in quick succession (a bulk edit, a
+     * burst of orders on one product) are merged into one batch. At most one drain is queued at a time.
+     */
+    public void signal() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.schedule(() -> {
+                drainScheduled.set(false);
+                drain();
+            }, Instant.now().plusMillis(dispatchDelayMs));
+        }
+    }
+
+    // Replays whatever a previous run left in the outbox, then keeps polling
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        dispatcher.scheduleWithFixedDelay(this::drain, Instant.now(), Duration.ofMillis(pollIntervalMs));
+    }
+
+    private void drain() {
+        // After a failed delivery, commit wake-ups wait for the poll instead of retrying at once
+        if (System.currentTimeMillis() < retryNotBefore) {
+            return;
+        }
+        try {
+            List<OutboxRow> rows;
+            do {
+                rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new OutboxRow(
+                        rs.getLong("id"),
+                        rs.getLong("product_id"),
+                        ProductChangeType.valueOf(rs.getString("change_type")),
+                        rs.getObject("previous_category_id", Long.class),
+                        rs.getObject("previous_sub_category_id", Long.class)
+                ), batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                if (!dispatch(coalesce(rows))) {
+                    if (++failedAttempts < maxAttempts) {
+                        // Keep the rows: the whole batch is redelivered, which idempotent listeners tolerate
+                        retryNotBefore = System.currentTimeMillis() + pollIntervalMs;
+                        log.warn("Product change delivery failed (attempt {} of {}), will redeliver {} changes",
+                                failedAttempts, maxAttempts, rows.size());
+                        return;
+                    }
+                    log.error("Dropping {} product changes after {} failed deliveries", rows.size(), maxAttempts);
+                }
+                failedAttempts = 0;
+                retryNotBefore = 0;
+
+                List<Long> ids = rows.stream().map(OutboxRow::id).toList();
+                namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+            } while (rows.size() == batchSize);
+            lastDrainAt = System.currentTimeMillis();
+        } catch (Exception ex) {
+            log.warn("Product change dispatch failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    // True when every listener took the batch; a failing listener does not keep the others from theirs
+    private boolean dispatch(List<ProductChange> changes) {
+        boolean delivered = true;
+        for (ProductChangeListener listener : listeners.orderedStream().toList()) {
+            try {
+                listener.onProductsChanged(changes);
+            } catch (Exception ex) {
+                delivered = false;
+                log.error("Product change listener {} failed for {} products: {}",
+                        listener.getClass().getSimpleName(), changes.size(), ex.getMessage());
+            }
+        }
+        return delivered;
+    }
+
+    // One entry per product, ordered by the product's first change in the batch
+    private static List<ProductChange> coalesce(List<OutboxRow> rows) {
+        Map<Long, ProductChange> changes = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            changes.computeIfAbsent(row.productId(), ProductChange::new)
+                    .merge(row.type(), row.previousCategoryId(), row.previousSubCategoryId());
+        }
+        return new ArrayList<>(changes.values());
+    }
+
+    private record OutboxRow(long id, long productId, ProductChangeType type,
+                             Long previousCategoryId, Long previousSubCategoryId) {
+    }
+}
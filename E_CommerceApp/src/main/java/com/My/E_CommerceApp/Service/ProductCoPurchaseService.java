@@ -0,0 +1,388 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Recommend.CoOccurrenceMatrix;
+import com.My.E_CommerceApp.Recommend.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "Frequently bought together" recommendations from order co-occurrence.
+ *
+ * The first refresh rebuilds the {@link CoOccurrenceMatrix} from every order, reading disjoint
+ * order-id ranges in parallel and merging the partial matrices. Later refreshes only read orders
+ * above the watermark (the highest order id already counted) and recompute the top neighbours of
+ * the products in those orders. Top neighbours are persisted to product_co_purchases, which is
+ * loaded at startup so recommendations are served before the first rebuild finishes, and are
+ * served from memory.
+ *
+ * Cancelled and returned orders are skipped when read; an order cancelled after it was counted
+ * stays counted until the next full rebuild (application restart).
+ */
+@Slf4j
+@Service
+public class ProductCoPurchaseService {
+
+    private static final int MAX_TOP_K = 64;            // fits the 1024-byte neighbours column
+    private static final int NEIGHBOUR_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int MAX_BASKET_SIZE = 50;      // bulk orders would add n^2 pairs of little signal
+    private static final int ORDER_WINDOW = 5_000;      // order ids read per query
+    private static final int BATCH_SIZE = 500;
+
+    private static final String BASKETS_SQL = """
+        SELECT oi.order_id, oi.product_id
+        FROM order_items oi
+        JOIN orders o ON o.id = oi.order_id
+        WHERE oi.order_id > ? AND oi.order_id <= ?
+          AND oi.product_id IS NOT NULL
+          AND o.status NOT IN ('CANCELLED', 'RETURNED')
+        ORDER BY oi.order_id
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO product_co_purchases (product_id, neighbours, refreshed_at)
+        VALUES (?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            neighbours = VALUES(neighbours),
+            refreshed_at = VALUES(refreshed_at)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final int minCount;
+    private final long settleSeconds;
+    private final int partitions;
+    private final ThreadPoolTaskExecutor rebuildExecutor;
+    private final ThreadPoolTaskExecutor refreshRunner;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private CoOccurrenceMatrix matrix;                  // guarded by refreshLock, null until the first rebuild
+    private long watermark;                             // highest order id counted in the matrix
+    private LongIntHashMap pendingProducts = new LongIntHashMap();    // counted, top neighbours not yet written
+    private volatile ConcurrentHashMap<Long, long[]> neighbours = new ConcurrentHashMap<>();
+
+    public ProductCoPurchaseService(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.bought-together.top-k:20}") int topK,
+                                    @Value("${app.bought-together.min-count:2}") int minCount,
+                                    @Value("${app.bought-together.settle-seconds:60}") long settleSeconds,
+                                    @Value("${app.bought-together.rebuild-partitions:0}") int partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topK = Math.max(1, Math.min(topK, MAX_TOP_K));
+        this.minCount = Math.max(1, minCount);
+        this.settleSeconds = settleSeconds;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+
+        // Private pool (not a bean), used only by full rebuilds
+        this.rebuildExecutor = new ThreadPoolTaskExecutor();
+        rebuildExecutor.setCorePoolSize(this.partitions);
+        rebuildExecutor.setMaxPoolSize(this.partitions);
+        rebuildExecutor.setThreadNamePrefix("co-purchase-rebuild-");
+        rebuildExecutor.initialize();
+
+        // Private single-thread runner: a full rebuild waits on the pool above for minutes, off the shared scheduler
+        this.refreshRunner = new ThreadPoolTaskExecutor();
+        refreshRunner.setCorePoolSize(1);
+        refreshRunner.setMaxPoolSize(1);
+        refreshRunner.setThreadNamePrefix("co-purchase-refresh-");
+        refreshRunner.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshRunner.shutdown();
+        rebuildExecutor.shutdown();
+    }
+
+    // ==================== READ PATH ====================
+
+    /** Ids of the products most often bought together with the product, best first (at most top-k). */
+    public List<Long> getBoughtTogetherIds(Long productId, int limit) {
+        long[] ids = neighbours.get(productId);
+        if (ids == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int size = Math.min(limit, ids.length);
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    public int getMaxNeighbours() {
+        return topK;
+    }
+
+    // Serves the last persisted result until the first rebuild replaces it
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPersisted() {
+        try {
+            ConcurrentHashMap<Long, long[]> loaded = new ConcurrentHashMap<>();
+            jdbcTemplate.query("SELECT product_id, neighbours FROM product_co_purchases", rs -> {
+                loaded.put(rs.getLong("product_id"), decodeIds(rs.getBytes("neighbours")));
+            });
+            if (matrix == null) {
+                neighbours = loaded;
+            }
+            log.info("Loaded bought-together neighbours for {} products", loaded.size());
+        } catch (Exception ex) {
+            log.warn("Could not load persisted bought-together neighbours: {}", ex.getMessage());
+        }
+    }
+
+    // ==================== REFRESH ====================
+
+    // Hands the run to the runner thread; a tick that finds one queued or running is skipped
+    @Scheduled(initialDelayString = "${app.bought-together.initial-delay-ms:30000}",
+            fixedDelayString = "${app.bought-together.refresh-interval-ms:300000}")
+    public void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refreshRunner.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    public void refresh() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            // Orders still committing near "now" could get ids below the watermark; leave them for the next run
+            Long upper = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders WHERE created_at <= ?",
+                    Long.class, Timestamp.valueOf(started.minusSeconds(settleSeconds)));
+            long upperOrderId = upper != null ? upper : 0L;
+
+            if (matrix == null) {
+                rebuildAll(upperOrderId, started);
+            } else if (upperOrderId > watermark || !pendingProducts.isEmpty()) {
+                int updated = refreshNewOrders(upperOrderId, started);
+                if (updated > 0) {
+                    log.debug("Bought-together neighbours refreshed for {} products (orders up to {})",
+                            updated, upperOrderId);
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Bought-together refresh failed, will retry: {}", ex.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuildAll(long upperOrderId, LocalDateTime now) throws InterruptedException, ExecutionException {
+        Long minOrderId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM orders", Long.class);
+        long lower = minOrderId != null ? minOrderId - 1 : 0L;
+        long span = Math.max(ORDER_WINDOW, (upperOrderId - lower + partitions - 1) / partitions);
+
+        // Count each order-id range into its own matrix, then fold them together
+        List<Future<CoOccurrenceMatrix>> partials = new ArrayList<>();
+        for (long from = lower; from < upperOrderId; from += span) {
+            long rangeFrom = from;
+            long rangeTo = Math.min(upperOrderId, from + span);
+            partials.add(rebuildExecutor.submit(() -> {
+                CoOccurrenceMatrix partial = new CoOccurrenceMatrix();
+                readBaskets(rangeFrom, rangeTo, partial, null);
+                return partial;
+            }));
+        }
+        CoOccurrenceMatrix rebuilt = new CoOccurrenceMatrix();
+        for (Future<CoOccurrenceMatrix> partial : partials) {
+            CoOccurrenceMatrix counted = partial.get();
+            if (counted.productCount() > rebuilt.productCount()) {
+                counted.merge(rebuilt);
+                rebuilt = counted;
+            } else {
+                rebuilt.merge(counted);
+            }
+        }
+
+        // Top-k selection and persistence, also partitioned; the matrix is only read from here on
+        long[] productIds = new long[rebuilt.productCount()];
+        int[] next = {0};
+        rebuilt.forEachProduct(productId -> productIds[next[0]++] = productId);
+        Arrays.sort(productIds);
+
+        ConcurrentHashMap<Long, long[]> computed = new ConcurrentHashMap<>(productIds.length * 2);
+        CoOccurrenceMatrix finalMatrix = rebuilt;
+        int chunk = Math.max(BATCH_SIZE, (productIds.length + partitions - 1) / partitions);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int from = 0; from < productIds.length; from += chunk) {
+            long[] slice = Arrays.copyOfRange(productIds, from, Math.min(from + chunk, productIds.length));
+            writes.add(rebuildExecutor.submit(() -> writeNeighbours(finalMatrix, slice, computed, now)));
+        }
+        for (Future<?> write : writes) {
+            write.get();
+        }
+        // Products that no longer have any neighbour above min-count
+        jdbcTemplate.update("DELETE FROM product_co_purchases WHERE refreshed_at < ?", Timestamp.valueOf(now));
+
+        matrix = rebuilt;
+        watermark = upperOrderId;
+        pendingProducts = new LongIntHashMap();
+        neighbours = computed;
+        log.info("Bought-together matrix rebuilt from orders up to {}: {} products, {} pairs, {} with neighbours, in {} ms",
+                upperOrderId, rebuilt.productCount(), rebuilt.pairCount(), computed.size(),
+                Duration.between(now, LocalDateTime.now()).toMillis());
+    }
+
+    private int refreshNewOrders(long upperOrderId, LocalDateTime now) {
+        for (long from = watermark; from < upperOrderId; from += ORDER_WINDOW) {
+            long to = Math.min(upperOrderId, from + ORDER_WINDOW);
+            // Count each window apart, so a failed read never leaves part of it in the matrix
+            // and the watermark always matches what was counted
+            CoOccurrenceMatrix delta = new CoOccurrenceMatrix();
+            readBaskets(from, to, delta, pendingProducts);
+            matrix.merge(delta);
+            watermark = to;
+        }
+        if (pendingProducts.isEmpty()) {
+            return 0;
+        }
+
+        long[] productIds = new long[pendingProducts.size()];
+        int[] next = {0};
+        pendingProducts.forEach((productId, ignored) -> productIds[next[0]++] = productId);
+        writeNeighbours(matrix, productIds, neighbours, now);
+        pendingProducts = new LongIntHashMap();
+        return productIds.length;
+    }
+
+    // Reads the baskets of orders in (fromOrderId, toOrderId] window by window into the matrix
+    private void readBaskets(long fromOrderId, long toOrderId, CoOccurrenceMatrix target, LongIntHashMap touched) {
+        BasketCollector collector = new BasketCollector(target, touched);
+        for (long from = fromOrderId; from < toOrderId; from += ORDER_WINDOW) {
+            jdbcTemplate.query(BASKETS_SQL, collector, from, Math.min(toOrderId, from + ORDER_WINDOW));
+            collector.flush();
+        }
+    }
+
+    private void writeNeighbours(CoOccurrenceMatrix source, long[] productIds,
+                                 ConcurrentHashMap<Long, long[]> target, LocalDateTime now) {
+        Timestamp refreshedAt = Timestamp.valueOf(now);
+        List<Object[]> upserts = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> deletes = new ArrayList<>();
+        for (long productId : productIds) {
+            CoOccurrenceMatrix.Neighbours top = source.topNeighbours(productId, topK, minCount);
+            if (top.size() == 0) {
+                target.remove(productId);
+                deletes.add(new Object[]{productId});
+            } else {
+                target.put(productId, top.productIds());
+                upserts.add(new Object[]{productId, encode(top), refreshedAt});
+            }
+            if (upserts.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+                upserts.clear();
+            }
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM product_co_purchases WHERE product_id = ?", deletes);
+        }
+    }
+
+    // ==================== ENCODING ====================
+
+    private static byte[] encode(CoOccurrenceMatrix.Neighbours top) {
+        ByteBuffer buffer = ByteBuffer.allocate(top.size() * NEIGHBOUR_BYTES);
+        for (int i = 0; i < top.size(); i++) {
+            buffer.putLong(top.productIds()[i]);
+            buffer.putInt(top.counts()[i]);
+        }
+        return buffer.array();
+    }
+
+    private static long[] decodeIds(byte[] packed) {
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        long[] ids = new long[packed.length / NEIGHBOUR_BYTES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getLong();
+            buffer.getInt();
+        }
+        return ids;
+    }
+
+    // ==================== BASKETS ====================
+
+    // Groups the (order id, product id) rows of one query into baskets; rows arrive ordered by order id
+    private static final class BasketCollector implements RowCallbackHandler {
+
+        private final CoOccurrenceMatrix target;
+        private final LongIntHashMap touched;
+        private long currentOrderId = -1;
+        private long[] items = new long[16];
+        private int itemCount;
+
+        private BasketCollector(CoOccurrenceMatrix target, LongIntHashMap touched) {
+            this.target = target;
+            this.touched = touched;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong(1);
+            if (orderId != currentOrderId) {
+                flush();
+                currentOrderId = orderId;
+            }
+            if (itemCount == items.length) {
+                items = Arrays.copyOf(items, itemCount * 2);
+            }
+            items[itemCount++] = rs.getLong(2);
+        }
+
+        private void flush() {
+            int distinct = 0;
+            if (itemCount > 1) {
+                // The same product can appear on several lines of one order
+                Arrays.sort(items, 0, itemCount);
+                for (int i = 0; i < itemCount; i++) {
+                    if (distinct == 0 || items[i] != items[distinct - 1]) {
+                        items[distinct++] = items[i];
+                    }
+                }
+            }
+            if (distinct > 1 && distinct <= MAX_BASKET_SIZE) {
+                long[] basket = Arrays.copyOf(items, distinct);
+                target.addBasket(basket);
+                if (touched != null) {
+                    for (long productId : basket) {
+                        touched.put(productId, 1);
+                    }
+                }
+            }
+            itemCount = 0;
+            currentOrderId = -1;
+        }
+    }
+}
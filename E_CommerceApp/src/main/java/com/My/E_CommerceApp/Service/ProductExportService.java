@@ -0,0 +1,229 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductSpecificationDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductExportDTO;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Entity.ProductSpecification;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Repository.ProductSpecificationRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-catalog export for partner feeds (CSV or NDJSON, optionally gzipped).
+ *
+ * Products are read through a forward-only cursor in id order and written straight to the
+ * response. Specifications are loaded per chunk of {@link #CHUNK_SIZE}
+ * products, after which the chunk is flushed and the persistence context cleared, so heap use
+ * does not grow with the catalog. An interrupted export is resumed by passing the last id
+ * received + 1 as {@code fromId}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String[] CSV_COLUMNS = {
+            "id", "name", "description", "price", "discount", "stock", "brand", "status",
+            "categoryId", "categoryName", "subCategoryId", "subCategoryName", "vendorId", "vendorName",
+            "imagePath", "specifications", "updatedAt"
+    };
+
+    private final ProductRepo productRepo;
+    private final ProductSpecificationRepo specificationRepo;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public static String resolveFormat(String format) {
+        String candidate = format == null ? FORMAT_CSV : format.trim().toLowerCase(Locale.ROOT);
+        return switch (candidate) {
+            case FORMAT_CSV -> FORMAT_CSV;
+            case FORMAT_NDJSON, "jsonl" -> FORMAT_NDJSON;
+            default -> throw new BadRequestException("Unsupported export format '" + format + "', use csv or ndjson");
+        };
+    }
+
+    /**
+     * Export of products with {@code fromId <= id <= toId} (either bound optional) and the given
+     * status. Nothing is read until the body is written.
+     */
+    public StreamingResponseBody exportProducts(String format, boolean gzip, ProductStatus status,
+                                                Long fromId, Long toId) {
+        String resolvedFormat = resolveFormat(format);
+        long from = fromId != null ? fromId : 0L;
+        long to = toId != null ? toId : Long.MAX_VALUE;
+        if (from > to) {
+            throw new BadRequestException("fromId must not be greater than toId");
+        }
+
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+
+            // Runs on the async request thread, so it opens its own read-only transaction for the cursor
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            long started = System.currentTimeMillis();
+            Long exported = readOnly.execute(tx -> writeProducts(writer, resolvedFormat, status, from, to));
+
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            log.info("Exported {} products ({}{}, ids {}..{}) in {} ms", exported, resolvedFormat,
+                    gzip ? ", gzip" : "", from, to, System.currentTimeMillis() - started);
+        };
+    }
+
+    // ==================== STREAMING ====================
+
+    private long writeProducts(Writer writer, String format, ProductStatus status, long from, long to) {
+        long exported = 0;
+        try (Stream<Product> products = productRepo.streamForExport(status, from, to)) {
+            if (FORMAT_CSV.equals(format)) {
+                writer.write(String.join(",", CSV_COLUMNS));
+                writer.write('\n');
+            }
+
+            List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (Product product : (Iterable<Product>) products::iterator) {
+                chunk.add(product);
+                if (chunk.size() == CHUNK_SIZE) {
+                    exported += writeChunk(writer, format, chunk);
+                }
+            }
+            exported += writeChunk(writer, format, chunk);
+            return exported;
+        } catch (IOException ex) {
+            // Client went away or the connection broke; stop reading from the cursor
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int writeChunk(Writer writer, String format, List<Product> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = chunk.stream().map(Product::getId).toList();
+
+        Map<Long, List<ProductSpecificationDTO>> specifications = specificationRepo.findByProductIdIn(ids).stream()
+                .sorted(Comparator.comparing(ProductSpecification::getDisplayOrder,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(Collectors.groupingBy(spec -> spec.getProduct().getId(),
+                        Collectors.mapping(ProductExportService::toSpecificationDto, Collectors.toList())));
+        for (Product product : chunk) {
+            ProductExportDTO dto = toExportDto(product, specifications.getOrDefault(product.getId(), List.of()));
+            if (FORMAT_CSV.equals(format)) {
+                writeCsvRow(writer, dto);
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+        }
+
+        int written = chunk.size();
+        chunk.clear();
+        writer.flush();
+        // Detach everything read so far; the cursor keeps going with an empty persistence context
+        entityManager.clear();
+        return written;
+    }
+
+    // ==================== MAPPING ====================
+
+    private static ProductExportDTO toExportDto(Product product, List<ProductSpecificationDTO> specifications) {
+        ProductExportDTO dto = new ProductExportDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setDiscount(product.getDiscount());
+        dto.setStock(product.getStock());
+        dto.setBrand(product.getBrand());
+        dto.setStatus(product.getStatus());
+        if (product.getCategory() != null) {
+            dto.setCategoryId(product.getCategory().getId());
+            dto.setCategoryName(product.getCategory().getName());
+        }
+        if (product.getSubCategory() != null) {
+            dto.setSubCategoryId(product.getSubCategory().getId());
+            dto.setSubCategoryName(product.getSubCategory().getName());
+        }
+        if (product.getVendor() != null) {
+            dto.setVendorId(product.getVendor().getId());
+            dto.setVendorName(product.getVendor().getShopName());
+        }
+        dto.setImagePath(product.getPrimaryImagePath());
+        dto.setSpecifications(specifications);
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+
+    private static ProductSpecificationDTO toSpecificationDto(ProductSpecification specification) {
+        ProductSpecificationDTO dto = new ProductSpecificationDTO();
+        dto.setKey(specification.getKey());
+        dto.setValue(specification.getValue());
+        dto.setDisplayOrder(specification.getDisplayOrder());
+        return dto;
+    }
+
+    private static void writeCsvRow(Writer writer, ProductExportDTO dto) throws IOException {
+        String specifications = dto.getSpecifications().stream()
+                .map(spec -> spec.getKey() + ": " + spec.getValue())
+                .collect(Collectors.joining(" | "));
+        Object[] values = {
+                dto.getId(), dto.getName(), dto.getDescription(), dto.getPrice(), dto.getDiscount(), dto.getStock(),
+                dto.getBrand(), dto.getStatus(), dto.getCategoryId(), dto.getCategoryName(), dto.getSubCategoryId(),
+                dto.getSubCategoryName(), dto.getVendorId(), dto.getVendorName(), dto.getImagePath(), specifications,
+                dto.getUpdatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: only fields containing a separator, quote or line break are quoted
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
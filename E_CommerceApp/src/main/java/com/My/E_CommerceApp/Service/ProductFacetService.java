@@ -0,0 +1,219 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductFilterRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.FacetCountDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductFacetResponseDTO;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Entity.ProductSpecification;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import com.My.E_CommerceApp.Repository.ProductFilterSpecifications;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Repository.ProductSpecificationRepo;
+import com.My.E_CommerceApp.Search.ProductFacetIndex;
+import com.My.E_CommerceApp.Search.SpecAttributeIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory attribute indexes (facet bitmaps and the specification attribute index) in step
+ * with the database and answers facet-count and spec-filter lookups from them.
+ * Like the search index they only hold ACTIVE products and follow committed changes from ProductChangeBus,
+ * and a full rebuild fills new indexes that are swapped in together with one volatile write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductFacetService implements ProductChangeListener {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final Set<ProductChangeType> RELEVANT_CHANGES = EnumSet.of(
+            ProductChangeType.CREATED, ProductChangeType.UPDATED, ProductChangeType.DELETED, ProductChangeType.STATUS,
+            ProductChangeType.PRICE_STOCK, ProductChangeType.AVAILABILITY);
+
+    private final ProductRepo productRepo;
+    private final ProductSpecificationRepo specificationRepo;
+    private volatile Indexes indexes = new Indexes(new ProductFacetIndex(), new SpecAttributeIndex());
+    // Products changed while a rebuild runs (null otherwise); re-applied to the new indexes once they are live
+    private volatile Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    // Both indexes describe the same products, so they are published together
+    private record Indexes(ProductFacetIndex facets, SpecAttributeIndex specAttributes) {
+    }
+
+    // ==================== INDEX MAINTENANCE ====================
+
+    // Not one transaction: each batch is read on its own, so the persistence context never holds the catalog
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        Indexes rebuilt = new Indexes(new ProductFacetIndex(), new SpecAttributeIndex());
+        try {
+            long lastId = 0;
+            List<Product> batch;
+            do {
+                batch = productRepo.findByStatusAndIdGreaterThanOrderByIdAsc(ProductStatus.ACTIVE, lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                indexBatch(rebuilt, batch);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            indexes = rebuilt;
+            ready = true;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        // A batch may have been read before one of these changes committed
+        if (!changed.isEmpty()) {
+            reindex(new ArrayList<>(changed));
+        }
+
+        log.info("Product facet index rebuilt with {} products ({} distinct spec attributes) in {} ms",
+                rebuilt.facets().size(), rebuilt.specAttributes().attributeCount(),
+                System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Re-reads the changed products and re-indexes them; products that are no longer ACTIVE (or gone) are
+     * dropped. Only changes that can touch category, brand, price, stock or specifications are handled.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void onProductsChanged(List<ProductChange> changes) {
+        List<Long> ids = changes.stream()
+                .filter(change -> change.isAny(RELEVANT_CHANGES))
+                .map(ProductChange::getProductId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // Recorded before the indexes are read: if those are still the old ones, the rebuild re-applies them
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.addAll(ids);
+        }
+        reindex(ids);
+    }
+
+    private void reindex(List<Long> ids) {
+        Indexes target = indexes;
+        List<Product> active = productRepo.findByIdIn(ids).stream()
+                .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+                .collect(Collectors.toList());
+        Set<Long> activeIds = active.stream().map(Product::getId).collect(Collectors.toSet());
+        for (Long id : ids) {
+            if (!activeIds.contains(id)) {
+                target.facets().remove(id);
+                target.specAttributes().remove(id);
+            }
+        }
+        indexBatch(target, active);
+    }
+
+    // ==================== QUERY ====================
+
+    public ProductFacetResponseDTO getFacets(ProductFilterRequestDTO filter) {
+        ProductFacetIndex.FacetCounts counts = indexes.facets().count(new ProductFacetIndex.FacetQuery(
+                filter.getCategoryId(),
+                filter.getSubCategoryId(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getBrand(),
+                Boolean.TRUE.equals(filter.getInStock()),
+                ProductFilterSpecifications.parseSpecAttributes(filter.getSpec())
+        ));
+
+        ProductFacetResponseDTO response = new ProductFacetResponseDTO();
+        response.setTotal(counts.total());
+        Map<String, List<FacetCountDTO>> specs = new LinkedHashMap<>();
+        counts.facets().forEach((facet, values) -> {
+            List<FacetCountDTO> dtos = values.stream()
+                    .map(value -> new FacetCountDTO(value.value(), value.label(), value.count()))
+                    .collect(Collectors.toList());
+            switch (facet) {
+                case ProductFacetIndex.SUB_CATEGORY -> response.setSubCategories(dtos);
+                case ProductFacetIndex.BRAND -> response.setBrands(dtos);
+                case ProductFacetIndex.PRICE -> response.setPriceRanges(dtos);
+                case ProductFacetIndex.IN_STOCK -> response.setInStock(dtos.isEmpty() ? 0 : dtos.get(0).getCount());
+                default -> specs.put(facet.substring(ProductFacetIndex.SPEC_PREFIX.length()), dtos);
+            }
+        });
+        response.setSpecs(specs);
+        return response;
+    }
+
+    /**
+     * Sorted ids of ACTIVE products having, for every key, one of the given values (case-insensitive).
+     * Empty until the first build has finished; callers should fall back to SQL then.
+     */
+    public Optional<long[]> findProductIdsBySpecs(Map<String, List<String>> attributes) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(indexes.specAttributes().findProductIds(attributes));
+    }
+
+    public int getIndexedProductCount() {
+        return indexes.facets().size();
+    }
+
+    // ==================== HELPERS ====================
+
+    private void indexBatch(Indexes target, List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        Map<Long, List<ProductSpecification>> specificationsByProduct = specificationRepo.findByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(spec -> spec.getProduct().getId()));
+
+        for (Product product : products) {
+            Map<String, List<String>> specifications =
+                    groupByKey(specificationsByProduct.getOrDefault(product.getId(), new ArrayList<>()));
+            target.facets().index(
+                    product.getId(),
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getSubCategory() != null ? product.getSubCategory().getId() : null,
+                    product.getBrand(),
+                    product.getPrice() != null ? product.getPrice().doubleValue() : 0.0,
+                    product.getStock() != null && product.getStock() > 0,
+                    specifications
+            );
+            target.specAttributes().index(product.getId(), specifications);
+        }
+    }
+
+    private static Map<String, List<String>> groupByKey(Collection<ProductSpecification> specifications) {
+        Map<String, List<String>> grouped = new HashMap<>();
+        for (ProductSpecification spec : specifications) {
+            grouped.computeIfAbsent(spec.getKey(), key -> new ArrayList<>()).add(spec.getValue());
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,563 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductImportRowDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductSpecificationDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductImportErrorDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductImportJobDTO;
+import com.My.E_CommerceApp.Entity.Category;
+import com.My.E_CommerceApp.Entity.SubCategory;
+import com.My.E_CommerceApp.Entity.Vendor;
+import com.My.E_CommerceApp.Enum.ImportJobStatus;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Enum.VendorStatus;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
+import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
+import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
+import com.My.E_CommerceApp.Import.CsvRecordReader;
+import com.My.E_CommerceApp.Repository.CategoryRepo;
+import com.My.E_CommerceApp.Repository.SubCategoryRepo;
+import com.My.E_CommerceApp.Repository.VendorRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Bulk product import for vendors.
+ *
+ * The upload is spooled to a temp file and processed by a background worker that reads it one
+ * record at a time (CSV or NDJSON), validates each row, and inserts products and their
+ * specifications with JDBC batches, one transaction per batch. Progress and per-row errors are
+ * kept in memory under a job id for {@code app.product-import.job-retention-ms}.
+ *
+ * CSV files need a header row. Recognised columns: name, description, price, stock, discount,
+ * brand, categoryId, categoryName, subCategoryId, subCategoryName, and any number of
+ * {@code spec:<key>} columns (e.g. {@code spec:ram}). NDJSON lines use the same field names, with
+ * specifications as a list of {key, value, displayOrder}.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String SPEC_COLUMN_PREFIX = "spec:";
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (name, description, price, stock, discount, brand, sales_count, view_count, " +
+            "rating, is_featured, admin_boost, status, category_id, sub_category_id, vendor_id, " +
+            "created_at, updated_at, is_active, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, false, 0, ?, ?, ?, ?, ?, ?, true, ?)";
+    private static final String INSERT_SPECIFICATION_SQL =
+            "INSERT INTO product_specifications (spec_key, spec_value, display_order, product_id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final VendorRepo vendorRepo;
+    private final CategoryRepo categoryRepo;
+    private final SubCategoryRepo subCategoryRepo;
+    private final ProductChangeBus productChangeBus;
+    private final int batchSize;
+    private final long jobRetentionMillis;
+
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final ConcurrentHashMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                VendorRepo vendorRepo,
+                                CategoryRepo categoryRepo,
+                                SubCategoryRepo subCategoryRepo,
+                                ProductChangeBus productChangeBus,
+                                @Value("${app.product-import.batch-size:500}") int batchSize,
+                                @Value("${app.product-import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                @Value("${app.product-import.job-retention-ms:3600000}") long jobRetentionMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.vendorRepo = vendorRepo;
+        this.categoryRepo = categoryRepo;
+        this.subCategoryRepo = subCategoryRepo;
+        this.productChangeBus = productChangeBus;
+        this.batchSize = batchSize;
+        this.jobRetentionMillis = jobRetentionMillis;
+
+        // Private pool (not a bean) so Spring's default task executor is left alone; imports beyond
+        // the queue are rejected instead of piling up temp files
+        this.importExecutor = new ThreadPoolTaskExecutor();
+        importExecutor.setCorePoolSize(maxConcurrentJobs);
+        importExecutor.setMaxPoolSize(maxConcurrentJobs);
+        importExecutor.setQueueCapacity(maxConcurrentJobs * 4);
+        importExecutor.setThreadNamePrefix("product-import-");
+        importExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        importExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdown();
+    }
+
+    // ==================== JOBS ====================
+
+    public ProductImportJobDTO submitImport(Long vendorId, MultipartFile file, String format) {
+        Path spool = null;
+        try {
+            if (file == null || file.isEmpty()) {
+                throw new BadRequestException("Import file is empty");
+            }
+            String resolvedFormat = resolveFormat(format, file.getOriginalFilename());
+
+            Vendor vendor = vendorRepo.findById(vendorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Vendor", "id", vendorId));
+            if (vendor.getVendorStatus() != VendorStatus.ACTIVE) {
+                throw new OperationFailedException("Import products", "Vendor account is not active");
+            }
+
+            // The multipart temp file goes away with the request, the job needs its own copy
+            spool = Files.createTempFile("product-import-", "." + resolvedFormat);
+            file.transferTo(spool);
+
+            evictFinishedJobs();
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), vendorId, resolvedFormat);
+            jobs.put(job.id, job);
+
+            Path source = spool;
+            try {
+                importExecutor.execute(() -> runImport(job, source));
+            } catch (TaskRejectedException ex) {
+                jobs.remove(job.id);
+                throw new OperationFailedException("Import products", "Too many imports in progress, try again later");
+            }
+            spool = null;   // owned by the job now
+            return job.toDto();
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Import products", ex.getMessage());
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    public ProductImportJobDTO getImportJob(Long vendorId, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.vendorId.equals(vendorId)) {
+            throw new ResourceNotFoundException("Import job", "id", jobId);
+        }
+        return job.toDto();
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionMillis));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static String resolveFormat(String format, String filename) {
+        String candidate = format;
+        if ((candidate == null || candidate.isBlank()) && filename != null && filename.contains(".")) {
+            candidate = filename.substring(filename.lastIndexOf('.') + 1);
+        }
+        candidate = candidate == null ? "" : candidate.trim().toLowerCase(Locale.ROOT);
+        return switch (candidate) {
+            case FORMAT_CSV -> FORMAT_CSV;
+            case FORMAT_NDJSON, "jsonl" -> FORMAT_NDJSON;
+            default -> throw new BadRequestException("Unsupported import format '" + candidate + "', use csv or ndjson");
+        };
+    }
+
+    // ==================== WORKER ====================
+
+    private void runImport(ImportJob job, Path source) {
+        job.status = ImportJobStatus.RUNNING;
+        ImportContext context = new ImportContext(job);
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            if (FORMAT_CSV.equals(job.format)) {
+                readCsv(reader, context);
+            } else {
+                readNdjson(reader, context);
+            }
+            flush(context);
+            job.status = ImportJobStatus.COMPLETED;
+        } catch (Exception ex) {
+            log.warn("Product import {} for vendor {} aborted: {}", job.id, job.vendorId, ex.getMessage());
+            job.failureReason = ex.getMessage();
+            job.status = ImportJobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            deleteQuietly(source);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportContext context) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream().map(String::trim).toList();
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            long line = csv.getRecordLine();
+            context.job.rowsRead++;
+            try {
+                accept(context, line, toRow(columns, record));
+            } catch (IllegalArgumentException ex) {
+                context.job.reject(line, ex.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportContext context) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            context.job.rowsRead++;
+            try {
+                accept(context, line, objectMapper.readValue(text, ProductImportRowDTO.class));
+            } catch (JsonProcessingException ex) {
+                context.job.reject(line, "Malformed JSON: " + ex.getOriginalMessage());
+            } catch (IllegalArgumentException ex) {
+                context.job.reject(line, ex.getMessage());
+            }
+        }
+    }
+
+    private ProductImportRowDTO toRow(List<String> columns, List<String> record) {
+        ProductImportRowDTO row = new ProductImportRowDTO();
+        for (int i = 0; i < columns.size() && i < record.size(); i++) {
+            String column = columns.get(i);
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (column.regionMatches(true, 0, SPEC_COLUMN_PREFIX, 0, SPEC_COLUMN_PREFIX.length())) {
+                ProductSpecificationDTO spec = new ProductSpecificationDTO();
+                spec.setKey(column.substring(SPEC_COLUMN_PREFIX.length()).trim());
+                spec.setValue(value);
+                spec.setDisplayOrder(row.getSpecifications().size());
+                row.getSpecifications().add(spec);
+                continue;
+            }
+            switch (column.toLowerCase(Locale.ROOT)) {
+                case "name" -> row.setName(value);
+                case "description" -> row.setDescription(value);
+                case "price" -> row.setPrice(parse(column, value, BigDecimal::new));
+                case "stock" -> row.setStock(parse(column, value, Integer::valueOf));
+                case "discount" -> row.setDiscount(parse(column, value, Double::valueOf));
+                case "brand" -> row.setBrand(value);
+                case "categoryid" -> row.setCategoryId(parse(column, value, Long::valueOf));
+                case "categoryname" -> row.setCategoryName(value);
+                case "subcategoryid" -> row.setSubCategoryId(parse(column, value, Long::valueOf));
+                case "subcategoryname" -> row.setSubCategoryName(value);
+                default -> {
+                    // Unknown columns are ignored so vendors can keep their own bookkeeping columns
+                }
+            }
+        }
+        return row;
+    }
+
+    private static <T> T parse(String column, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private void accept(ImportContext context, long line, ProductImportRowDTO row) {
+        String error = validate(context, row);
+        if (error != null) {
+            context.job.reject(line, error);
+            return;
+        }
+        context.pending.add(new PendingRow(line, row));
+        if (context.pending.size() >= batchSize) {
+            flush(context);
+        }
+    }
+
+    // ==================== VALIDATION ====================
+
+    // Resolves category / sub-category ids in place; returns an error message or null
+    private String validate(ImportContext context, ProductImportRowDTO row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getName().length() > MAX_NAME_LENGTH) {
+            return "name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (row.getDescription() != null && row.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (row.getPrice() == null || row.getPrice().signum() <= 0) {
+            return "price must be greater than 0";
+        }
+        if (row.getStock() == null || row.getStock() < 0) {
+            return "stock must be 0 or more";
+        }
+        if (row.getDiscount() != null && (row.getDiscount() < 0 || row.getDiscount() > 100)) {
+            return "discount must be between 0 and 100";
+        }
+
+        Optional<Long> categoryId = context.resolveCategory(row);
+        if (categoryId.isEmpty()) {
+            return "unknown category " + (row.getCategoryId() != null ? row.getCategoryId() : "'" + row.getCategoryName() + "'");
+        }
+        row.setCategoryId(categoryId.get());
+
+        if (row.getSubCategoryId() != null || (row.getSubCategoryName() != null && !row.getSubCategoryName().isBlank())) {
+            Optional<Long> subCategoryId = context.resolveSubCategory(row);
+            if (subCategoryId.isEmpty()) {
+                return "sub-category does not exist in category " + row.getCategoryId();
+            }
+            row.setSubCategoryId(subCategoryId.get());
+        }
+
+        if (row.getSpecifications() != null) {
+            for (ProductSpecificationDTO spec : row.getSpecifications()) {
+                if (spec.getKey() == null || spec.getKey().isBlank() || spec.getValue() == null || spec.getValue().isBlank()) {
+                    return "specifications need a key and a value";
+                }
+            }
+        }
+        return null;
+    }
+
+    // ==================== BATCH INSERT ====================
+
+    private void flush(ImportContext context) {
+        if (context.pending.isEmpty()) {
+            return;
+        }
+        List<PendingRow> batch = new ArrayList<>(context.pending);
+        context.pending.clear();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(context.job.vendorId, batch));
+        } catch (Exception ex) {
+            // The whole batch rolled back together; report it against every row in it
+            String message = "Insert failed: " + ex.getMessage();
+            for (PendingRow row : batch) {
+                context.job.reject(row.line, message);
+            }
+            return;
+        }
+        context.job.rowsImported += batch.size();
+    }
+
+    // Rows, specifications and the change announcement commit or roll back together
+    private void insertBatch(Long vendorId, List<PendingRow> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PRODUCT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductImportRowDTO row = batch.get(i).row;
+                        ps.setString(1, row.getName().trim());
+                        ps.setString(2, row.getDescription());
+                        ps.setBigDecimal(3, row.getPrice());
+                        ps.setInt(4, row.getStock());
+                        ps.setDouble(5, row.getDiscount() != null ? row.getDiscount() : 0.0);
+                        ps.setString(6, row.getBrand());
+                        ps.setString(7, ProductStatus.ACTIVE.name());
+                        ps.setLong(8, row.getCategoryId());
+                        if (row.getSubCategoryId() != null) {
+                            ps.setLong(9, row.getSubCategoryId());
+                        } else {
+                            ps.setNull(9, Types.BIGINT);
+                        }
+                        ps.setLong(10, vendorId);
+                        ps.setTimestamp(11, now);
+                        ps.setTimestamp(12, now);
+                        ps.setString(13, "IMPORT");
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keys);
+
+        List<Long> productIds = new ArrayList<>(batch.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            productIds.add(((Number) key.values().iterator().next()).longValue());
+        }
+        if (productIds.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated ids, got " + productIds.size());
+        }
+
+        List<Object[]> specifications = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            List<ProductSpecificationDTO> specs = batch.get(i).row.getSpecifications();
+            if (specs == null) {
+                continue;
+            }
+            for (ProductSpecificationDTO spec : specs) {
+                specifications.add(new Object[]{
+                        spec.getKey().trim(),
+                        spec.getValue().trim(),
+                        spec.getDisplayOrder() != null ? spec.getDisplayOrder() : 0,
+                        productIds.get(i)
+                });
+            }
+        }
+        if (!specifications.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SPECIFICATION_SQL, specifications);
+        }
+        // Outbox rows join this transaction, so indexes and caches hear of exactly the rows that committed
+        productChangeBus.publish(ProductChangeType.CREATED, productIds);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete import spool file {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private record PendingRow(long line, ProductImportRowDTO row) {
+    }
+
+    // Per-import state: the current batch and category lookups, so each category is queried once per file
+    private final class ImportContext {
+        private final ImportJob job;
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final Map<Long, Boolean> categoryExists = new HashMap<>();
+        private final Map<String, Optional<Long>> categoryIdsByName = new HashMap<>();
+        private final Map<Long, Optional<Long>> subCategoryParents = new HashMap<>();
+        private final Map<String, Optional<Long>> subCategoryIdsByName = new HashMap<>();
+
+        private ImportContext(ImportJob job) {
+            this.job = job;
+        }
+
+        private Optional<Long> resolveCategory(ProductImportRowDTO row) {
+            if (row.getCategoryId() != null) {
+                Long id = row.getCategoryId();
+                return categoryExists.computeIfAbsent(id, categoryRepo::existsById) ? Optional.of(id) : Optional.empty();
+            }
+            if (row.getCategoryName() == null || row.getCategoryName().isBlank()) {
+                return Optional.empty();
+            }
+            return categoryIdsByName.computeIfAbsent(row.getCategoryName().trim().toLowerCase(Locale.ROOT),
+                    name -> categoryRepo.findFirstByNameIgnoreCase(name).map(Category::getId));
+        }
+
+        private Optional<Long> resolveSubCategory(ProductImportRowDTO row) {
+            Long categoryId = row.getCategoryId();
+            if (row.getSubCategoryId() != null) {
+                Optional<Long> parent = subCategoryParents.computeIfAbsent(row.getSubCategoryId(),
+                        id -> subCategoryRepo.findById(id).map(subCategory -> subCategory.getCategory().getId()));
+                return parent.filter(categoryId::equals).map(id -> row.getSubCategoryId());
+            }
+            String name = row.getSubCategoryName().trim();
+            return subCategoryIdsByName.computeIfAbsent(categoryId + "|" + name.toLowerCase(Locale.ROOT),
+                    key -> subCategoryRepo.findFirstByCategoryIdAndNameIgnoreCase(categoryId, name).map(SubCategory::getId));
+        }
+    }
+
+    // Mutated by one worker thread, read by status requests; fields are volatile for visibility
+    private static final class ImportJob {
+        private final String id;
+        private final Long vendorId;
+        private final String format;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile long rowsRead;
+        private volatile long rowsImported;
+        private volatile long rowsFailed;
+        private volatile String failureReason;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, Long vendorId, String format) {
+            this.id = id;
+            this.vendorId = vendorId;
+            this.format = format;
+        }
+
+        private void reject(long line, String message) {
+            rowsFailed++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ProductImportErrorDTO(line, message));
+                }
+            }
+        }
+
+        private ProductImportJobDTO toDto() {
+            ProductImportJobDTO dto = new ProductImportJobDTO();
+            dto.setJobId(id);
+            dto.setVendorId(vendorId);
+            dto.setFormat(format);
+            dto.setStatus(status);
+            dto.setRowsRead(rowsRead);
+            dto.setRowsImported(rowsImported);
+            dto.setRowsFailed(rowsFailed);
+            synchronized (errors) {
+                dto.setErrors(new ArrayList<>(errors));
+            }
+            dto.setErrorsTruncated(rowsFailed > MAX_REPORTED_ERRORS);
+            dto.setFailureReason(failureReason);
+            dto.setSubmittedAt(submittedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
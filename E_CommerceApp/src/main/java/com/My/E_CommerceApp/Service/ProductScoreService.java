@@ -0,0 +1,310 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the product_scores read model behind the trending, best-seller and featured rails.
+ *
+ * The first refresh scores every product; later refreshes only rescore products that changed since the
+ * previous run (updated rows, updated vendors, flushed views and sales, products leaving the 30-day
+ * "new" window) and re-rank only the vendors those products belong to.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductScoreService implements ProductChangeListener {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int RECENT_DAYS = 30;
+    // Re-read a little before the watermark so rows committed while the last refresh ran are not missed
+    private static final long WATERMARK_OVERLAP_SECONDS = 5;
+
+    private static final String SCORE_COLUMNS_SQL = """
+        SELECT p.id, p.vendor_id, p.status, p.stock, p.rating, p.sales_count, p.view_count,
+               p.admin_boost, p.is_featured, p.created_at, v.vendor_status
+        FROM products p
+        JOIN vendors v ON v.id = p.vendor_id
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO product_scores (product_id, vendor_id, eligible, featured_candidate, performance_score,
+                                    vendor_rank, sales_count, rating, is_featured, admin_boost,
+                                    product_created_at, refreshed_at)
+        VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            vendor_id = VALUES(vendor_id),
+            eligible = VALUES(eligible),
+            featured_candidate = VALUES(featured_candidate),
+            performance_score = VALUES(performance_score),
+            sales_count = VALUES(sales_count),
+            rating = VALUES(rating),
+            is_featured = VALUES(is_featured),
+            admin_boost = VALUES(admin_boost),
+            product_created_at = VALUES(product_created_at),
+            refreshed_at = VALUES(refreshed_at)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final Set<Long> dirtyProductIds = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile LocalDateTime lastRefreshStartedAt;   // null until the first full refresh succeeded
+    private volatile LocalDateTime lastRecentSince;
+
+    // ==================== CHANGE TRACKING ====================
+
+    /**
+     * Flags products whose counters changed without touching products.updated_at (bulk UPDATEs, deletes).
+     * Inside a transaction the flag is raised after commit, so the refresh never reads uncommitted state.
+     */
+    public void markDirty(Long productId) {
+        markDirty(List.of(productId));
+    }
+
+    public void markDirty(Collection<Long> productIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = new ArrayList<>(productIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyProductIds.addAll(ids);
+                }
+            });
+        } else {
+            dirtyProductIds.addAll(productIds);
+        }
+    }
+
+    // Committed changes from ProductChangeBus; the dispatcher runs outside any transaction, so this flags at once
+    @Override
+    public void onProductsChanged(List<ProductChange> changes) {
+        markDirty(changes.stream().map(ProductChange::getProductId).toList());
+    }
+
+    public boolean isReady() {
+        return lastRefreshStartedAt != null;
+    }
+
+    // ==================== REFRESH ====================
+
+    @Scheduled(initialDelayString = "${app.product-scores.initial-delay-ms:10000}",
+            fixedDelayString = "${app.product-scores.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            LocalDateTime recentSince = LocalDate.now().minusDays(RECENT_DAYS).atStartOfDay();
+
+            if (lastRefreshStartedAt == null) {
+                int scored = refreshAll(started, recentSince);
+                log.info("Product scores rebuilt for {} products in {} ms",
+                        scored, Duration.between(started, LocalDateTime.now()).toMillis());
+            } else {
+                int scored = refreshChanged(started, recentSince);
+                if (scored > 0) {
+                    log.debug("Product scores refreshed for {} changed products", scored);
+                }
+            }
+
+            lastRefreshStartedAt = started;
+            lastRecentSince = recentSince;
+        } catch (Exception ex) {
+            log.warn("Product score refresh failed, will retry: {}", ex.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private int refreshAll(LocalDateTime now, LocalDateTime recentSince) {
+        // Flags raised from here on may have committed after their row was scanned: only these are covered
+        Set<Long> coveredDirtyIds = new HashSet<>(dirtyProductIds);
+        int scored = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = new ArrayList<>();
+            Set<Long> vendorIds = new HashSet<>();
+            jdbcTemplate.query(SCORE_COLUMNS_SQL + " WHERE p.id > ? ORDER BY p.id LIMIT " + BATCH_SIZE,
+                    rs -> { rows.add(toScoreRow(rs, recentSince, now)); vendorIds.add(rs.getLong("vendor_id")); },
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            scored += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        jdbcTemplate.update("""
+            DELETE s FROM product_scores s
+            LEFT JOIN products p ON p.id = s.product_id
+            WHERE p.id IS NULL
+            """);
+
+        List<Long> allVendorIds = jdbcTemplate.queryForList("SELECT DISTINCT vendor_id FROM product_scores", Long.class);
+        rerankVendors(allVendorIds);
+        dirtyProductIds.removeAll(coveredDirtyIds);
+        return scored;
+    }
+
+    private int refreshChanged(LocalDateTime now, LocalDateTime recentSince) {
+        Timestamp since = Timestamp.valueOf(lastRefreshStartedAt.minusSeconds(WATERMARK_OVERLAP_SECONDS));
+
+        Set<Long> dirtyIds = new HashSet<>();
+        for (Long id : dirtyProductIds) {
+            if (dirtyProductIds.remove(id)) {
+                dirtyIds.add(id);
+            }
+        }
+
+        try {
+            Set<Long> changedIds = new HashSet<>(dirtyIds);
+            changedIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT id FROM products WHERE updated_at > ?", Long.class, since));
+            changedIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT p.id FROM products p JOIN vendors v ON v.id = p.vendor_id WHERE v.updated_at > ?", Long.class, since));
+            if (!recentSince.equals(lastRecentSince)) {
+                // Products that aged out of the "new" bonus since the last run
+                changedIds.addAll(jdbcTemplate.queryForList(
+                        "SELECT id FROM products WHERE created_at > ? AND created_at <= ?", Long.class,
+                        Timestamp.valueOf(lastRecentSince), Timestamp.valueOf(recentSince)));
+            }
+
+            if (changedIds.isEmpty()) {
+                return 0;
+            }
+
+            Set<Long> affectedVendorIds = new HashSet<>();
+            List<Long> ids = new ArrayList<>(changedIds);
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                rescore(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), now, recentSince, affectedVendorIds);
+            }
+            rerankVendors(new ArrayList<>(affectedVendorIds));
+            return ids.size();
+        } catch (RuntimeException ex) {
+            // The watermark does not advance, so it covers the rest; dirty-only ids must be handed back
+            dirtyProductIds.addAll(dirtyIds);
+            throw ex;
+        }
+    }
+
+    private void rescore(List<Long> productIds, LocalDateTime now, LocalDateTime recentSince, Set<Long> affectedVendorIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", productIds);
+
+        // Vendors the products were ranked under before, in case they disappear or change vendor
+        affectedVendorIds.addAll(namedJdbcTemplate.queryForList(
+                "SELECT vendor_id FROM product_scores WHERE product_id IN (:ids)", params, Long.class));
+
+        List<Object[]> rows = new ArrayList<>();
+        Set<Long> foundIds = new HashSet<>();
+        namedJdbcTemplate.query(SCORE_COLUMNS_SQL + " WHERE p.id IN (:ids)", params, rs -> {
+            rows.add(toScoreRow(rs, recentSince, now));
+            foundIds.add(rs.getLong("id"));
+            affectedVendorIds.add(rs.getLong("vendor_id"));
+        });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+
+        List<Long> deletedIds = productIds.stream().filter(id -> !foundIds.contains(id)).toList();
+        if (!deletedIds.isEmpty()) {
+            namedJdbcTemplate.update("DELETE FROM product_scores WHERE product_id IN (:ids)",
+                    new MapSqlParameterSource("ids", deletedIds));
+        }
+    }
+
+    // Recomputes vendor_rank for every product of the given vendors and writes back only the ranks that moved
+    private void rerankVendors(List<Long> vendorIds) {
+        for (int from = 0; from < vendorIds.size(); from += BATCH_SIZE) {
+            List<Long> chunk = vendorIds.subList(from, Math.min(from + BATCH_SIZE, vendorIds.size()));
+            List<Object[]> rankUpdates = new ArrayList<>();
+            long[] currentVendor = {-1};
+            int[] rank = {0};
+
+            namedJdbcTemplate.query("""
+                SELECT product_id, vendor_id, eligible, vendor_rank FROM product_scores
+                WHERE vendor_id IN (:vendorIds)
+                ORDER BY vendor_id, eligible DESC, performance_score DESC, product_created_at DESC, product_id DESC
+                """, new MapSqlParameterSource("vendorIds", chunk), rs -> {
+                long vendorId = rs.getLong("vendor_id");
+                if (vendorId != currentVendor[0]) {
+                    currentVendor[0] = vendorId;
+                    rank[0] = 0;
+                }
+                int newRank = rs.getBoolean("eligible") ? ++rank[0] : 0;
+                if (rs.getInt("vendor_rank") != newRank) {
+                    rankUpdates.add(new Object[]{newRank, rs.getLong("product_id")});
+                }
+            });
+
+            if (!rankUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE product_scores SET vendor_rank = ? WHERE product_id = ?", rankUpdates);
+            }
+        }
+    }
+
+    // ==================== SCORING ====================
+
+    private Object[] toScoreRow(ResultSet rs, LocalDateTime recentSince, LocalDateTime now) throws SQLException {
+        int stock = rs.getInt("stock");
+        double rating = rs.getDouble("rating");
+        int salesCount = rs.getInt("sales_count");
+        long viewCount = rs.getLong("view_count");
+        double adminBoost = rs.getDouble("admin_boost");
+        boolean isFeatured = rs.getBoolean("is_featured");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+
+        boolean eligible = "ACTIVE".equals(rs.getString("status"))
+                && stock > 0
+                && "ACTIVE".equals(rs.getString("vendor_status"));
+        boolean featuredCandidate = eligible && (isFeatured || rating >= 4.0 || salesCount >= 50);
+
+        // Same weighting the trending query used: rating, sales, views, admin boost and a bonus for new products
+        double score = rating * 0.3
+                + salesCount * 0.4
+                + viewCount * 0.2
+                + adminBoost * 0.1
+                + (createdAt != null && createdAt.toLocalDateTime().isAfter(recentSince) ? 0.1 : 0);
+
+        return new Object[]{
+                rs.getLong("id"),
+                rs.getLong("vendor_id"),
+                eligible,
+                featuredCandidate,
+                score,
+                salesCount,
+                rating,
+                isFeatured,
+                adminBoost,
+                createdAt,
+                Timestamp.valueOf(now)
+        };
+    }
+}
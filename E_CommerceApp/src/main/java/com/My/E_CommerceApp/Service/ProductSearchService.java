@@ -0,0 +1,157 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Entity.ProductSpecification;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Repository.ProductSpecificationRepo;
+import com.My.E_CommerceApp.Search.ProductSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory product search index in step with the database.
+ * The index only holds ACTIVE products; it follows committed changes from ProductChangeBus, so a
+ * rolled-back change never becomes searchable. A full rebuild fills a new index while searches keep
+ * using the current one, then swaps it in with one volatile write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService implements ProductChangeListener {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final Set<ProductChangeType> RELEVANT_CHANGES =
+            EnumSet.complementOf(EnumSet.of(ProductChangeType.IMAGES, ProductChangeType.STOCK,
+                    ProductChangeType.AVAILABILITY));
+
+    private final ProductRepo productRepo;
+    private final ProductSpecificationRepo specificationRepo;
+    private volatile ProductSearchIndex searchIndex = new ProductSearchIndex();
+    // Products changed while a rebuild runs (null otherwise); re-applied to the new index once it is live
+    private volatile Set<Long> changedDuringRebuild;
+
+    // ==================== INDEX MAINTENANCE ====================
+
+    // Not one transaction: each batch is read on its own, so the persistence context never holds the catalog
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        try {
+            long lastId = 0;
+            List<Product> batch;
+            do {
+                batch = productRepo.findByStatusAndIdGreaterThanOrderByIdAsc(ProductStatus.ACTIVE, lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                indexBatch(rebuilt, batch);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            searchIndex = rebuilt;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        // A batch may have been read before one of these changes committed
+        if (!changed.isEmpty()) {
+            reindex(new ArrayList<>(changed));
+        }
+
+        log.info("Product search index rebuilt with {} products in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Re-reads the changed products and re-indexes them; products that are no longer ACTIVE (or gone) are
+     * dropped. Image and stock changes do not touch any indexed field and are skipped.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void onProductsChanged(List<ProductChange> changes) {
+        List<Long> ids = changes.stream()
+                .filter(change -> change.isAny(RELEVANT_CHANGES))
+                .map(ProductChange::getProductId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // Recorded before the index is read: if that is still the old one, the rebuild re-applies them
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.addAll(ids);
+        }
+        reindex(ids);
+    }
+
+    private void reindex(List<Long> ids) {
+        ProductSearchIndex index = searchIndex;
+        List<Product> active = productRepo.findByIdIn(ids).stream()
+                .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+                .collect(Collectors.toList());
+        Set<Long> activeIds = active.stream().map(Product::getId).collect(Collectors.toSet());
+        ids.stream().filter(id -> !activeIds.contains(id)).forEach(index::remove);
+        indexBatch(index, active);
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Ids of the {@code limit} best matching products, best match first, plus the total number of matches.
+     */
+    public ProductSearchIndex.Hits search(String keyword, int limit) {
+        return searchIndex.search(keyword, limit);
+    }
+
+    public int getIndexedProductCount() {
+        return searchIndex.size();
+    }
+
+    // ==================== HELPERS ====================
+
+    private void indexBatch(ProductSearchIndex index, List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        Map<Long, List<String>> specificationValues = new HashMap<>();
+        for (ProductSpecification spec : specificationRepo.findByProductIdIn(ids)) {
+            specificationValues.computeIfAbsent(spec.getProduct().getId(), key -> new ArrayList<>()).add(spec.getValue());
+        }
+
+        for (Product product : products) {
+            index.index(
+                    product.getId(),
+                    product.getName(),
+                    product.getBrand(),
+                    product.getDescription(),
+                    specificationValues.getOrDefault(product.getId(), Collections.emptyList()),
+                    product.getSalesCount() != null ? product.getSalesCount() : 0,
+                    product.getRating() != null ? product.getRating() : 0.0
+            );
+        }
+    }
+}
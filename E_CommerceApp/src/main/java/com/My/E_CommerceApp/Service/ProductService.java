@@ -1,36 +1,113 @@
 package com.My.E_CommerceApp.Service;
 
+import com.My.E_CommerceApp.Cache.GroupedCache;
+import com.My.E_CommerceApp.Cache.StaleWhileRevalidateCache;
+import com.My.E_CommerceApp.Catalog.CatalogRow;
+import com.My.E_CommerceApp.Catalog.CatalogSnapshot;
 import com.My.E_CommerceApp.DTO.RequestDTO.FileDataDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductBulkUpdateItemDTO;
+import com.My.E_CommerceApp.DTO.RequestDTO.ProductFilterRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.ProductRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.ProductSpecificationDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductBatchResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductBulkUpdateErrorDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductBulkUpdateResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductCardDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductFacetResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.ProductResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.SuggestionDTO;
 import com.My.E_CommerceApp.Entity.*;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
 import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import com.My.E_CommerceApp.Exception.CustomException.BadRequestException;
 import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
 import com.My.E_CommerceApp.Exception.CustomException.UnauthorizedAccessException;
 import com.My.E_CommerceApp.Repository.*;
+import com.My.E_CommerceApp.Search.ProductSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class ProductService {
+public class ProductService implements ProductChangeListener {
     private final ProductRepo productRepo;
     private final CategoryRepo categoryRepo;
     private final VendorRepo vendorRepo;
-    private final ProductSpecificationRepo specificationRepo;
     private final SubCategoryRepo subCategoryRepo;
     private final FileDataRepo fileDataRepo;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductViewCounter productViewCounter;
+    private final ProductScoreRepo productScoreRepo;
+    private final ProductScoreService productScoreService;
+    private final ProductCoPurchaseService productCoPurchaseService;
+    private final ProductSimilarityService productSimilarityService;
+    private final ProductChangeBus productChangeBus;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StaleWhileRevalidateCache<String, List<ProductResponseDTO>> productRailCache;
+    private final StaleWhileRevalidateCache<String, List<ProductCardDTO>> productRailCardCache;
+    private final GroupedCache<String, String, Object> productListingCache;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_FILTER_RESULTS = 200;
+    private static final int MAX_RAIL_SIZE = 100;
+    private static final int MAX_SPEC_MATCH_IDS = 5000;
+    private static final int[] RAIL_LIMIT_BUCKETS = {10, 20, 50};
+    private static final int MAX_BULK_UPDATE_ITEMS = 1000;
+    private static final int MAX_BATCH_IDS = 100;
+    // Order of the snapshot's listings; pages asking for any other order are read from the database
+    private static final Sort LISTING_SORT = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+    private static final String BULK_UPDATE_SQL =
+            "UPDATE products SET price = COALESCE(?, price), stock = COALESCE(?, stock), " +
+            "discount = COALESCE(?, discount), updated_at = ?, updated_by = 'BULK_UPDATE' " +
+            "WHERE id = ? AND vendor_id = ?";
+    private static final String SELECT_SPECIFICATIONS_SQL =
+            "SELECT id, spec_key, spec_value, display_order FROM product_specifications " +
+            "WHERE product_id = ? ORDER BY display_order, id";
+    private static final String UPDATE_SPECIFICATION_SQL =
+            "UPDATE product_specifications SET spec_value = ?, display_order = ? WHERE id = ?";
+    private static final String INSERT_SPECIFICATION_SQL =
+            "INSERT INTO product_specifications (spec_key, spec_value, display_order, product_id) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_SPECIFICATION_SQL =
+            "DELETE FROM product_specifications WHERE id = ?";
 
     // ==================== MAPPING METHODS ====================
 
@@ -154,12 +231,108 @@ public class ProductService {
 
             Product product = toEntity(dto, category, vendor);
             Product savedProduct = productRepo.save(product);
+            productChangeBus.publish(ProductChangeType.CREATED, savedProduct.getId());
             return toDto(savedProduct);
         } catch (Exception ex) {
             throw new OperationFailedException("Create product", ex.getMessage());
         }
     }
 
+    // Reprice / restock many products at once: one ownership query, one JDBC batch, no entity loads
+    @Transactional
+    public ProductBulkUpdateResponseDTO bulkUpdateProducts(Long vendorId, List<ProductBulkUpdateItemDTO> items) {
+        try {
+            if (items == null || items.isEmpty()) {
+                throw new BadRequestException("No products to update");
+            }
+            if (items.size() > MAX_BULK_UPDATE_ITEMS) {
+                throw new BadRequestException("At most " + MAX_BULK_UPDATE_ITEMS + " products can be updated per request");
+            }
+
+            ProductBulkUpdateResponseDTO response = new ProductBulkUpdateResponseDTO();
+            response.setRequested(items.size());
+
+            // Field validation and duplicate detection, before touching the database
+            Map<Long, Long> occurrences = items.stream()
+                    .map(ProductBulkUpdateItemDTO::getProductId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            Map<Long, ProductBulkUpdateItemDTO> valid = new TreeMap<>();
+            for (ProductBulkUpdateItemDTO item : items) {
+                String error = validateBulkUpdate(item);
+                if (error == null && occurrences.get(item.getProductId()) > 1) {
+                    error = "product is listed more than once";
+                }
+                if (error != null) {
+                    response.getRejected().add(new ProductBulkUpdateErrorDTO(item.getProductId(), error));
+                } else {
+                    valid.put(item.getProductId(), item);
+                }
+            }
+
+            Set<Long> owned = valid.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(productRepo.findIdsOwnedByVendor(vendorId, valid.keySet()));
+            valid.keySet().removeIf(productId -> {
+                if (owned.contains(productId)) {
+                    return false;
+                }
+                response.getRejected().add(new ProductBulkUpdateErrorDTO(productId, "product not found for this vendor"));
+                return true;
+            });
+
+            if (!valid.isEmpty()) {
+                // TreeMap keeps ids ascending, so concurrent bulk updates take row locks in the same order
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> batch = valid.values().stream()
+                        .map(item -> new Object[]{item.getPrice(), item.getStock(), item.getDiscount(), now,
+                                item.getProductId(), vendorId})
+                        .toList();
+                int[] counts = jdbcTemplate.batchUpdate(BULK_UPDATE_SQL, batch);
+
+                // A row deleted (or moved to another vendor) since the ownership check matches nothing
+                List<Long> updatedIds = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    Long productId = (Long) batch.get(i)[4];
+                    if (counts[i] == 0) {
+                        response.getRejected().add(new ProductBulkUpdateErrorDTO(productId, "product not found for this vendor"));
+                    } else {
+                        updatedIds.add(productId);
+                    }
+                }
+                if (!updatedIds.isEmpty()) {
+                    productChangeBus.publish(ProductChangeType.PRICE_STOCK, updatedIds);
+                }
+                response.setUpdatedProductIds(updatedIds);
+                response.setUpdated(updatedIds.size());
+            }
+            return response;
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Bulk update products", ex.getMessage());
+        }
+    }
+
+    private static String validateBulkUpdate(ProductBulkUpdateItemDTO item) {
+        if (item.getProductId() == null) {
+            return "productId is required";
+        }
+        if (item.getPrice() == null && item.getStock() == null && item.getDiscount() == null) {
+            return "nothing to update, give price, stock or discount";
+        }
+        if (item.getPrice() != null && item.getPrice().signum() <= 0) {
+            return "price must be greater than 0";
+        }
+        if (item.getStock() != null && item.getStock() < 0) {
+            return "stock must be 0 or more";
+        }
+        if (item.getDiscount() != null && (item.getDiscount() < 0 || item.getDiscount() > 100)) {
+            return "discount must be between 0 and 100";
+        }
+        return null;
+    }
+
     public List<ProductResponseDTO> getProductsByVendor(Long vendorId) {
         try {
             List<Product> vendorProducts = productRepo.findByVendorId(vendorId);
@@ -206,6 +379,8 @@ public class ProductService {
             if (!existing.getVendor().getId().equals(vendorId)) {
                 throw new UnauthorizedAccessException("update this product");
             }
+            // Published before the edit so the listings the product leaves are dropped as well
+            productChangeBus.publishWithPlacement(ProductChangeType.UPDATED, existing);
 
             Category category = categoryRepo.findById(dto.getCategoryId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category", "id", dto.getCategoryId()));
@@ -231,20 +406,11 @@ public class ProductService {
                 existing.setSubCategory(null);
             }
 
-            // Update specifications
-            specificationRepo.deleteByProductId(id);
-            existing.getSpecifications().clear();
-            if (dto.getSpecifications() != null && !dto.getSpecifications().isEmpty()) {
-                for (ProductSpecificationDTO specDTO : dto.getSpecifications()) {
-                    ProductSpecification specification = new ProductSpecification();
-                    specification.setKey(specDTO.getKey());
-                    specification.setValue(specDTO.getValue());
-                    specification.setDisplayOrder(specDTO.getDisplayOrder() != null ? specDTO.getDisplayOrder() : 0);
-                    specification.setProduct(existing);
-                    existing.getSpecifications().add(specification);
-                }
-            }
+            // Update specifications: only the rows that actually changed are written
+            reconcileSpecifications(id, dto.getSpecifications());
 
+            // Specification-only edits leave the row clean; bump it so the product's ETag changes
+            existing.setUpdatedAt(LocalDateTime.now());
             Product updated = productRepo.save(existing);
             return toDto(updated);
         } catch (Exception ex) {
@@ -262,6 +428,7 @@ public class ProductService {
                 throw new UnauthorizedAccessException("delete this product");
             }
 
+            productChangeBus.publishWithPlacement(ProductChangeType.DELETED, product);
             productRepo.delete(product);
         } catch (Exception ex) {
             throw new OperationFailedException("Delete product", ex.getMessage());
@@ -272,18 +439,77 @@ public class ProductService {
 
     public ProductResponseDTO getProductById(Long id) {
         try {
-            Product product = productRepo.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+            // ACTIVE products come from the catalog snapshot; anything else (or a product it has not seen yet)
+            // is read from the database
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            CatalogRow row = catalog != null ? catalog.get(id) : null;
+            ProductResponseDTO dto;
+            if (row != null) {
+                dto = catalogSnapshotService.toDto(catalog, row);
+            } else {
+                dto = toDto(productRepo.findWithDetailsById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id)));
+            }
 
-            // Increment view count
-            productRepo.incrementViewCount(id);
+            // Buffered in memory and flushed in batches, keeps the UPDATE off the read path
+            productViewCounter.recordView(id);
 
-            return toDto(product);
+            return dto;
         } catch (Exception ex) {
             throw new OperationFailedException("Get product by ID", ex.getMessage());
         }
     }
 
+    // Multi-get for carts, wishlists and recently-viewed widgets: one IN query, no view counting
+    public ProductBatchResponseDTO getProductsByIds(List<Long> ids) {
+        try {
+            if (ids == null || ids.isEmpty()) {
+                throw new BadRequestException("No product ids given");
+            }
+            Set<Long> requested = new LinkedHashSet<>();
+            for (Long id : ids) {
+                if (id != null) {
+                    requested.add(id);
+                }
+            }
+            if (requested.size() > MAX_BATCH_IDS) {
+                throw new BadRequestException("At most " + MAX_BATCH_IDS + " product ids can be fetched at once");
+            }
+
+            List<ProductResponseDTO> found = productsInOrder(new ArrayList<>(requested));
+            Set<Long> foundIds = found.stream().map(ProductResponseDTO::getId).collect(Collectors.toSet());
+            ProductBatchResponseDTO response = new ProductBatchResponseDTO();
+            response.getProducts().addAll(found);
+            requested.stream().filter(id -> !foundIds.contains(id)).forEach(response.getMissingIds()::add);
+            return response;
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Get products by ids", ex.getMessage());
+        }
+    }
+
+    // Version-only lookup for conditional GETs; empty when the product does not exist. The validators describe
+    // the body getProductById sends: the snapshot's copy while it holds the product, the database row otherwise
+    public Optional<ResourceVersion> getProductVersion(Long id) {
+        try {
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            CatalogRow row = catalog != null ? catalog.get(id) : null;
+            if (row != null) {
+                return Optional.of(catalogSnapshotService.toVersion(catalog, row));
+            }
+            List<Object[]> stamps = productRepo.findVersionStamps(id);
+            return stamps.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.of("product", id, stamps.get(0)));
+        } catch (Exception ex) {
+            throw new OperationFailedException("Get product version", ex.getMessage());
+        }
+    }
+
+    // A 304 revalidation is still a product page view
+    public void recordProductView(Long id) {
+        productViewCounter.recordView(id);
+    }
+
     public List<ProductResponseDTO> getAllProducts() {
         try {
             List<Product> products = productRepo.findAll();
@@ -304,6 +530,24 @@ public class ProductService {
         }
     }
 
+    // Keyset pagination: newest first, constant cost per slice regardless of depth
+    public CursorPageResponseDTO<ProductResponseDTO> getAllProducts(String cursor, int size) {
+        try {
+            List<Product> rows;
+            if (cursor == null || cursor.isBlank()) {
+                rows = productRepo.findAllByOrderByCreatedAtDescIdDesc(KeysetCursor.limit(size));
+            } else {
+                KeysetCursor position = KeysetCursor.decode(cursor);
+                rows = productRepo.findPageAfter(position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+            }
+            return KeysetCursor.toSlice(rows, size, this::toDto);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve all products by cursor", ex.getMessage());
+        }
+    }
+
     // ==================== CATEGORY & STATUS ENDPOINTS ====================
 
     public List<ProductResponseDTO> getProductsByCategory(Long categoryId) {
@@ -350,111 +594,370 @@ public class ProductService {
 
     public List<ProductResponseDTO> searchProducts(String keyword) {
         try {
-            List<Product> products = productRepo.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrBrandContainingIgnoreCase(
-                    keyword, keyword, keyword
-            );
-            return products.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            // Ranked by the in-memory index; the database is only used to load the top hits
+            return productsInOrder(productSearchService.search(keyword, MAX_SEARCH_RESULTS).productIds());
         } catch (Exception ex) {
             throw new OperationFailedException("Search products", ex.getMessage());
         }
     }
 
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        try {
+            return productSuggestService.suggest(prefix, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Suggest products", ex.getMessage());
+        }
+    }
+
     public Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable) {
         try {
-            Page<Product> products = productRepo.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrBrandContainingIgnoreCase(
-                    keyword, keyword, keyword, pageable
-            );
-            return products.map(this::toDto);
+            ProductSearchIndex.Hits hits = productSearchService.search(keyword, searchLimit(pageable));
+            List<Long> rankedIds = hits.productIds();
+            int start = (int) Math.min(pageable.getOffset(), rankedIds.size());
+
+            List<ProductResponseDTO> dtos = productsInOrder(rankedIds.subList(start, rankedIds.size()));
+            return new org.springframework.data.domain.PageImpl<>(dtos, pageable, hits.totalMatches());
         } catch (Exception ex) {
             throw new OperationFailedException("Search products paginated", ex.getMessage());
         }
     }
 
-    public List<ProductResponseDTO> filterProducts(Long categoryId, Long subCategoryId,
-                                                   Double minPrice, Double maxPrice, String brand) {
+    // Ranks only as many hits as the requested page reaches
+    private static int searchLimit(Pageable pageable) {
+        return (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+    }
+
+    // Products by id in the caller's ordering: from the catalog snapshot, the rest with one IN query
+    private List<ProductResponseDTO> productsInOrder(List<Long> ids) {
+        return inOrder(ids, catalogSnapshotService::toDto, ProductResponseDTO::getId,
+                missing -> findAllInOrder(missing).stream().map(this::toDto).collect(Collectors.toList()));
+    }
+
+    /**
+     * Maps the ids the catalog snapshot holds straight from memory and reads only the others (inactive,
+     * deleted, or changed too recently to be applied yet) through {@code fromDatabase}. Keeps the ids' order
+     * and drops ids found nowhere.
+     */
+    private <T> List<T> inOrder(List<Long> ids, BiFunction<CatalogSnapshot, CatalogRow, T> fromSnapshot,
+                                Function<T, Long> idOf, Function<List<Long>, List<T>> fromDatabase) {
+        CatalogSnapshot catalog = catalogSnapshotService.current();
+        if (catalog == null) {
+            return ids.isEmpty() ? new ArrayList<>() : fromDatabase.apply(ids);
+        }
+        Map<Long, T> byId = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            CatalogRow row = catalog.get(id);
+            if (row != null) {
+                byId.put(id, fromSnapshot.apply(catalog, row));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            fromDatabase.apply(missing).forEach(item -> byId.put(idOf.apply(item), item));
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Loads products by id with one IN query (to-one associations joined) and keeps the caller's ordering
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> byId = productRepo.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductResponseDTO> filterProducts(ProductFilterRequestDTO filter) {
         try {
-            List<Product> products = productRepo.findByFilters(
-                    categoryId, subCategoryId, minPrice, maxPrice, brand, ProductStatus.ACTIVE
+            // Bounded: the un-paginated endpoint returns at most MAX_FILTER_RESULTS rows, newest first
+            List<Product> products = productRepo.findBy(
+                    toFilterSpecification(filter, ProductStatus.ACTIVE),
+                    query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                            .limit(MAX_FILTER_RESULTS)
+                            .all()
             );
             return products.stream()
                     .map(this::toDto)
                     .collect(Collectors.toList());
+        } catch (BadRequestException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new OperationFailedException("Filter products", ex.getMessage());
         }
     }
 
-    public Page<ProductResponseDTO> filterProducts(Long categoryId, Long subCategoryId,
-                                                   Double minPrice, Double maxPrice, String brand,
-                                                   ProductStatus status, Pageable pageable) {
+    public Page<ProductResponseDTO> filterProducts(ProductFilterRequestDTO filter, Pageable pageable) {
         try {
-            // For paginated filtering, we need to implement a custom method or use specification
-            // For now, let's get all and paginate manually (not efficient for large datasets)
-            List<Product> products = productRepo.findByFilters(
-                    categoryId, subCategoryId, minPrice, maxPrice, brand, status
-            );
+            // Predicates, sorting and LIMIT/OFFSET all run in the database
+            Page<Product> products = productRepo.findAll(toFilterSpecification(filter, ProductStatus.ACTIVE), pageable);
+            return products.map(this::toDto);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Filter products paginated", ex.getMessage());
+        }
+    }
 
-            // Manual pagination (consider implementing proper JPA Specification for better performance)
-            int start = (int) pageable.getOffset();
-            int end = Math.min((start + pageable.getPageSize()), products.size());
-            List<Product> paginatedProducts = products.subList(start, end);
+    // A vendor's own listing: the only filter that honours the requested status (ACTIVE when not given)
+    public Page<ProductResponseDTO> filterVendorProducts(Long vendorId, ProductFilterRequestDTO filter,
+                                                         Pageable pageable) {
+        try {
+            ProductStatus status = filter.getStatus() != null ? filter.getStatus() : ProductStatus.ACTIVE;
+            Specification<Product> specification = toFilterSpecification(filter, status)
+                    .and(ProductFilterSpecifications.hasVendor(vendorId));
+            return productRepo.findAll(specification, pageable).map(this::toDto);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Filter vendor products paginated", ex.getMessage());
+        }
+    }
 
-            List<ProductResponseDTO> dtos = paginatedProducts.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+    // Spec attributes are resolved through the in-memory attribute index when possible; large match sets
+    // (or non-ACTIVE listings, which the index does not hold) fall back to EXISTS subqueries in SQL
+    private Specification<Product> toFilterSpecification(ProductFilterRequestDTO filter, ProductStatus status) {
+        Map<String, List<String>> specAttributes = ProductFilterSpecifications.parseSpecAttributes(filter.getSpec());
+        if (specAttributes.isEmpty() || status != ProductStatus.ACTIVE) {
+            return ProductFilterSpecifications.fromFilter(filter, status);
+        }
 
-            return new org.springframework.data.domain.PageImpl<>(
-                    dtos, pageable, products.size()
-            );
+        Optional<long[]> matches = productFacetService.findProductIdsBySpecs(specAttributes);
+        if (matches.isEmpty() || matches.get().length > MAX_SPEC_MATCH_IDS) {
+            return ProductFilterSpecifications.fromFilter(filter, status);
+        }
+        List<Long> ids = Arrays.stream(matches.get()).boxed().collect(Collectors.toList());
+        return ProductFilterSpecifications.fromFilter(filter, status, ids);
+    }
+
+    public ProductFacetResponseDTO getFacets(ProductFilterRequestDTO filter) {
+        try {
+            return productFacetService.getFacets(filter);
+        } catch (BadRequestException ex) {
+            throw ex;
         } catch (Exception ex) {
-            throw new OperationFailedException("Filter products paginated", ex.getMessage());
+            throw new OperationFailedException("Get product facets", ex.getMessage());
         }
     }
 
     // ==================== FEATURED PRODUCTS ENDPOINTS ====================
 
+    // Rails are top-N reads on the product_scores read model (see ProductScoreService), served through a
+    // stale-while-revalidate cache: one loader per rail and limit bucket, stale lists served while it reloads
     public List<ProductResponseDTO> getTrendingProducts(int limit) {
+        return getRail(productRailCache, "trending", limit, productScoreRepo::findTrendingProductIds,
+                this::loadRailProducts, this::getFallbackProducts);
+    }
+
+    public List<ProductResponseDTO> getBestSellingProducts(int limit) {
+        return getRail(productRailCache, "best-sellers", limit, productScoreRepo::findBestSellingProductIds,
+                this::loadRailProducts, this::getFallbackProducts);
+    }
+
+    public List<ProductResponseDTO> getFeaturedProducts(int limit) {
+        return getRail(productRailCache, "featured", limit, productScoreRepo::findFeaturedProductIds,
+                this::loadRailProducts, this::getFallbackProducts);
+    }
+
+    public List<ProductCardDTO> getTrendingProductCards(int limit) {
+        return getRail(productRailCardCache, "trending", limit, productScoreRepo::findTrendingProductIds,
+                this::findCardsInOrder, this::getFallbackCards);
+    }
+
+    public List<ProductCardDTO> getBestSellingProductCards(int limit) {
+        return getRail(productRailCardCache, "best-sellers", limit, productScoreRepo::findBestSellingProductIds,
+                this::findCardsInOrder, this::getFallbackCards);
+    }
+
+    public List<ProductCardDTO> getFeaturedProductCards(int limit) {
+        return getRail(productRailCardCache, "featured", limit, productScoreRepo::findFeaturedProductIds,
+                this::findCardsInOrder, this::getFallbackCards);
+    }
+
+    private <T> List<T> getRail(StaleWhileRevalidateCache<String, List<T>> cache, String rail, int limit,
+                                Function<Pageable, List<Long>> topIds, Function<List<Long>, List<T>> load,
+                                IntFunction<List<T>> fallback) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (!productScoreService.isReady()) {
+            return fallback.apply(limit);
+        }
         try {
-            List<Product> products = productRepo.findTrendingProducts(limit);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            int bucket = railLimitBucket(limit);
+            // Reloads may run on a cache thread, outside the request's persistence context
+            List<T> products = cache.get(rail + ":" + bucket, () ->
+                    transactionTemplate.execute(status -> List.copyOf(load.apply(topIds.apply(PageRequest.of(0, bucket))))));
+            return new ArrayList<>(products.subList(0, Math.min(limit, products.size())));
         } catch (Exception ex) {
             // Fallback to active products
-            return getFallbackProducts(limit);
+            return fallback.apply(limit);
         }
     }
 
-    public List<ProductResponseDTO> getBestSellingProducts(int limit) {
+    private List<ProductResponseDTO> loadRailProducts(List<Long> ids) {
+        return productsInOrder(ids);
+    }
+
+    // Few cache keys regardless of the requested limit: 10, 20, 50, then MAX_RAIL_SIZE
+    private static int railLimitBucket(int limit) {
+        for (int bucket : RAIL_LIMIT_BUCKETS) {
+            if (limit <= bucket) {
+                return bucket;
+            }
+        }
+        return MAX_RAIL_SIZE;
+    }
+
+    private List<ProductResponseDTO> getFallbackProducts(int limit) {
         try {
-            Pageable pageable = org.springframework.data.domain.PageRequest.of(0, limit);
-            List<Product> products = productRepo.findBestSellingProducts(pageable);
+            Pageable pageable = PageRequest.of(0, limit);
+            List<Product> products = productRepo.findByStatus(ProductStatus.ACTIVE, pageable).getContent();
             return products.stream().map(this::toDto).collect(Collectors.toList());
         } catch (Exception ex) {
-            return getFallbackProducts(limit);
+            return new ArrayList<>();
         }
     }
 
-    public List<ProductResponseDTO> getFeaturedProducts(int limit) {
+    private List<ProductCardDTO> getFallbackCards(int limit) {
         try {
-            Pageable pageable = org.springframework.data.domain.PageRequest.of(0, limit);
-            List<Product> products = productRepo.findFeaturedProducts(pageable);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return productRepo.findCardsByStatus(ProductStatus.ACTIVE, PageRequest.of(0, limit)).getContent();
         } catch (Exception ex) {
-            return getFallbackProducts(limit);
+            return new ArrayList<>();
         }
     }
 
-    private List<ProductResponseDTO> getFallbackProducts(int limit) {
+    // ==================== PRODUCT CARDS (view=card) ====================
+
+    public List<ProductCardDTO> getProductCardsByCategory(Long categoryId) {
         try {
-            Pageable pageable = PageRequest.of(0, limit);
-            List<Product> products = productRepo.findByStatus(ProductStatus.ACTIVE, pageable).getContent();
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return productRepo.findCardsByCategoryId(categoryId);
         } catch (Exception ex) {
-            return new ArrayList<>();
+            throw new OperationFailedException("Retrieve category product cards", ex.getMessage());
+        }
+    }
+
+    public List<ProductCardDTO> getProductCardsByVendor(Long vendorId) {
+        try {
+            return productRepo.findCardsByVendorId(vendorId);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve vendor product cards", ex.getMessage());
         }
     }
 
+    public Page<ProductCardDTO> getProductCardsByVendor(Long vendorId, Pageable pageable) {
+        try {
+            return productRepo.findCardsByVendorId(vendorId, pageable);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve vendor product cards", ex.getMessage());
+        }
+    }
+
+    public List<ProductCardDTO> searchProductCards(String keyword) {
+        try {
+            return findCardsInOrder(productSearchService.search(keyword, MAX_SEARCH_RESULTS).productIds());
+        } catch (Exception ex) {
+            throw new OperationFailedException("Search product cards", ex.getMessage());
+        }
+    }
+
+    public Page<ProductCardDTO> searchProductCards(String keyword, Pageable pageable) {
+        try {
+            ProductSearchIndex.Hits hits = productSearchService.search(keyword, searchLimit(pageable));
+            List<Long> rankedIds = hits.productIds();
+            int start = (int) Math.min(pageable.getOffset(), rankedIds.size());
+            return new PageImpl<>(findCardsInOrder(rankedIds.subList(start, rankedIds.size())), pageable,
+                    hits.totalMatches());
+        } catch (Exception ex) {
+            throw new OperationFailedException("Search product cards paginated", ex.getMessage());
+        }
+    }
+
+    private List<ProductCardDTO> findCardsInOrder(List<Long> ids) {
+        return inOrder(ids, catalogSnapshotService::toCard, ProductCardDTO::getId,
+                missing -> cardsInOrder(missing, productRepo.findCardsByIdIn(missing)));
+    }
+
+    private static List<ProductCardDTO> cardsInOrder(List<Long> ids, List<ProductCardDTO> cards) {
+        Map<Long, ProductCardDTO> byId = cards.stream()
+                .collect(Collectors.toMap(ProductCardDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // ==================== RECOMMENDATIONS ====================
+
+    // Neighbour ids come from memory (ProductCoPurchaseService, ProductSimilarityService). Every stored
+    // neighbour is requested so the limit can still be met after inactive or deleted products are dropped.
+
+    public List<ProductResponseDTO> getBoughtTogetherProducts(Long productId, int limit) {
+        try {
+            List<Long> ids = productCoPurchaseService.getBoughtTogetherIds(productId,
+                    productCoPurchaseService.getMaxNeighbours());
+            return activeProductsInOrder(ids, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve bought-together products", ex.getMessage());
+        }
+    }
+
+    public List<ProductCardDTO> getBoughtTogetherProductCards(Long productId, int limit) {
+        try {
+            List<Long> ids = productCoPurchaseService.getBoughtTogetherIds(productId,
+                    productCoPurchaseService.getMaxNeighbours());
+            return activeCardsInOrder(ids, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve bought-together product cards", ex.getMessage());
+        }
+    }
+
+    public List<ProductResponseDTO> getSimilarProducts(Long productId, int limit) {
+        try {
+            List<Long> ids = productSimilarityService.getSimilarIds(productId,
+                    productSimilarityService.getMaxNeighbours());
+            return activeProductsInOrder(ids, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve similar products", ex.getMessage());
+        }
+    }
+
+    public List<ProductCardDTO> getSimilarProductCards(Long productId, int limit) {
+        try {
+            List<Long> ids = productSimilarityService.getSimilarIds(productId,
+                    productSimilarityService.getMaxNeighbours());
+            return activeCardsInOrder(ids, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve similar product cards", ex.getMessage());
+        }
+    }
+
+    // The snapshot only holds ACTIVE products, so the status filter applies to the database reads alone
+    private List<ProductResponseDTO> activeProductsInOrder(List<Long> ids, int limit) {
+        return inOrder(ids, catalogSnapshotService::toDto, ProductResponseDTO::getId,
+                missing -> findAllInOrder(missing).stream()
+                        .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+                        .map(this::toDto)
+                        .collect(Collectors.toList())).stream()
+                .limit(Math.max(limit, 0))
+                .collect(Collectors.toList());
+    }
+
+    private List<ProductCardDTO> activeCardsInOrder(List<Long> ids, int limit) {
+        return inOrder(ids, catalogSnapshotService::toCard, ProductCardDTO::getId,
+                missing -> cardsInOrder(missing, productRepo.findCardsByIdInAndStatus(missing, ProductStatus.ACTIVE))).stream()
+                .limit(Math.max(limit, 0))
+                .collect(Collectors.toList());
+    }
+
     // ==================== ADMIN ENDPOINTS ====================
 
     @Transactional
@@ -465,6 +968,7 @@ public class ProductService {
 
             product.setStatus(newStatus);
             Product updated = productRepo.save(product);
+            productChangeBus.publish(ProductChangeType.STATUS, id);
             return toDto(updated);
         } catch (Exception ex) {
             throw new OperationFailedException("Change product status", ex.getMessage());
@@ -479,17 +983,54 @@ public class ProductService {
                 throw new ResourceNotFoundException("SubCategory", "id", subCategoryId);
             }
 
-            List<Product> allProducts = productRepo.findAll();
-            return allProducts.stream()
-                    .filter(product -> product.getSubCategory() != null &&
-                            product.getSubCategory().getId().equals(subCategoryId))
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return cachedListing(subCategoryGroup(subCategoryId), "list", () ->
+                    productRepo.findBySubCategoryIdAndStatus(subCategoryId, ProductStatus.ACTIVE).stream()
+                            .map(this::toDto)
+                            .collect(Collectors.toList()));
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve sub-category products", ex.getMessage());
         }
     }
 
+    public Page<ProductResponseDTO> getProductsBySubCategory(Long subCategoryId, Pageable pageable) {
+        try {
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            if (catalog != null && isListingSort(pageable.getSort())) {
+                return snapshotPage(catalog, CatalogSnapshot.Listing.SUB_CATEGORY, subCategoryId, pageable);
+            }
+            return cachedListing(subCategoryGroup(subCategoryId), pageKey(pageable), () ->
+                    productRepo.findBySubCategoryIdAndStatus(subCategoryId, ProductStatus.ACTIVE, pageable)
+                            .map(this::toDto));
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve sub-category products paginated", ex.getMessage());
+        }
+    }
+
+    public CursorPageResponseDTO<ProductResponseDTO> getProductsBySubCategory(Long subCategoryId, String cursor, int size) {
+        try {
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            if (catalog != null) {
+                return snapshotSlice(catalog, CatalogSnapshot.Listing.SUB_CATEGORY, subCategoryId, cursor, size);
+            }
+            return cachedListing(subCategoryGroup(subCategoryId), cursorKey(cursor, size), () -> {
+                List<Product> rows;
+                if (cursor == null || cursor.isBlank()) {
+                    rows = productRepo.findBySubCategoryIdAndStatusOrderByCreatedAtDescIdDesc(
+                            subCategoryId, ProductStatus.ACTIVE, KeysetCursor.limit(size));
+                } else {
+                    KeysetCursor position = KeysetCursor.decode(cursor);
+                    rows = productRepo.findBySubCategoryPageAfter(subCategoryId, ProductStatus.ACTIVE,
+                            position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+                }
+                return KeysetCursor.toSlice(rows, size, this::toDto);
+            });
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Retrieve sub-category products by cursor", ex.getMessage());
+        }
+    }
+
     public Long getTotalProductCount() {
         try {
             return productRepo.count();
@@ -508,23 +1049,197 @@ public class ProductService {
 
     public List<ProductResponseDTO> getFeaturedProductsByCategory(Long categoryId) {
         try {
-            List<Product> products = productRepo.findByIsFeaturedTrueAndStatus(ProductStatus.ACTIVE);
-            return products.stream()
-                    .filter(product -> product.getCategory() != null &&
-                            product.getCategory().getId().equals(categoryId))
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            if (catalog != null) {
+                return catalog.page(CatalogSnapshot.Listing.FEATURED_IN_CATEGORY, categoryId, 0, Integer.MAX_VALUE).stream()
+                        .map(row -> catalogSnapshotService.toDto(catalog, row))
+                        .collect(Collectors.toList());
+            }
+            return cachedListing(categoryGroup(categoryId), "featured", () ->
+                    productRepo.findByCategoryIdAndIsFeaturedTrueAndStatus(categoryId, ProductStatus.ACTIVE).stream()
+                            .map(this::toDto)
+                            .collect(Collectors.toList()));
         } catch (Exception ex) {
             throw new OperationFailedException("Get featured products by category", ex.getMessage());
         }
     }
 
+    public Page<ProductResponseDTO> getFeaturedProductsByCategory(Long categoryId, Pageable pageable) {
+        try {
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            if (catalog != null && isListingSort(pageable.getSort())) {
+                return snapshotPage(catalog, CatalogSnapshot.Listing.FEATURED_IN_CATEGORY, categoryId, pageable);
+            }
+            return cachedListing(categoryGroup(categoryId), "featured:" + pageKey(pageable), () ->
+                    productRepo.findByCategoryIdAndIsFeaturedTrueAndStatus(categoryId, ProductStatus.ACTIVE, pageable)
+                            .map(this::toDto));
+        } catch (Exception ex) {
+            throw new OperationFailedException("Get featured products by category paginated", ex.getMessage());
+        }
+    }
+
+    public CursorPageResponseDTO<ProductResponseDTO> getFeaturedProductsByCategory(Long categoryId, String cursor, int size) {
+        try {
+            CatalogSnapshot catalog = catalogSnapshotService.current();
+            if (catalog != null) {
+                return snapshotSlice(catalog, CatalogSnapshot.Listing.FEATURED_IN_CATEGORY, categoryId, cursor, size);
+            }
+            return cachedListing(categoryGroup(categoryId), "featured:" + cursorKey(cursor, size), () -> {
+                List<Product> rows;
+                if (cursor == null || cursor.isBlank()) {
+                    rows = productRepo.findByCategoryIdAndIsFeaturedTrueAndStatusOrderByCreatedAtDescIdDesc(
+                            categoryId, ProductStatus.ACTIVE, KeysetCursor.limit(size));
+                } else {
+                    KeysetCursor position = KeysetCursor.decode(cursor);
+                    rows = productRepo.findFeaturedByCategoryPageAfter(categoryId, ProductStatus.ACTIVE,
+                            position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+                }
+                return KeysetCursor.toSlice(rows, size, this::toDto);
+            });
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Get featured products by category by cursor", ex.getMessage());
+        }
+    }
+
     @Transactional
     public void incrementSalesCount(Long productId, int quantity) {
         try {
             productRepo.incrementSalesCount(productId, quantity);
+            productChangeBus.publish(ProductChangeType.SALES, productId);
         } catch (Exception ex) {
             throw new OperationFailedException("Increment sales count", ex.getMessage());
         }
     }
+
+    // ==================== SNAPSHOT LISTINGS ====================
+
+    // Unsorted requests get the listing order too; the database gives them no defined order either
+    private static boolean isListingSort(Sort sort) {
+        return sort.isUnsorted() || sort.equals(LISTING_SORT);
+    }
+
+    private Page<ProductResponseDTO> snapshotPage(CatalogSnapshot catalog, CatalogSnapshot.Listing listing, long key,
+                                                  Pageable pageable) {
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        List<ProductResponseDTO> content = catalog.page(listing, key, offset, pageable.getPageSize()).stream()
+                .map(row -> catalogSnapshotService.toDto(catalog, row))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, catalog.count(listing, key));
+    }
+
+    private CursorPageResponseDTO<ProductResponseDTO> snapshotSlice(CatalogSnapshot catalog,
+                                                                    CatalogSnapshot.Listing listing, long key,
+                                                                    String cursor, int size) {
+        int limit = KeysetCursor.limit(size).getPageSize();
+        List<CatalogRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = catalog.page(listing, key, 0, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = catalog.after(listing, key, position.getCreatedAt(), position.getId(), limit);
+        }
+        return KeysetCursor.toSlice(rows, size, row -> new KeysetCursor(row.createdAt(), row.id()),
+                row -> catalogSnapshotService.toDto(catalog, row));
+    }
+
+    // ==================== SPECIFICATIONS ====================
+
+    /**
+     * Brings the product's specification rows in line with the requested list, matched by key
+     * (repeated keys pair up in order): changed values are updated, new keys inserted and missing
+     * ones deleted, each as one JDBC batch. Nothing is written when the list is unchanged.
+     *
+     * The current rows are read with plain JDBC and the product's specification collection is left
+     * uninitialised, so it loads the reconciled rows the first time it is accessed.
+     */
+    private void reconcileSpecifications(Long productId, List<ProductSpecificationDTO> requested) {
+        Map<String, ArrayDeque<Object[]>> currentByKey = new HashMap<>();
+        jdbcTemplate.query(SELECT_SPECIFICATIONS_SQL, rs -> {
+            currentByKey.computeIfAbsent(rs.getString("spec_key"), key -> new ArrayDeque<>())
+                    .add(new Object[]{rs.getLong("id"), rs.getString("spec_value"), rs.getInt("display_order")});
+        }, productId);
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        if (requested != null) {
+            for (ProductSpecificationDTO spec : requested) {
+                int displayOrder = spec.getDisplayOrder() != null ? spec.getDisplayOrder() : 0;
+                ArrayDeque<Object[]> candidates = currentByKey.get(spec.getKey());
+                Object[] current = candidates != null ? candidates.poll() : null;
+                if (current == null) {
+                    inserts.add(new Object[]{spec.getKey(), spec.getValue(), displayOrder, productId});
+                } else if (!Objects.equals(current[1], spec.getValue()) || (int) current[2] != displayOrder) {
+                    updates.add(new Object[]{spec.getValue(), displayOrder, current[0]});
+                }
+            }
+        }
+        currentByKey.values().forEach(leftovers -> leftovers.forEach(row -> deletes.add(new Object[]{row[0]})));
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SPECIFICATION_SQL, deletes);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SPECIFICATION_SQL, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SPECIFICATION_SQL, inserts);
+        }
+    }
+
+    // ==================== LISTING CACHE ====================
+
+    private static String categoryGroup(Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    private static String subCategoryGroup(Long subCategoryId) {
+        return "subCategory:" + subCategoryId;
+    }
+
+    private static String pageKey(Pageable pageable) {
+        return "page:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+
+    private static String cursorKey(String cursor, int size) {
+        return "cursor:" + (cursor == null ? "" : cursor) + ":" + size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cachedListing(String group, String key, Supplier<T> loader) {
+        return (T) productListingCache.get(group, key, loader::get);
+    }
+
+    // Cache groups holding listings the product appears in
+    private static Set<String> listingGroups(Product product) {
+        Set<String> groups = new HashSet<>();
+        if (product.getCategory() != null) {
+            groups.add(categoryGroup(product.getCategory().getId()));
+        }
+        if (product.getSubCategory() != null) {
+            groups.add(subCategoryGroup(product.getSubCategory().getId()));
+        }
+        return groups;
+    }
+
+    /**
+     * Drops the cached listings of every changed product: those of its current placement, re-read here,
+     * and those it had before an edit moved it or a delete removed it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void onProductsChanged(List<ProductChange> changes) {
+        Set<String> groups = new HashSet<>();
+        for (ProductChange change : changes) {
+            change.getPreviousCategoryIds().forEach(categoryId -> groups.add(categoryGroup(categoryId)));
+            change.getPreviousSubCategoryIds().forEach(subCategoryId -> groups.add(subCategoryGroup(subCategoryId)));
+        }
+        List<Long> ids = changes.stream().map(ProductChange::getProductId).collect(Collectors.toList());
+        for (Product product : productRepo.findByIdIn(ids)) {
+            groups.addAll(listingGroups(product));
+        }
+        groups.forEach(productListingCache::invalidateGroup);
+    }
 }
@@ -0,0 +1,343 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Recommend.CosineTopK;
+import com.My.E_CommerceApp.Recommend.NeighbourTable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Content-based "similar products".
+ *
+ * A periodic rebuild turns every active product into a sparse feature vector: sub-category,
+ * brand, price band (with half weight on the neighbouring bands) and normalised specification
+ * key/value pairs, each weighted by its inverse document frequency within the category and
+ * L2-normalised. Top-k cosine neighbours are computed per category with {@link CosineTopK} on a
+ * fork/join pool; only in-stock products are offered as neighbours, so out-of-stock products
+ * still get alternatives.
+ *
+ * Results are persisted to product_similarities (loaded at startup) and served from an in-memory
+ * {@link NeighbourTable} that is swapped in once a rebuild completes.
+ */
+@Slf4j
+@Service
+public class ProductSimilarityService {
+
+    private static final int MAX_TOP_K = 64;             // fits the 1024-byte neighbours column
+    private static final int NEIGHBOUR_BYTES = Long.BYTES + Float.BYTES;
+    private static final int BATCH_SIZE = 500;
+
+    private static final float SUB_CATEGORY_WEIGHT = 2.0f;
+    private static final float BRAND_WEIGHT = 1.5f;
+    private static final float PRICE_BAND_WEIGHT = 1.0f;
+    private static final float ADJACENT_PRICE_BAND_WEIGHT = 0.5f;
+    private static final float SPECIFICATION_WEIGHT = 1.0f;
+    private static final double PRICE_BAND_RATIO = 1.5;     // each band spans prices up to 1.5x its floor
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NUMBER_UNIT_GAP = Pattern.compile("(\\d) (?=\\p{L})");
+
+    private static final String PRODUCTS_SQL = """
+        SELECT id, sub_category_id, brand, price, stock
+        FROM products
+        WHERE category_id = ? AND status = 'ACTIVE'
+        ORDER BY id
+        """;
+
+    private static final String SPECIFICATIONS_SQL = """
+        SELECT s.product_id, s.spec_key, s.spec_value
+        FROM product_specifications s
+        JOIN products p ON p.id = s.product_id
+        WHERE p.category_id = ? AND p.status = 'ACTIVE'
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO product_similarities (product_id, neighbours, refreshed_at)
+        VALUES (?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            neighbours = VALUES(neighbours),
+            refreshed_at = VALUES(refreshed_at)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final float minSimilarity;
+    private final ForkJoinPool pool;
+    private final ThreadPoolTaskExecutor rebuildRunner;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile NeighbourTable neighbours = NeighbourTable.EMPTY;
+    private volatile boolean rebuilt;
+
+    public ProductSimilarityService(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.similar-products.top-k:20}") int topK,
+                                    @Value("${app.similar-products.min-similarity:0.2}") float minSimilarity,
+                                    @Value("${app.similar-products.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topK = Math.max(1, Math.min(topK, MAX_TOP_K));
+        this.minSimilarity = minSimilarity;
+        // Private pool, so a rebuild never competes with parallel streams on the common pool
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        // Private single-thread runner (not a bean): a rebuild runs for minutes and must not hold the shared scheduler
+        this.rebuildRunner = new ThreadPoolTaskExecutor();
+        rebuildRunner.setCorePoolSize(1);
+        rebuildRunner.setMaxPoolSize(1);
+        rebuildRunner.setThreadNamePrefix("similar-products-rebuild-");
+        rebuildRunner.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.shutdown();
+        pool.shutdown();
+    }
+
+    // ==================== READ PATH ====================
+
+    /** Ids of the products most similar to the product, best first (at most top-k). */
+    public List<Long> getSimilarIds(Long productId, int limit) {
+        long[] ids = neighbours.get(productId, limit);
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    public int getMaxNeighbours() {
+        return topK;
+    }
+
+    // Serves the last persisted result until the first rebuild replaces it
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPersisted() {
+        try {
+            NeighbourTable.Builder builder = new NeighbourTable.Builder();
+            jdbcTemplate.query("SELECT product_id, neighbours FROM product_similarities", rs -> {
+                builder.put(rs.getLong("product_id"), decodeIds(rs.getBytes("neighbours")));
+            });
+            NeighbourTable loaded = builder.build();
+            if (!rebuilt) {
+                neighbours = loaded;
+            }
+            log.info("Loaded similar products for {} products", loaded.size());
+        } catch (Exception ex) {
+            log.warn("Could not load persisted similar products: {}", ex.getMessage());
+        }
+    }
+
+    // ==================== REBUILD ====================
+
+    // Hands the run to the runner thread; a tick that finds one queued or running is skipped
+    @Scheduled(initialDelayString = "${app.similar-products.initial-delay-ms:60000}",
+            fixedDelayString = "${app.similar-products.rebuild-interval-ms:21600000}")
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildRunner.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            Timestamp refreshedAt = Timestamp.valueOf(LocalDateTime.now());
+            NeighbourTable.Builder builder = new NeighbourTable.Builder();
+
+            // One category at a time bounds memory to the largest category
+            List<Long> categoryIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT category_id FROM products WHERE status = 'ACTIVE' AND category_id IS NOT NULL",
+                    Long.class);
+            int products = 0;
+            for (Long categoryId : categoryIds) {
+                products += rebuildCategory(categoryId, refreshedAt, builder);
+            }
+            jdbcTemplate.update("DELETE FROM product_similarities WHERE refreshed_at < ?", refreshedAt);
+
+            NeighbourTable table = builder.build();
+            neighbours = table;
+            rebuilt = true;
+            log.info("Similar products rebuilt for {} products in {} categories ({} with neighbours) in {} ms",
+                    products, categoryIds.size(), table.size(), System.currentTimeMillis() - started);
+        } catch (Exception ex) {
+            log.warn("Similar products rebuild failed, will retry: {}", ex.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int rebuildCategory(long categoryId, Timestamp refreshedAt, NeighbourTable.Builder builder) {
+        // Product features as strings first; ids are interned per category
+        List<Long> productIds = new ArrayList<>();
+        List<Map<String, Float>> rawFeatures = new ArrayList<>();
+        List<Boolean> inStock = new ArrayList<>();
+        Map<Long, Integer> indexById = new HashMap<>();
+        jdbcTemplate.query(PRODUCTS_SQL, rs -> {
+            Map<String, Float> features = new HashMap<>();
+            long subCategoryId = rs.getLong("sub_category_id");
+            if (!rs.wasNull()) {
+                features.put("sc:" + subCategoryId, SUB_CATEGORY_WEIGHT);
+            }
+            String brand = normalize(rs.getString("brand"));
+            if (!brand.isEmpty()) {
+                features.put("b:" + brand, BRAND_WEIGHT);
+            }
+            BigDecimal price = rs.getBigDecimal("price");
+            if (price != null && price.signum() > 0) {
+                int band = (int) Math.floor(Math.log(price.doubleValue()) / Math.log(PRICE_BAND_RATIO));
+                features.put("p:" + band, PRICE_BAND_WEIGHT);
+                features.put("p:" + (band - 1), ADJACENT_PRICE_BAND_WEIGHT);
+                features.put("p:" + (band + 1), ADJACENT_PRICE_BAND_WEIGHT);
+            }
+            indexById.put(rs.getLong("id"), productIds.size());
+            productIds.add(rs.getLong("id"));
+            rawFeatures.add(features);
+            inStock.add(rs.getInt("stock") > 0);
+        }, categoryId);
+        if (productIds.size() < 2) {
+            return productIds.size();
+        }
+
+        jdbcTemplate.query(SPECIFICATIONS_SQL, rs -> {
+            Integer index = indexById.get(rs.getLong("product_id"));
+            String key = normalize(rs.getString("spec_key"));
+            String value = normalize(rs.getString("spec_value"));
+            if (index != null && !key.isEmpty() && !value.isEmpty()) {
+                rawFeatures.get(index).put("s:" + key + "=" + value, SPECIFICATION_WEIGHT);
+            }
+        }, categoryId);
+
+        // Intern features and count how many products carry each one
+        int n = productIds.size();
+        Map<String, Integer> featureIds = new HashMap<>();
+        List<Integer> documentFrequency = new ArrayList<>();
+        for (Map<String, Float> features : rawFeatures) {
+            for (String feature : features.keySet()) {
+                Integer id = featureIds.get(feature);
+                if (id == null) {
+                    featureIds.put(feature, documentFrequency.size());
+                    documentFrequency.add(1);
+                } else {
+                    documentFrequency.set(id, documentFrequency.get(id) + 1);
+                }
+            }
+        }
+
+        // Sparse vectors: ascending feature ids, idf-scaled weights, unit length
+        int[][] vectorFeatures = new int[n][];
+        float[][] vectorWeights = new float[n][];
+        boolean[] candidate = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Map<String, Float> features = rawFeatures.get(i);
+            long[] packed = new long[features.size()];
+            int e = 0;
+            for (Map.Entry<String, Float> feature : features.entrySet()) {
+                int id = featureIds.get(feature.getKey());
+                float weight = (float) (feature.getValue() * Math.log(1.0 + (double) n / documentFrequency.get(id)));
+                packed[e++] = ((long) id << 32) | (Float.floatToRawIntBits(weight) & 0xffffffffL);
+            }
+            Arrays.sort(packed);
+
+            vectorFeatures[i] = new int[packed.length];
+            vectorWeights[i] = new float[packed.length];
+            double norm = 0;
+            for (e = 0; e < packed.length; e++) {
+                vectorFeatures[i][e] = (int) (packed[e] >>> 32);
+                vectorWeights[i][e] = Float.intBitsToFloat((int) packed[e]);
+                norm += vectorWeights[i][e] * vectorWeights[i][e];
+            }
+            float length = (float) Math.sqrt(norm);
+            for (e = 0; e < packed.length && length > 0; e++) {
+                vectorWeights[i][e] /= length;
+            }
+            candidate[i] = inStock.get(i);
+            rawFeatures.set(i, null);
+        }
+
+        CosineTopK.Result result = CosineTopK.compute(vectorFeatures, vectorWeights, candidate,
+                documentFrequency.size(), topK, minSimilarity, pool);
+
+        List<Object[]> upserts = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < n; i++) {
+            int[] neighbourIndexes = result.neighbours()[i];
+            if (neighbourIndexes.length == 0) {
+                continue;
+            }
+            long[] neighbourIds = new long[neighbourIndexes.length];
+            for (int j = 0; j < neighbourIndexes.length; j++) {
+                neighbourIds[j] = productIds.get(neighbourIndexes[j]);
+            }
+            builder.put(productIds.get(i), neighbourIds);
+            upserts.add(new Object[]{productIds.get(i), encode(neighbourIds, result.similarities()[i]), refreshedAt});
+            if (upserts.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+                upserts.clear();
+            }
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        }
+        return n;
+    }
+
+    // Lower-case, single spaces, and "16 GB" == "16gb"
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String collapsed = WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return NUMBER_UNIT_GAP.matcher(collapsed).replaceAll("$1");
+    }
+
+    // ==================== ENCODING ====================
+
+    private static byte[] encode(long[] neighbourIds, float[] similarities) {
+        ByteBuffer buffer = ByteBuffer.allocate(neighbourIds.length * NEIGHBOUR_BYTES);
+        for (int i = 0; i < neighbourIds.length; i++) {
+            buffer.putLong(neighbourIds[i]);
+            buffer.putFloat(similarities[i]);
+        }
+        return buffer.array();
+    }
+
+    private static long[] decodeIds(byte[] packed) {
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        long[] ids = new long[packed.length / NEIGHBOUR_BYTES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getLong();
+            buffer.getFloat();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,156 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.DTO.ResponseDTO.SuggestionDTO;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Event.ProductChange;
+import com.My.E_CommerceApp.Event.ProductChangeListener;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Search.SuggestionTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the typeahead trie in step with the catalog. Committed product changes arrive from ProductChangeBus;
+ * a periodic pass re-weights every active product so popularity (sales, views) and renamed
+ * categories catch up without rebuilding the trie.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSuggestService implements ProductChangeListener {
+
+    private static final int REINDEX_BATCH_SIZE = 500;
+    private static final Set<ProductChangeType> RELEVANT_CHANGES = EnumSet.of(
+            ProductChangeType.CREATED, ProductChangeType.UPDATED, ProductChangeType.DELETED, ProductChangeType.STATUS,
+            ProductChangeType.SALES);
+
+    private final ProductRepo productRepo;
+    private final SuggestionTrie suggestionTrie = new SuggestionTrie();
+    // Products changed while a full pass runs (null otherwise); re-applied once the pass is done
+    private volatile Set<Long> changedDuringReindex;
+
+    // ==================== INDEX MAINTENANCE ====================
+
+    // Neither pass is one transaction: each batch is read on its own, so the persistence context never
+    // holds the catalog
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long started = System.currentTimeMillis();
+        int indexed = reindexActiveProducts();
+        log.info("Suggestion trie built from {} products ({} phrases) in {} ms",
+                indexed, suggestionTrie.size(), System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(initialDelayString = "${app.suggest.refresh-interval-ms:3600000}",
+            fixedDelayString = "${app.suggest.refresh-interval-ms:3600000}")
+    public void refreshWeights() {
+        try {
+            reindexActiveProducts();
+        } catch (Exception ex) {
+            log.warn("Suggestion weight refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the changed products and re-indexes them; products that are no longer ACTIVE (or gone) are
+     * dropped. Only changes that can touch a phrase or its weight are handled.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void onProductsChanged(List<ProductChange> changes) {
+        List<Long> ids = changes.stream()
+                .filter(change -> change.isAny(RELEVANT_CHANGES))
+                .map(ProductChange::getProductId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // A full pass may index a copy of these products read before the change committed
+        Set<Long> changed = changedDuringReindex;
+        if (changed != null) {
+            changed.addAll(ids);
+        }
+        reindex(ids);
+    }
+
+    private void reindex(List<Long> ids) {
+        Set<Long> indexedIds = new HashSet<>();
+        for (Product product : productRepo.findByIdIn(ids)) {
+            if (product.getStatus() == ProductStatus.ACTIVE) {
+                index(product);
+                indexedIds.add(product.getId());
+            }
+        }
+        ids.stream().filter(id -> !indexedIds.contains(id)).forEach(suggestionTrie::remove);
+    }
+
+    // ==================== QUERY ====================
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return suggestionTrie.suggest(prefix, Math.min(limit, SuggestionTrie.TOP_K)).stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.text(), suggestion.type().name()))
+                .collect(Collectors.toList());
+    }
+
+    // ==================== HELPERS ====================
+
+    private synchronized int reindexActiveProducts() {
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringReindex = changed;
+        int indexed = 0;
+        try {
+            long lastId = 0;
+            List<Product> batch;
+            do {
+                batch = productRepo.findByStatusAndIdGreaterThanOrderByIdAsc(ProductStatus.ACTIVE, lastId,
+                        PageRequest.of(0, REINDEX_BATCH_SIZE));
+                for (Product product : batch) {
+                    index(product);
+                    lastId = product.getId();
+                    indexed++;
+                }
+            } while (batch.size() == REINDEX_BATCH_SIZE);
+        } finally {
+            changedDuringReindex = null;
+        }
+        if (!changed.isEmpty()) {
+            reindex(new ArrayList<>(changed));
+        }
+        return indexed;
+    }
+
+    private void index(Product product) {
+        suggestionTrie.index(
+                product.getId(),
+                product.getName(),
+                product.getBrand(),
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.getSubCategory() != null ? product.getSubCategory().getName() : null,
+                popularity(product)
+        );
+    }
+
+    // Log-damped so one blockbuster does not drown out every other completion of its prefix
+    private static double popularity(Product product) {
+        int sales = product.getSalesCount() != null ? product.getSalesCount() : 0;
+        int views = product.getViewCount() != null ? product.getViewCount() : 0;
+        return 1.0 + 2.0 * Math.log1p(sales) + Math.log1p(views);
+    }
+}
@@ -0,0 +1,178 @@
+package com.My.E_CommerceApp.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind aggregation of product page views.
+ *
+ * Views are counted in memory (one LongAdder per product) and applied to the database by a
+ * scheduled flush as a single JDBC batch, instead of a row-locking UPDATE on every product GET.
+ * At most {@code flush-interval-ms} worth of views, capped at {@code max-pending} views,
+ * can be lost if the process crashes. Reaching {@code max-pending} wakes a private flusher
+ * thread, so a request never runs the flush itself. Counters of products that got no views
+ * for a whole interval are dropped, so the map only holds recently viewed products.
+ */
+@Slf4j
+@Service
+public class ProductViewCounter {
+
+    private static final String FLUSH_SQL =
+            "UPDATE products SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductScoreService productScoreService;
+    private final long maxPendingViews;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final AtomicLong pendingTotal = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ThreadPoolTaskExecutor flusher;
+    private volatile long lastFlushAt = System.currentTimeMillis();
+    private volatile long lastFlushDurationMs;
+
+    public ProductViewCounter(JdbcTemplate jdbcTemplate,
+                              ProductScoreService productScoreService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.product-views.max-pending:10000}") long maxPendingViews) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productScoreService = productScoreService;
+        this.maxPendingViews = maxPendingViews;
+
+        // Private single-thread flusher (not a bean) for early flushes under bursts
+        this.flusher = new ThreadPoolTaskExecutor();
+        flusher.setCorePoolSize(1);
+        flusher.setMaxPoolSize(1);
+        flusher.setThreadNamePrefix("product-view-flush-");
+        flusher.initialize();
+
+        Gauge.builder("products.views.pending", pendingTotal, AtomicLong::get)
+                .description("Product views counted in memory but not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("products.views.pending.products", pendingViews, Map::size)
+                .description("Products with a tracked view counter")
+                .register(meterRegistry);
+        Gauge.builder("products.views.flush.lag", this, counter -> System.currentTimeMillis() - counter.lastFlushAt)
+                .description("Milliseconds since the last successful view-count flush")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("products.views.flush.duration", this, counter -> counter.lastFlushDurationMs)
+                .description("Duration of the last view-count flush")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long productId) {
+        add(productId, 1);
+
+        // Bound the crash-loss window under bursts; whoever crosses the limit wakes the flusher and moves on
+        if (pendingTotal.incrementAndGet() >= maxPendingViews && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    try {
+                        flush();
+                    } finally {
+                        flushRequested.set(false);
+                    }
+                });
+            } catch (TaskRejectedException ex) {
+                // Shutting down: the final flush picks the views up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.product-views.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushInternal();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Adds views to the product's counter. The flusher may drop the counter concurrently (it was idle);
+     * if it did, whatever the flusher had not collected yet is moved to a fresh counter. Both sides take
+     * from the dropped counter with sumThenReset, so every view is collected exactly once.
+     */
+    private void add(Long productId, long views) {
+        while (views > 0) {
+            LongAdder adder = pendingViews.computeIfAbsent(productId, id -> new LongAdder());
+            adder.add(views);
+            if (pendingViews.get(productId) == adder) {
+                return;
+            }
+            views = adder.sumThenReset();
+        }
+    }
+
+    private void flushInternal() {
+        long started = System.currentTimeMillis();
+        List<Object[]> batch = new ArrayList<>();
+        long drained = 0;
+
+        // Ascending id order keeps row-lock acquisition consistent across instances
+        for (Long productId : new TreeSet<>(pendingViews.keySet())) {
+            LongAdder adder = pendingViews.get(productId);
+            if (adder == null) {
+                continue;
+            }
+            long views = adder.sumThenReset();
+            if (views > 0) {
+                batch.add(new Object[]{views, productId});
+                drained += views;
+            } else if (pendingViews.remove(productId, adder)) {
+                // Idle for a whole interval: drop the counter, keeping views that raced the removal
+                add(productId, adder.sumThenReset());
+            }
+        }
+
+        if (batch.isEmpty()) {
+            lastFlushAt = started;
+            return;
+        }
+        pendingTotal.addAndGet(-drained);
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            productScoreService.markDirty(batch.stream().map(row -> (Long) row[1]).toList());
+            lastFlushAt = System.currentTimeMillis();
+            lastFlushDurationMs = lastFlushAt - started;
+        } catch (Exception ex) {
+            // Put the deltas back so the next flush retries them
+            for (Object[] row : batch) {
+                long views = (Long) row[0];
+                add((Long) row[1], views);
+                pendingTotal.addAndGet(views);
+            }
+            log.warn("Failed to flush {} product view deltas, will retry: {}", batch.size(), ex.getMessage());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.My.E_CommerceApp.DTO.ResponseDTO.ReviewResponseDTO;
 import com.My.E_CommerceApp.Entity.Product;
 import com.My.E_CommerceApp.Entity.Review;
 import com.My.E_CommerceApp.Entity.User;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
 import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
 import com.My.E_CommerceApp.Exception.CustomException.ValidationException;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +28,7 @@ public class ReviewService {
     private final ReviewRepo reviewRepo;
     private final UserRepo userRepo;
     private final ProductRepo productRepo;
+    private final ProductChangeBus productChangeBus;
 
     // ✅ Create Review with validation
     @Transactional
@@ -216,9 +219,11 @@ public class ReviewService {
             Product product = productRepo.findById(productId)
                     .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
-            // If your Product entity has an averageRating field, update it here
-            // product.setAverageRating(averageRating);
-            // productRepo.save(product);
+            if (!Objects.equals(product.getRating(), averageRating)) {
+                product.setRating(averageRating);
+                productRepo.save(product);
+                productChangeBus.publish(ProductChangeType.RATING, productId);
+            }
         } catch (Exception ex) {
             // Log error but don't throw - this is a background update
             System.err.println("Failed to update product average rating: " + ex.getMessage());
@@ -8,12 +8,14 @@ import com.My.E_CommerceApp.Exception.CustomException.AlreadyExistsException;
 import com.My.E_CommerceApp.Exception.CustomException.OperationFailedException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
 import com.My.E_CommerceApp.Repository.CategoryRepo;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Repository.SubCategoryRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -86,6 +88,16 @@ public class SubCategoryService {
         return toDto(subCategory);
     }
 
+    // ✅ Version stamps for conditional GETs (no entity load)
+    public Optional<ResourceVersion> getSubCategoryVersion(Long id) {
+        List<Object[]> stamps = subCategoryRepo.findVersionStamps(id);
+        return stamps.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.of("subCategory", id, stamps.get(0)));
+    }
+
+    public ResourceVersion getAllSubCategoriesVersion() {
+        return ResourceVersion.of("subCategories", "all", subCategoryRepo.findListVersionStamps().get(0));
+    }
+
     // ✅ Get SubCategories By Category ID
     public List<SubCategoryResponseDTO> getSubCategoriesByCategory(Long categoryId) {
         // Verify category exists
@@ -4,12 +4,14 @@ package com.My.E_CommerceApp.Service;
 import com.My.E_CommerceApp.DTO.RequestDTO.UserRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.UserUpdateRequestDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.AddressResponseDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.UserResponseDTO;
 import com.My.E_CommerceApp.Entity.User;
 import com.My.E_CommerceApp.Enum.Role;
 import com.My.E_CommerceApp.Exception.CustomException.AlreadyExistsException;
 import com.My.E_CommerceApp.Exception.CustomException.BusinessValidationException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
+import com.My.E_CommerceApp.Repository.KeysetCursor;
 import com.My.E_CommerceApp.Repository.UserRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -74,6 +76,18 @@ public class UserService {
                 .map(this::mapToUserResponseDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<UserResponseDTO> getAllUsers(String cursor, int size) {
+        List<User> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userRepo.findAllByOrderByCreatedAtDescIdDesc(KeysetCursor.limit(size));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = userRepo.findPageAfter(position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+        }
+        return KeysetCursor.toSlice(rows, size, this::mapToUserResponseDTO);
+    }
+
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getUsersByRole(Role role) {
         System.out.println("Fetching users by role: " + role);
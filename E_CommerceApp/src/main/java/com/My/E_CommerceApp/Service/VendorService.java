@@ -3,15 +3,20 @@ package com.My.E_CommerceApp.Service;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorCreateRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorRequestDTO;
 import com.My.E_CommerceApp.DTO.RequestDTO.VendorUpdateRequestDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.CursorPageResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.UserBasicResponseDTO;
 import com.My.E_CommerceApp.DTO.ResponseDTO.VendorResponseDTO;
 import com.My.E_CommerceApp.Entity.User;
 import com.My.E_CommerceApp.Entity.Vendor;
+import com.My.E_CommerceApp.Enum.ProductChangeType;
 import com.My.E_CommerceApp.Enum.Role;
 import com.My.E_CommerceApp.Enum.VendorStatus;
 import com.My.E_CommerceApp.Exception.CustomException.AlreadyExistsException;
 import com.My.E_CommerceApp.Exception.CustomException.BusinessValidationException;
 import com.My.E_CommerceApp.Exception.CustomException.ResourceNotFoundException;
+import com.My.E_CommerceApp.Repository.KeysetCursor;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Repository.ResourceVersion;
 import com.My.E_CommerceApp.Repository.UserRepo;
 import com.My.E_CommerceApp.Repository.VendorRepo;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +28,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +39,8 @@ public class VendorService {
     private final VendorRepo vendorRepo;
     private final UserRepo userRepo;
     private final UserService userService;
+    private final ProductRepo productRepo;
+    private final ProductChangeBus productChangeBus;
 
     // 🔹 VENDOR REGISTRATION OPERATIONS
     public VendorResponseDTO createVendorWithNewUser(VendorCreateRequestDTO vendorCreateRequestDTO) {
@@ -81,6 +89,12 @@ public class VendorService {
         return mapToVendorResponseDTO(vendor);
     }
 
+    // Version stamps for conditional GETs (no entity load)
+    public Optional<ResourceVersion> getVendorVersion(Long vendorId) {
+        List<Object[]> stamps = vendorRepo.findVersionStamps(vendorId);
+        return stamps.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.of("vendor", vendorId, stamps.get(0)));
+    }
+
     @Transactional(readOnly = true)
     public VendorResponseDTO getVendorByUserId(Long userId) {
         System.out.println("Fetching vendor by user ID: " + userId);
@@ -112,6 +126,18 @@ public class VendorService {
                 .map(this::mapToVendorResponseDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<VendorResponseDTO> getAllVendors(String cursor, int size) {
+        List<Vendor> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = vendorRepo.findAllByOrderByCreatedAtDescIdDesc(KeysetCursor.limit(size));
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = vendorRepo.findPageAfter(position.getCreatedAt(), position.getId(), KeysetCursor.limit(size));
+        }
+        return KeysetCursor.toSlice(rows, size, this::mapToVendorResponseDTO);
+    }
+
     // 🔹 VENDOR STATUS MANAGEMENT
     public VendorResponseDTO updateVendorStatus(Long vendorId, VendorStatus newStatus) {
         System.out.println("Updating vendor status for ID: " + vendorId + " to " + newStatus);
@@ -123,6 +149,7 @@ public class VendorService {
 
         vendor.setVendorStatus(newStatus);
         Vendor updatedVendor = vendorRepo.save(vendor);
+        productChangeBus.publish(ProductChangeType.VENDOR, productRepo.findIdsByVendorId(vendorId));
 
         System.out.println("Vendor status updated from " + vendor.getVendorStatus() + " to " + newStatus);
         return mapToVendorResponseDTO(updatedVendor);
@@ -152,6 +179,7 @@ public class VendorService {
 
         updateVendorEntity(vendor, updateRequestDTO);
         Vendor updatedVendor = vendorRepo.save(vendor);
+        productChangeBus.publish(ProductChangeType.VENDOR, productRepo.findIdsByVendorId(vendorId));
 
         System.out.println("Vendor profile updated successfully for ID: " + vendorId);
         return mapToVendorResponseDTO(updatedVendor);
@@ -0,0 +1,56 @@
+package com.My.E_CommerceApp.config;
+
+import com.My.E_CommerceApp.Cache.GroupedCache;
+import com.My.E_CommerceApp.Cache.StaleWhileRevalidateCache;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductCardDTO;
+import com.My.E_CommerceApp.DTO.ResponseDTO.ProductResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class CacheConfig {
+
+    // Trending / best-seller / featured rails, keyed by "<rail>:<limit bucket>"
+    @Bean
+    public StaleWhileRevalidateCache<String, List<ProductResponseDTO>> productRailCache(
+            @Value("${app.product-rails.cache.ttl-ms:30000}") long ttlMillis,
+            @Value("${app.product-rails.cache.max-stale-ms:600000}") long maxStaleMillis) {
+        return new StaleWhileRevalidateCache<>(ttlMillis, maxStaleMillis, refreshExecutor("rail-cache-refresh-"));
+    }
+
+    // Same rails as card projections (view=card)
+    @Bean
+    public StaleWhileRevalidateCache<String, List<ProductCardDTO>> productRailCardCache(
+            @Value("${app.product-rails.cache.ttl-ms:30000}") long ttlMillis,
+            @Value("${app.product-rails.cache.max-stale-ms:600000}") long maxStaleMillis) {
+        return new StaleWhileRevalidateCache<>(ttlMillis, maxStaleMillis, refreshExecutor("rail-card-cache-refresh-"));
+    }
+
+    // Sub-category and featured-by-category listings, grouped by "category:<id>" / "subCategory:<id>"
+    // so a product change drops every cached page of the listings it touches
+    @Bean
+    public GroupedCache<String, String, Object> productListingCache(
+            @Value("${app.product-listings.cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${app.product-listings.cache.max-keys-per-group:256}") int maxKeysPerGroup) {
+        return new GroupedCache<>(ttlMillis, maxKeysPerGroup);
+    }
+
+    // Background reloads for stale entries. Kept private to the cache (not a bean, so Spring's own
+    // task executor is untouched); small and bounded, refreshes beyond the queue are simply skipped.
+    private static ThreadPoolTaskExecutor refreshExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(16);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
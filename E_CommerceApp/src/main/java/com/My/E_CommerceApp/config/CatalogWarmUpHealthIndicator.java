@@ -0,0 +1,41 @@
+package com.My.E_CommerceApp.config;
+
+import com.My.E_CommerceApp.Enum.WarmUpStatus;
+import com.My.E_CommerceApp.Service.CatalogWarmUpService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// "catalogWarmUp" in the readiness group: OUT_OF_SERVICE until the startup warm-up ends, then its coverage
+@Component
+@RequiredArgsConstructor
+public class CatalogWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CatalogWarmUpService warmUpService;
+
+    @Override
+    public Health health() {
+        WarmUpStatus status = warmUpService.getStatus();
+        Health.Builder builder = status == WarmUpStatus.PENDING || status == WarmUpStatus.RUNNING
+                ? Health.outOfService()
+                : Health.up();
+        builder.withDetail("status", status);
+        if (status == WarmUpStatus.COMPLETED || status == WarmUpStatus.TIMED_OUT) {
+            builder.withDetail("durationMs", warmUpService.getDurationMs());
+            for (CatalogWarmUpService.StepReport step : warmUpService.getSteps()) {
+                Map<String, Object> coverage = new LinkedHashMap<>();
+                coverage.put("planned", step.planned());
+                coverage.put("done", step.done());
+                coverage.put("failed", step.failed());
+                coverage.put("durationMs", step.durationMs());
+                coverage.put("finished", step.finished());
+                builder.withDetail(step.name(), coverage);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.My.E_CommerceApp.Cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GroupedCacheTest {
+
+    private static final long LONG_TTL_MS = 60_000;
+
+    @Test
+    void servesCachedValuesUntilTheGroupIsInvalidated() {
+        GroupedCache<String, String, Integer> cache = new GroupedCache<>(LONG_TTL_MS, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, cache.get("category:1", "page0", loads::incrementAndGet));
+        assertEquals(1, cache.get("category:1", "page0", loads::incrementAndGet));
+        assertEquals(2, cache.get("category:2", "page0", loads::incrementAndGet));
+
+        cache.invalidateGroup("category:1");
+        assertEquals(3, cache.get("category:1", "page0", loads::incrementAndGet));
+        assertEquals(2, cache.get("category:2", "page0", loads::incrementAndGet));
+
+        cache.invalidateAll();
+        assertEquals(4, cache.get("category:2", "page0", loads::incrementAndGet));
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotKept() {
+        GroupedCache<String, String, Integer> cache = new GroupedCache<>(LONG_TTL_MS, 10);
+
+        int stale = cache.get("category:1", "page0", () -> {
+            cache.invalidateGroup("category:1");
+            return 1;
+        });
+
+        assertEquals(1, stale);
+        assertEquals(2, cache.get("category:1", "page0", () -> 2));
+    }
+
+    @Test
+    void fullGroupEvictsItsOldestEntryForANewKey() {
+        GroupedCache<String, String, Integer> cache = new GroupedCache<>(LONG_TTL_MS, 3);
+        for (int i = 0; i < 3; i++) {
+            int value = i;
+            cache.get("g", "k" + i, () -> value);
+        }
+
+        cache.get("g", "k3", () -> 3);
+
+        assertEquals(-1, cache.get("g", "k0", () -> -1));
+        assertEquals(3, cache.get("g", "k3", () -> -1));
+    }
+
+    @Test
+    void fullGroupDropsExpiredEntriesToMakeRoom() throws InterruptedException {
+        GroupedCache<String, String, Integer> cache = new GroupedCache<>(20, 2);
+        cache.get("g", "a", () -> 1);
+        cache.get("g", "b", () -> 2);
+        Thread.sleep(40);
+
+        // Unique keys keep getting cached once the old ones have expired
+        for (int i = 0; i < 10; i++) {
+            int value = 100 + i;
+            cache.get("g", "cursor" + i, () -> value);
+            assertEquals(value, cache.get("g", "cursor" + i, () -> -1));
+        }
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        GroupedCache<String, String, Integer> cache = new GroupedCache<>(20, 10);
+        cache.get("g", "k", () -> 1);
+        Thread.sleep(40);
+
+        assertEquals(2, cache.get("g", "k", () -> 2));
+        assertEquals(2, cache.get("g", "k", () -> 3));
+    }
+}
@@ -0,0 +1,172 @@
+package com.My.E_CommerceApp.Catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static com.My.E_CommerceApp.Catalog.CatalogSnapshot.Listing.FEATURED_IN_CATEGORY;
+import static com.My.E_CommerceApp.Catalog.CatalogSnapshot.Listing.SUB_CATEGORY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotFileTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    private static CatalogRow fullRow(long id) {
+        return new CatalogRow(id, "Téléphone « " + id + " »", "Écran 6,1″ – 128 GB 📱", new BigDecimal("199.990"),
+                12, 15.5, "Müller", 4.25, true, 1, 10, 100, "uploads/" + id + "/main.jpg",
+                T0, T0.plusDays(id),
+                List.of(new CatalogRow.Image(id * 10, "main.jpg", "uploads/" + id + "/main.jpg", "jpg", 2048L,
+                                "Vorderseite", 0, true, "image/jpeg"),
+                        new CatalogRow.Image(id * 10 + 1, "back.jpg", "uploads/" + id + "/back.jpg", "jpg", 1024L,
+                                "背面", 1, false, "image/jpeg")),
+                List.of(new CatalogRow.Spec("Farbe", "Schwarz", 1), new CatalogRow.Spec("容量", "128 GB", 2)));
+    }
+
+    // Every nullable column left empty
+    private static CatalogRow sparseRow(long id) {
+        return new CatalogRow(id, "Bare " + id, null, null, 0, null, null, null, false, 2, CatalogRow.NONE,
+                100, null, null, null,
+                List.of(new CatalogRow.Image(id * 10, null, null, null, null, null, null, null, null)),
+                List.of(new CatalogRow.Spec("Key", null, null)));
+    }
+
+    private static CatalogSnapshot snapshot(List<CatalogRow> rows) {
+        return CatalogSnapshot.EMPTY.withChanges(rows, List.of(),
+                Map.of(1L, "Téléphones", 2L, "Zubehör"), Map.of(10L, "スマートフォン"), Map.of(100L, "Ünïcode Shop"));
+    }
+
+    @Test
+    void roundTripsEveryColumnIncludingNullsAndNonAsciiText() throws IOException {
+        List<CatalogRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            rows.add(id % 3 == 0 ? sparseRow(id) : fullRow(id));
+        }
+        CatalogSnapshot original = snapshot(rows).withChanges(List.of(), List.of(4L, 5L), Map.of(), Map.of(), Map.of());
+        Path path = directory.resolve("catalog.snapshot");
+
+        LocalDateTime watermark = CatalogSnapshotFile.write(original, path);
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+        CatalogSnapshot loaded = contents.snapshot();
+
+        assertEquals(T0.plusDays(2_500), watermark);
+        assertEquals(watermark, contents.watermark());
+        assertEquals(original.rows(), loaded.rows());
+        assertEquals(0, loaded.deadSlots());
+        assertEquals(original.categoryNames(), loaded.categoryNames());
+        assertEquals(original.subCategoryNames(), loaded.subCategoryNames());
+        assertEquals(original.vendorNames(), loaded.vendorNames());
+        assertEquals(original.page(SUB_CATEGORY, 10, 0, 5_000), loaded.page(SUB_CATEGORY, 10, 0, 5_000));
+        assertEquals(original.page(FEATURED_IN_CATEGORY, 1, 0, 5_000), loaded.page(FEATURED_IN_CATEGORY, 1, 0, 5_000));
+
+        CatalogRow sparse = loaded.get(3);
+        assertNull(sparse.description());
+        assertNull(sparse.price());
+        assertNull(sparse.discount());
+        assertNull(sparse.rating());
+        assertNull(sparse.brand());
+        assertNull(sparse.createdAt());
+        assertNull(loaded.subCategoryName(sparse.subCategoryId()));
+        assertEquals(sparseRow(3).images(), sparse.images());
+        assertEquals(sparseRow(3).specifications(), sparse.specifications());
+    }
+
+    @Test
+    void repeatedStringsLoadAsOneInstance() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(1), fullRow(2))), path);
+
+        CatalogSnapshot loaded = CatalogSnapshotFile.read(path).snapshot();
+
+        assertSame(loaded.get(1).specifications().get(0).key(), loaded.get(2).specifications().get(0).key());
+        assertSame(loaded.get(1).images().get(0).mimeType(), loaded.get(2).images().get(0).mimeType());
+    }
+
+    @Test
+    void emptySnapshotHasNoWatermark() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+
+        assertNull(CatalogSnapshotFile.write(CatalogSnapshot.EMPTY, path));
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+
+        assertEquals(0, contents.snapshot().size());
+        assertNull(contents.watermark());
+    }
+
+    @Test
+    void rejectsAFlippedByte() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(1), sparseRow(3))), path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+
+        IOException ex = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+        assertTrue(ex.getMessage().contains("checksum"), ex.getMessage());
+    }
+
+    @Test
+    void rejectsAnotherFormatVersion() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(1))), path);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        bytes.putInt(Integer.BYTES, 99);
+        Files.write(path, withChecksum(bytes.array()));
+
+        IOException ex = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+        assertTrue(ex.getMessage().contains("version 99"), ex.getMessage());
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(1))), path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        // Cut off, but with a checksum that matches what is left
+        Files.write(path, withChecksum(Arrays.copyOf(bytes, bytes.length / 2)));
+        IOException ex = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+        assertTrue(ex.getMessage().contains("truncated"), ex.getMessage());
+
+        Files.write(path, new byte[3]);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+    }
+
+    @Test
+    void replacesAnExistingFile() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(1), fullRow(2))), path);
+        CatalogSnapshotFile.write(snapshot(List.of(fullRow(7))), path);
+
+        CatalogSnapshot loaded = CatalogSnapshotFile.read(path).snapshot();
+
+        assertEquals(1, loaded.size());
+        assertEquals(fullRow(7), loaded.get(7));
+    }
+
+    // Replaces the trailing CRC32 with one over the (modified) content before it
+    private static byte[] withChecksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        ByteBuffer.wrap(bytes).putLong(bytes.length - Long.BYTES, crc.getValue());
+        return bytes;
+    }
+}
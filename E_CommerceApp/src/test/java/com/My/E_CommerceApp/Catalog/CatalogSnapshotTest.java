@@ -0,0 +1,284 @@
+package com.My.E_CommerceApp.Catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.My.E_CommerceApp.Catalog.CatalogSnapshot.Listing.FEATURED_IN_CATEGORY;
+import static com.My.E_CommerceApp.Catalog.CatalogSnapshot.Listing.SUB_CATEGORY;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final Comparator<CatalogRow> LISTING_ORDER =
+            Comparator.comparing(CatalogRow::createdAt).thenComparing(CatalogRow::id).reversed();
+
+    private static CatalogRow row(long id, long categoryId, long subCategoryId, boolean featured, LocalDateTime createdAt) {
+        return new CatalogRow(id, "product " + id, null, BigDecimal.TEN, 5, null, "brand", 4.0, featured,
+                categoryId, subCategoryId, 1L, null, createdAt, createdAt, List.of(), List.of());
+    }
+
+    private static CatalogSnapshot upsert(CatalogSnapshot snapshot, CatalogRow... rows) {
+        return snapshot.withChanges(List.of(rows), List.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    private static CatalogSnapshot remove(CatalogSnapshot snapshot, Long... ids) {
+        return snapshot.withChanges(List.of(), List.of(ids), Map.of(), Map.of(), Map.of());
+    }
+
+    private static List<Long> ids(List<CatalogRow> rows) {
+        return rows.stream().map(CatalogRow::id).collect(Collectors.toList());
+    }
+
+    private static List<Long> listing(CatalogSnapshot snapshot, CatalogSnapshot.Listing listing, long key) {
+        return ids(snapshot.page(listing, key, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void listingsAreNewestFirstWithIdBreakingTies() {
+        CatalogSnapshot snapshot = upsert(CatalogSnapshot.EMPTY,
+                row(1, 1, 10, false, T0),
+                row(2, 1, 10, false, T0.plusMinutes(5)),
+                row(3, 1, 10, false, T0),
+                row(4, 1, 10, false, T0.minusMinutes(5)));
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), listing(snapshot, SUB_CATEGORY, 10));
+        assertEquals(4, snapshot.count(SUB_CATEGORY, 10));
+        assertEquals(List.of(3L, 1L), ids(snapshot.page(SUB_CATEGORY, 10, 1, 2)));
+        assertEquals(List.of(), ids(snapshot.page(SUB_CATEGORY, 10, 10, 2)));
+        assertEquals(List.of(), listing(snapshot, SUB_CATEGORY, 99));
+    }
+
+    @Test
+    void afterStartsStrictlyBehindTheKeysetPosition() {
+        CatalogSnapshot snapshot = upsert(CatalogSnapshot.EMPTY,
+                row(1, 1, 10, false, T0),
+                row(2, 1, 10, false, T0.plusMinutes(5)),
+                row(3, 1, 10, false, T0),
+                row(4, 1, 10, false, T0.minusMinutes(5)));
+
+        assertEquals(List.of(1L, 4L), ids(snapshot.after(SUB_CATEGORY, 10, T0, 3L, 10)));
+        assertEquals(List.of(3L), ids(snapshot.after(SUB_CATEGORY, 10, T0.plusMinutes(5), 2L, 1)));
+        assertEquals(List.of(), ids(snapshot.after(SUB_CATEGORY, 10, T0.minusMinutes(5), 4L, 10)));
+        // A position between rows (e.g. its row was deleted) continues with the next older one
+        assertEquals(List.of(1L, 4L), ids(snapshot.after(SUB_CATEGORY, 10, T0, 2L, 10)));
+        assertEquals(List.of(2L, 3L, 1L, 4L), ids(snapshot.after(SUB_CATEGORY, 10, null, null, 10)));
+    }
+
+    @Test
+    void movingSubCategoryUpdatesBothListings() {
+        CatalogSnapshot before = upsert(CatalogSnapshot.EMPTY,
+                row(1, 1, 10, false, T0),
+                row(2, 1, 10, false, T0.plusMinutes(1)),
+                row(3, 1, 20, false, T0.plusMinutes(2)));
+
+        CatalogSnapshot after = upsert(before, row(2, 1, 20, false, T0.plusMinutes(1)));
+
+        assertEquals(List.of(1L), listing(after, SUB_CATEGORY, 10));
+        assertEquals(List.of(3L, 2L), listing(after, SUB_CATEGORY, 20));
+        assertEquals(20L, after.get(2).subCategoryId());
+        // The old snapshot is untouched
+        assertEquals(List.of(2L, 1L), listing(before, SUB_CATEGORY, 10));
+        assertEquals(10L, before.get(2).subCategoryId());
+    }
+
+    @Test
+    void featuredToggleAddsAndDropsTheProductFromItsCategory() {
+        CatalogSnapshot snapshot = upsert(CatalogSnapshot.EMPTY,
+                row(1, 1, CatalogRow.NONE, true, T0),
+                row(2, 1, CatalogRow.NONE, false, T0.plusMinutes(1)));
+        assertEquals(List.of(1L), listing(snapshot, FEATURED_IN_CATEGORY, 1));
+
+        snapshot = upsert(snapshot, row(2, 1, CatalogRow.NONE, true, T0.plusMinutes(1)));
+        assertEquals(List.of(2L, 1L), listing(snapshot, FEATURED_IN_CATEGORY, 1));
+
+        snapshot = upsert(snapshot, row(1, 1, CatalogRow.NONE, false, T0));
+        assertEquals(List.of(2L), listing(snapshot, FEATURED_IN_CATEGORY, 1));
+
+        // No sub-category: the product is in no sub-category listing
+        assertEquals(List.of(), listing(snapshot, SUB_CATEGORY, CatalogRow.NONE));
+    }
+
+    @Test
+    void removeThenReinsertGetsAFreshSlot() {
+        CatalogSnapshot snapshot = upsert(CatalogSnapshot.EMPTY,
+                row(1, 1, 10, false, T0),
+                row(2, 1, 10, false, T0.plusMinutes(1)));
+
+        snapshot = remove(snapshot, 1L);
+        assertNull(snapshot.get(1));
+        assertEquals(1, snapshot.size());
+        assertEquals(1, snapshot.deadSlots());
+        assertEquals(List.of(2L), listing(snapshot, SUB_CATEGORY, 10));
+
+        snapshot = upsert(snapshot, row(1, 1, 10, false, T0.plusMinutes(2)));
+        assertEquals(2, snapshot.size());
+        assertEquals(1, snapshot.deadSlots());
+        assertEquals(List.of(1L, 2L), listing(snapshot, SUB_CATEGORY, 10));
+        assertArrayEquals(new long[]{1, 2}, snapshot.ids());
+    }
+
+    @Test
+    void removalWinsOverAnUpsertInTheSameChange() {
+        CatalogSnapshot snapshot = CatalogSnapshot.EMPTY.withChanges(
+                List.of(row(1, 1, 10, false, T0), row(2, 1, 10, false, T0)), List.of(2L),
+                Map.of(), Map.of(), Map.of());
+
+        assertArrayEquals(new long[]{1}, snapshot.ids());
+        assertEquals(List.of(1L), listing(snapshot, SUB_CATEGORY, 10));
+    }
+
+    @Test
+    void compactDropsDeadSlotsAndKeepsContent() {
+        List<CatalogRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            rows.add(row(id, 1 + id % 3, 10 + id % 4, id % 5 == 0, T0.plusSeconds(id % 100)));
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.EMPTY.withChanges(rows, List.of(),
+                Map.of(1L, "Phones"), Map.of(10L, "Android"), Map.of(1L, "Shop"));
+        List<Long> removed = new ArrayList<>();
+        for (long id = 2; id <= 3000; id += 2) {
+            removed.add(id);
+        }
+        snapshot = snapshot.withChanges(List.of(), removed, Map.of(), Map.of(), Map.of());
+        assertEquals(1500, snapshot.deadSlots());
+
+        CatalogSnapshot compacted = snapshot.compact();
+
+        assertEquals(0, compacted.deadSlots());
+        assertEquals(snapshot.rows(), compacted.rows());
+        assertEquals("Phones", compacted.categoryName(1));
+        assertEquals("Android", compacted.subCategoryName(10));
+        assertEquals("Shop", compacted.vendorName(1));
+        for (long key = 10; key < 14; key++) {
+            assertEquals(listing(snapshot, SUB_CATEGORY, key), listing(compacted, SUB_CATEGORY, key));
+        }
+        assertTrue(compacted.version() > snapshot.version());
+    }
+
+    @Test
+    void namesAreMergedAndReplaced() {
+        CatalogSnapshot snapshot = CatalogSnapshot.EMPTY.withChanges(List.of(), List.of(),
+                Map.of(1L, "Phones"), Map.of(), Map.of(7L, "Shop"));
+        snapshot = snapshot.withChanges(List.of(), List.of(), Map.of(2L, "Laptops"), Map.of(), Map.of());
+        assertEquals("Phones", snapshot.categoryName(1));
+        assertEquals("Laptops", snapshot.categoryName(2));
+
+        snapshot = snapshot.withNames(Map.of(2L, "Notebooks"), Map.of(), Map.of());
+        assertNull(snapshot.categoryName(1));
+        assertEquals("Notebooks", snapshot.categoryName(2));
+        assertNull(snapshot.vendorName(7));
+    }
+
+    @Test
+    void builderLaysOutTheSameSnapshotAsIncrementalChanges() {
+        List<CatalogRow> rows = new ArrayList<>();
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+        for (long id = 1; id <= 2500; id++) {
+            CatalogRow row = row(id, 1 + id % 3, id % 5, id % 4 == 0, T0.plusSeconds(id % 37));
+            rows.add(row);
+            builder.add(row);
+        }
+
+        CatalogSnapshot built = builder.build(Map.of(1L, "Phones"), Map.of(), Map.of());
+        CatalogSnapshot incremental = CatalogSnapshot.EMPTY.withChanges(rows, List.of(),
+                Map.of(1L, "Phones"), Map.of(), Map.of());
+
+        assertEquals(incremental.rows(), built.rows());
+        assertArrayEquals(incremental.ids(), built.ids());
+        assertEquals("Phones", built.categoryName(1));
+        for (long key = 0; key < 5; key++) {
+            assertEquals(listing(incremental, SUB_CATEGORY, key), listing(built, SUB_CATEGORY, key));
+            assertEquals(listing(incremental, FEATURED_IN_CATEGORY, key), listing(built, FEATURED_IN_CATEGORY, key));
+        }
+        // A built snapshot takes incremental changes like any other
+        CatalogSnapshot changed = built.withChanges(List.of(row(7, 1, 4, true, T0.plusDays(1))), List.of(8L),
+                Map.of(), Map.of(), Map.of());
+        assertEquals(7L, (long) listing(changed, SUB_CATEGORY, 4).get(0));
+        assertNull(changed.get(8));
+    }
+
+    @Test
+    void builderRejectsIdsOutOfOrder() {
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder().add(row(5, 1, 1, false, T0));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(row(5, 1, 1, false, T0)));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(row(4, 1, 1, false, T0)));
+    }
+
+    // Random upserts and removals checked against a map of what the snapshot should hold
+    @Test
+    void randomChangesMatchAPlainModel() {
+        Random random = new Random(42);
+        Map<Long, CatalogRow> model = new HashMap<>();
+        CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+        for (int step = 0; step < 500; step++) {
+            List<CatalogRow> upserts = new ArrayList<>();
+            List<Long> removals = new ArrayList<>();
+            int changes = step == 0 ? 2000 : random.nextInt(30);
+            for (int i = 0; i < changes; i++) {
+                long id = 1 + random.nextInt(2500);
+                if (random.nextInt(4) == 0) {
+                    removals.add(id);
+                } else {
+                    upserts.add(row(id, 1 + random.nextInt(3), random.nextInt(4), random.nextBoolean(),
+                            T0.plusSeconds(random.nextInt(50))));
+                }
+            }
+            CatalogSnapshot previous = snapshot;
+            List<Long> previousListing = listing(previous, SUB_CATEGORY, 1);
+
+            snapshot = snapshot.withChanges(upserts, removals, Map.of(), Map.of(), Map.of());
+            Set<Long> dropped = new HashSet<>(removals);
+            removals.forEach(model::remove);
+            upserts.stream().filter(row -> !dropped.contains(row.id())).forEach(row -> model.put(row.id(), row));
+            if (step % 100 == 99) {
+                snapshot = snapshot.compact();
+            }
+
+            assertEquals(previousListing, listing(previous, SUB_CATEGORY, 1), "older snapshot changed");
+            assertMatches(model, snapshot, random);
+        }
+    }
+
+    private static void assertMatches(Map<Long, CatalogRow> model, CatalogSnapshot snapshot, Random random) {
+        assertEquals(model.size(), snapshot.size());
+        model.forEach((id, row) -> assertEquals(row, snapshot.get(id)));
+        for (long key = 1; key < 4; key++) {
+            long k = key;
+            List<CatalogRow> expected = model.values().stream()
+                    .filter(row -> row.subCategoryId() == k)
+                    .sorted(LISTING_ORDER)
+                    .collect(Collectors.toList());
+            assertEquals(ids(expected), listing(snapshot, SUB_CATEGORY, k));
+            if (!expected.isEmpty()) {
+                int position = random.nextInt(expected.size());
+                CatalogRow cursor = expected.get(position);
+                assertEquals(ids(expected.subList(position + 1, Math.min(expected.size(), position + 6))),
+                        ids(snapshot.after(SUB_CATEGORY, k, cursor.createdAt(), cursor.id(), 5)));
+            }
+
+            List<Long> featured = model.values().stream()
+                    .filter(row -> row.featured() && row.categoryId() == k)
+                    .sorted(LISTING_ORDER)
+                    .map(CatalogRow::id)
+                    .collect(Collectors.toList());
+            assertEquals(featured, listing(snapshot, FEATURED_IN_CATEGORY, k));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.My.E_CommerceApp.Import;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRecordReaderTest {
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new StringReader(input));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertEquals(List.of(List.of("name", "price"), List.of("Phone", "199.99")),
+                readAll("name,price\nPhone,199.99\n"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("a", "", "", "d"), List.of("", "")), readAll("a,,,d\n,\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndDoubledQuotes() throws IOException {
+        assertEquals(List.of(List.of("Phone, 128 GB", "say \"hi\"", "")),
+                readAll("\"Phone, 128 GB\",\"say \"\"hi\"\"\",\"\"\n"));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("6\" screen", "x")), readAll("6\" screen,x\n"));
+    }
+
+    @Test
+    void quotedFieldsMayContainLineBreaks() throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new StringReader("id,text\n1,\"first\nsecond\r\nthird\"\n2,next\n"));
+
+        assertEquals(List.of("id", "text"), csv.next());
+        assertEquals(List.of("1", "first\nsecond\r\nthird"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("2", "next"), csv.next());
+        assertEquals(5, csv.getRecordLine());
+    }
+
+    @Test
+    void handlesCrlfAndMissingFinalNewline() throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new StringReader("a,b\r\nc,d\r\ne,f"));
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c", "d"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("e", "f"), csv.next());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void skipsBlankLinesButCountsThem() throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new StringReader("a\n\r\n\nb\n\n"));
+
+        assertEquals(List.of("a"), csv.next());
+        assertEquals(List.of("b"), csv.next());
+        assertEquals(4, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void skipsLeadingByteOrderMark() throws IOException {
+        assertEquals(List.of(List.of("name", "price")), readAll("\uFEFFname,price\n"));
+        assertEquals(List.of(List.of("name", "price")), readAll("\uFEFF\"name\",price\n"));
+        // Only at the very start of the input
+        assertEquals(List.of(List.of("a"), List.of("\uFEFFb")), readAll("a\n\uFEFFb\n"));
+    }
+
+    @Test
+    void honoursCustomSeparator() throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new StringReader("a;\"b;c\",d\n"), ';');
+        assertEquals(List.of("a", "b;c,d"), csv.next());
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertEquals(List.of(), readAll(""));
+        assertEquals(List.of(), readAll("\uFEFF"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        IOException ex = assertThrows(IOException.class, () -> readAll("a,b\n1,\"open\n2,x\n"));
+        assertTrue(ex.getMessage().contains("line 2"));
+    }
+
+    @Test
+    void rejectsOverlongField() {
+        String field = "x".repeat(64 * 1024 + 1);
+        assertThrows(IOException.class, () -> readAll("a," + field + "\n"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.My.E_CommerceApp.Recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CoOccurrenceMatrixTest {
+
+    @Test
+    void countsEveryPairOfABasketSymmetrically() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addBasket(new long[]{1, 2, 3});
+        matrix.addBasket(new long[]{1, 2});
+        matrix.addBasket(new long[]{4});
+
+        assertEquals(4, matrix.productCount());
+        assertEquals(4, matrix.pairCount());
+        assertEquals(new CoOccurrenceMatrix.Neighbours(new long[]{2, 3}, new int[]{2, 1}),
+                matrix.topNeighbours(1, 10, 1));
+        assertEquals(new CoOccurrenceMatrix.Neighbours(new long[]{1, 3}, new int[]{2, 1}),
+                matrix.topNeighbours(2, 10, 1));
+        assertEquals(0, matrix.topNeighbours(4, 10, 1).size());
+    }
+
+    @Test
+    void topNeighboursRespectsKMinCountAndBreaksTiesByLowerId() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        for (int i = 0; i < 3; i++) {
+            matrix.addBasket(new long[]{1, 9});
+            matrix.addBasket(new long[]{1, 5});
+        }
+        matrix.addBasket(new long[]{1, 7});
+        matrix.addBasket(new long[]{1, 7});
+        matrix.addBasket(new long[]{1, 8});
+
+        assertEquals(new CoOccurrenceMatrix.Neighbours(new long[]{5, 9}, new int[]{3, 3}),
+                matrix.topNeighbours(1, 2, 1));
+        assertEquals(new CoOccurrenceMatrix.Neighbours(new long[]{5, 9, 7}, new int[]{3, 3, 2}),
+                matrix.topNeighbours(1, 10, 2));
+        assertSame(CoOccurrenceMatrix.Neighbours.EMPTY, matrix.topNeighbours(1, 0, 1));
+        assertSame(CoOccurrenceMatrix.Neighbours.EMPTY, matrix.topNeighbours(404, 5, 1));
+    }
+
+    @Test
+    void topNeighboursMatchesAFullSortOfPlainCounts() {
+        Random random = new Random(11);
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+        for (int order = 0; order < 5_000; order++) {
+            Set<Long> basket = new HashSet<>();
+            int items = 2 + random.nextInt(4);
+            while (basket.size() < items) {
+                basket.add(1L + random.nextInt(60));
+            }
+            matrix.addBasket(basket.stream().mapToLong(Long::longValue).toArray());
+            for (Long a : basket) {
+                for (Long b : basket) {
+                    if (!a.equals(b)) {
+                        counts.computeIfAbsent(a, key -> new HashMap<>()).merge(b, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        for (long productId = 1; productId <= 60; productId++) {
+            List<Map.Entry<Long, Integer>> expected = counts.getOrDefault(productId, Map.of()).entrySet().stream()
+                    .filter(entry -> entry.getValue() >= 20)
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(5)
+                    .toList();
+
+            CoOccurrenceMatrix.Neighbours top = matrix.topNeighbours(productId, 5, 20);
+            assertArrayEquals(expected.stream().mapToLong(Map.Entry::getKey).toArray(), top.productIds());
+            assertArrayEquals(expected.stream().mapToInt(Map.Entry::getValue).toArray(), top.counts());
+        }
+    }
+
+    @Test
+    void mergeAddsCountsOfPartialMatrices() {
+        CoOccurrenceMatrix whole = new CoOccurrenceMatrix();
+        CoOccurrenceMatrix left = new CoOccurrenceMatrix();
+        CoOccurrenceMatrix right = new CoOccurrenceMatrix();
+        long[][] baskets = {{1, 2}, {2, 3, 4}, {1, 2, 3}, {5, 6}, {1, 6}};
+        for (int i = 0; i < baskets.length; i++) {
+            whole.addBasket(baskets[i]);
+            (i % 2 == 0 ? left : right).addBasket(baskets[i]);
+        }
+
+        left.merge(right);
+
+        assertEquals(whole.productCount(), left.productCount());
+        assertEquals(whole.pairCount(), left.pairCount());
+        for (long productId = 1; productId <= 6; productId++) {
+            assertEquals(whole.topNeighbours(productId, 10, 1), left.topNeighbours(productId, 10, 1));
+        }
+        Set<Long> products = new HashSet<>();
+        left.forEachProduct(products::add);
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L), products);
+    }
+}
@@ -0,0 +1,114 @@
+package com.My.E_CommerceApp.Recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CosineTopKTest {
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    @Test
+    void ranksBySharedWeightAndSkipsItself() {
+        float half = (float) Math.sqrt(0.5);
+        int[][] features = {{0, 1}, {0, 1}, {0, 2}, {3}};
+        float[][] weights = {{half, half}, {half, half}, {half, half}, {1f}};
+
+        CosineTopK.Result result = CosineTopK.compute(features, weights, new boolean[]{true, true, true, true},
+                4, 5, 0f, pool);
+
+        assertArrayEquals(new int[]{1, 2}, result.neighbours()[0]);
+        assertEquals(1f, result.similarities()[0][0], 1e-6);
+        assertEquals(0.5f, result.similarities()[0][1], 1e-6);
+        assertArrayEquals(new int[]{0, 1}, result.neighbours()[2]);
+        // Shares no feature with anyone
+        assertArrayEquals(new int[0], result.neighbours()[3]);
+    }
+
+    @Test
+    void honoursCandidatesMinSimilarityAndK() {
+        float half = (float) Math.sqrt(0.5);
+        int[][] features = {{0, 1}, {0, 1}, {0, 2}, {0, 3}};
+        float[][] weights = {{half, half}, {half, half}, {half, half}, {half, half}};
+
+        // Vector 1 is out of stock: it still gets neighbours but is nobody's neighbour
+        CosineTopK.Result result = CosineTopK.compute(features, weights, new boolean[]{true, false, true, true},
+                4, 1, 0.4f, pool);
+
+        assertArrayEquals(new int[]{2}, result.neighbours()[0]);
+        assertArrayEquals(new int[]{0}, result.neighbours()[1]);
+
+        result = CosineTopK.compute(features, weights, new boolean[]{true, false, true, true}, 4, 5, 0.6f, pool);
+        assertArrayEquals(new int[0], result.neighbours()[0]);
+    }
+
+    // Enough vectors to split into several fork/join leaves; compared with scoring every pair
+    @Test
+    void matchesBruteForceAcrossLeaves() {
+        Random random = new Random(3);
+        int n = 700;
+        int featureCount = 40;
+        int[][] features = new int[n][];
+        float[][] weights = new float[n][];
+        boolean[] candidate = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            features[i] = random.ints(0, featureCount).distinct().limit(1 + random.nextInt(5)).sorted().toArray();
+            weights[i] = new float[features[i].length];
+            double norm = 0;
+            for (int e = 0; e < weights[i].length; e++) {
+                weights[i][e] = 0.25f * (1 + random.nextInt(4));
+                norm += weights[i][e] * weights[i][e];
+            }
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int e = 0; e < weights[i].length; e++) {
+                weights[i][e] *= scale;
+            }
+            candidate[i] = random.nextInt(5) != 0;
+        }
+
+        int k = 8;
+        float minSimilarity = 0.3f;
+        CosineTopK.Result result = CosineTopK.compute(features, weights, candidate, featureCount, k, minSimilarity, pool);
+
+        for (int i = 0; i < n; i++) {
+            List<float[]> scored = new ArrayList<>();
+            for (int j = 0; j < n; j++) {
+                if (j != i && candidate[j]) {
+                    float score = dot(features[i], weights[i], features[j], weights[j]);
+                    if (score > 0 && score >= minSimilarity) {
+                        scored.add(new float[]{j, score});
+                    }
+                }
+            }
+            scored.sort(Comparator.<float[]>comparingDouble(entry -> -entry[1]).thenComparingDouble(entry -> entry[0]));
+            int[] expected = scored.stream().limit(k).mapToInt(entry -> (int) entry[0]).toArray();
+
+            assertArrayEquals(expected, result.neighbours()[i], "vector " + i);
+            for (int r = 0; r < expected.length; r++) {
+                assertEquals(scored.get(r)[1], result.similarities()[i][r], 1e-6, "vector " + i);
+            }
+        }
+    }
+
+    // Sums in ascending feature order, as the inverted index does, so equal scores tie exactly
+    private static float dot(int[] featuresA, float[] weightsA, int[] featuresB, float[] weightsB) {
+        float sum = 0;
+        for (int a = 0, b = 0; a < featuresA.length && b < featuresB.length; ) {
+            if (featuresA[a] == featuresB[b]) {
+                sum += weightsA[a++] * weightsB[b++];
+            } else if (featuresA[a] < featuresB[b]) {
+                a++;
+            } else {
+                b++;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,96 @@
+package com.My.E_CommerceApp.Recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(7, -1));
+
+        map.put(7, 70);
+        map.put(Long.MAX_VALUE, 1);
+        map.put(-3, 2);
+        map.put(7, 71);
+
+        assertEquals(3, map.size());
+        assertEquals(71, map.get(7, -1));
+        assertEquals(1, map.get(Long.MAX_VALUE, -1));
+        assertEquals(2, map.get(-3, -1));
+        assertTrue(map.containsKey(-3));
+        assertFalse(map.containsKey(8));
+    }
+
+    @Test
+    void addToStartsAtZero() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(5, map.addTo(42, 5));
+        assertEquals(3, map.addTo(42, -2));
+        assertEquals(3, map.get(42, 0));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void growsPastTheInitialCapacityWithoutLosingEntries() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 100_000; key++) {
+            map.put(key, (int) key * 3);
+        }
+
+        assertEquals(100_000, map.size());
+        for (long key = 1; key <= 100_000; key++) {
+            assertEquals((int) key * 3, map.get(key, -1));
+        }
+        assertFalse(map.containsKey(100_001));
+    }
+
+    // Keys that are equal modulo the table size all hash near each other: exercises long probe runs
+    @Test
+    void collidingKeysProbeToFreeSlots() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 1; i <= 5_000; i++) {
+            map.addTo((long) i << 32, i);
+        }
+        for (int i = 1; i <= 5_000; i++) {
+            assertEquals(i, map.get((long) i << 32, -1));
+        }
+    }
+
+    @Test
+    void forEachVisitsEveryEntryOnce() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long key = 1 + random.nextInt(3_000);
+            int delta = random.nextInt(10);
+            map.addTo(key, delta);
+            expected.merge(key, delta, Integer::sum);
+        }
+
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(expected, seen);
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    void rejectsTheEmptyKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.get(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(0, 1));
+    }
+}
@@ -0,0 +1,69 @@
+package com.My.E_CommerceApp.Recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NeighbourTableTest {
+
+    @Test
+    void looksUpListsAddedInAnyOrder() {
+        NeighbourTable table = new NeighbourTable.Builder()
+                .put(30, new long[]{31, 32, 33})
+                .put(10, new long[]{11})
+                .put(20, new long[0])
+                .build();
+
+        assertEquals(3, table.size());
+        assertArrayEquals(new long[]{11}, table.get(10, 5));
+        assertArrayEquals(new long[0], table.get(20, 5));
+        assertArrayEquals(new long[]{31, 32, 33}, table.get(30, 5));
+        assertArrayEquals(new long[0], table.get(15, 5));
+    }
+
+    @Test
+    void limitTruncatesInStoredOrder() {
+        NeighbourTable table = new NeighbourTable.Builder().put(1, new long[]{9, 7, 8}).build();
+
+        assertArrayEquals(new long[]{9, 7}, table.get(1, 2));
+        assertArrayEquals(new long[0], table.get(1, 0));
+    }
+
+    @Test
+    void returnedArraysAreCopies() {
+        NeighbourTable table = new NeighbourTable.Builder().put(1, new long[]{2, 3}).build();
+
+        table.get(1, 5)[0] = 99;
+
+        assertArrayEquals(new long[]{2, 3}, table.get(1, 5));
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        NeighbourTable.Builder builder = new NeighbourTable.Builder();
+        for (long id = 5_000; id >= 1; id--) {
+            builder.put(id, new long[]{id + 1, id + 2});
+        }
+        NeighbourTable table = builder.build();
+
+        assertEquals(5_000, table.size());
+        for (long id = 1; id <= 5_000; id++) {
+            assertArrayEquals(new long[]{id + 1, id + 2}, table.get(id, 5));
+        }
+    }
+
+    @Test
+    void emptyTableKnowsNothing() {
+        assertEquals(0, NeighbourTable.EMPTY.size());
+        assertArrayEquals(new long[0], NeighbourTable.EMPTY.get(1, 5));
+        assertEquals(0, new NeighbourTable.Builder().build().size());
+    }
+
+    @Test
+    void rejectsDuplicateProducts() {
+        NeighbourTable.Builder builder = new NeighbourTable.Builder().put(1, new long[]{2}).put(1, new long[]{3});
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
@@ -0,0 +1,135 @@
+package com.My.E_CommerceApp.Search;
+
+import com.My.E_CommerceApp.Search.ProductFacetIndex.FacetCount;
+import com.My.E_CommerceApp.Search.ProductFacetIndex.FacetCounts;
+import com.My.E_CommerceApp.Search.ProductFacetIndex.FacetQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.My.E_CommerceApp.Search.ProductFacetIndex.BRAND;
+import static com.My.E_CommerceApp.Search.ProductFacetIndex.IN_STOCK;
+import static com.My.E_CommerceApp.Search.ProductFacetIndex.PRICE;
+import static com.My.E_CommerceApp.Search.ProductFacetIndex.SUB_CATEGORY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductFacetIndexTest {
+
+    private static final FacetQuery ALL = new FacetQuery(null, null, null, null, null, false, null);
+
+    // Category 1: phones (sub 10) and tablets (sub 11); category 2: one laptop
+    private static ProductFacetIndex catalog() {
+        ProductFacetIndex index = new ProductFacetIndex();
+        index.index(1, 1L, 10L, "Apple", 999, true, Map.of("Color", List.of("Black"), "Storage", List.of("128GB")));
+        index.index(2, 1L, 10L, "Samsung", 799, true, Map.of("Color", List.of("Black"), "Storage", List.of("256GB")));
+        index.index(3, 1L, 10L, "Samsung", 249, false, Map.of("Color", List.of("Blue"), "Storage", List.of("128GB")));
+        index.index(4, 1L, 11L, "Apple", 449, true, Map.of("Color", List.of("Silver")));
+        index.index(5, 2L, 20L, "Lenovo", 1299, true, Map.of("Color", List.of("Black")));
+        return index;
+    }
+
+    private static FacetQuery query(Long categoryId, Long subCategoryId, String brand, boolean inStockOnly,
+                                    Map<String, List<String>> specs) {
+        return new FacetQuery(categoryId, subCategoryId, null, null, brand, inStockOnly, specs);
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        FacetCounts counts = catalog().count(ALL);
+
+        assertEquals(5, counts.total());
+        // Most products first, ties by label
+        assertEquals(List.of(new FacetCount("apple", "Apple", 2), new FacetCount("samsung", "Samsung", 2),
+                new FacetCount("lenovo", "Lenovo", 1)), counts.facets().get(BRAND));
+        assertEquals(List.of(new FacetCount("true", "In stock", 4)), counts.facets().get(IN_STOCK));
+        assertEquals(List.of(new FacetCount("black", "Black", 3), new FacetCount("blue", "Blue", 1),
+                new FacetCount("silver", "Silver", 1)), counts.facets().get("spec:color"));
+    }
+
+    @Test
+    void categoryScopesEveryCount() {
+        FacetCounts counts = catalog().count(query(1L, null, null, false, null));
+
+        assertEquals(4, counts.total());
+        assertEquals(List.of(new FacetCount("10", "10", 3), new FacetCount("11", "11", 1)),
+                counts.facets().get(SUB_CATEGORY));
+        assertFalse(counts.facets().get(BRAND).stream().anyMatch(count -> count.value().equals("lenovo")));
+    }
+
+    // A facet's own filter is left out of its counts, so the alternatives stay visible
+    @Test
+    void eachFacetIsCountedAgainstTheOtherFilters() {
+        FacetCounts counts = catalog().count(query(1L, 10L, "sams", false, Map.of("Color", List.of("Black"))));
+
+        assertEquals(1, counts.total());
+        // Sub-category 10, black: Apple and Samsung remain choosable
+        assertEquals(List.of(new FacetCount("apple", "Apple", 1), new FacetCount("samsung", "Samsung", 1)),
+                counts.facets().get(BRAND));
+        // Samsung in sub-category 10: black and blue
+        assertEquals(List.of(new FacetCount("black", "Black", 1), new FacetCount("blue", "Blue", 1)),
+                counts.facets().get("spec:color"));
+        // Samsung, black, in category 1: only phones
+        assertEquals(List.of(new FacetCount("10", "10", 1)), counts.facets().get(SUB_CATEGORY));
+        assertEquals(List.of(new FacetCount("256gb", "256GB", 1)), counts.facets().get("spec:storage"));
+    }
+
+    @Test
+    void specValuesAreOredWithinAKeyAndMatchedCaseInsensitively() {
+        FacetCounts counts = catalog().count(query(null, null, null, true,
+                Map.of(" COLOR ", List.of("blue", " Silver "))));
+
+        // Blue is out of stock, so only the silver tablet is left
+        assertEquals(1, counts.total());
+        assertEquals(List.of(new FacetCount("apple", "Apple", 1)), counts.facets().get(BRAND));
+    }
+
+    @Test
+    void priceBucketsAreOrderedByRangeAndFilteredByPrice() {
+        ProductFacetIndex index = catalog();
+
+        assertEquals(List.of("100-250", "250-500", "500-1000", "1000+"),
+                index.count(ALL).facets().get(PRICE).stream().map(FacetCount::value).toList());
+
+        FacetCounts between = index.count(new FacetQuery(null, null, 250.0, 999.0, null, false, null));
+        assertEquals(3, between.total());
+        // Price is not narrowed by its own filter
+        assertEquals(4, between.facets().get(PRICE).size());
+        assertEquals("0-25", ProductFacetIndex.priceBucket(0));
+        assertEquals("25-50", ProductFacetIndex.priceBucket(25));
+        assertEquals("1000+", ProductFacetIndex.priceBucket(1000));
+    }
+
+    @Test
+    void removedProductsLeaveEveryBitmapAndTheirOrdinalIsReused() {
+        ProductFacetIndex index = catalog();
+
+        index.remove(5);
+        index.remove(42);
+        assertEquals(4, index.size());
+        assertFalse(index.count(ALL).facets().get(BRAND).stream().anyMatch(count -> count.value().equals("lenovo")));
+
+        // Reuses the freed ordinal; nothing of product 5 may leak into product 6
+        index.index(6, 2L, 21L, "Dell", 30, false, Map.of());
+        FacetCounts counts = index.count(query(2L, null, null, false, null));
+        assertEquals(1, counts.total());
+        assertEquals(List.of(new FacetCount("dell", "Dell", 1)), counts.facets().get(BRAND));
+        assertEquals(List.of(), counts.facets().get(IN_STOCK));
+        assertFalse(counts.facets().containsKey("spec:color"));
+    }
+
+    @Test
+    void reindexingReplacesThePreviousValues() {
+        ProductFacetIndex index = catalog();
+
+        index.index(3, 1L, 10L, "Samsung", 249, true, Map.of("Color", List.of("Green")));
+
+        FacetCounts counts = index.count(ALL);
+        assertEquals(5, counts.total());
+        assertEquals(List.of(new FacetCount("true", "In stock", 5)), counts.facets().get(IN_STOCK));
+        assertFalse(counts.facets().get("spec:color").stream().anyMatch(count -> count.value().equals("blue")));
+        assertEquals(List.of(new FacetCount("128gb", "128GB", 1), new FacetCount("256gb", "256GB", 1)),
+                counts.facets().get("spec:storage"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.My.E_CommerceApp.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private static void index(ProductSearchIndex index, long id, String name, String description) {
+        index.index(id, name, null, description, List.of(), 0, 0.0);
+    }
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Leather wallet", "Fits a phone charger");
+        index(index, 2, "Phone charger", "Fast charging");
+
+        assertEquals(List.of(2L, 1L), index.search("charger", 10).productIds());
+    }
+
+    @Test
+    void productsMatchingMoreTermsRankFirst() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Running shoes", null);
+        index(index, 2, "Red running shoes", null);
+        index(index, 3, "Red hat", null);
+
+        ProductSearchIndex.Hits hits = index.search("red shoes", 10);
+
+        assertEquals(2L, (long) hits.productIds().get(0));
+        assertEquals(3, hits.totalMatches());
+    }
+
+    @Test
+    void equalScoresPutTheNewestProductFirst() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 5; id++) {
+            index(index, id, "Plain mug", null);
+        }
+
+        assertEquals(List.of(5L, 4L, 3L), index.search("mug", 3).productIds());
+    }
+
+    @Test
+    void limitKeepsTheBestHitsAndCountsEveryMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 50; id++) {
+            index.index(id, "Desk lamp", null, null, List.of(), (int) id, 0.0);
+        }
+
+        ProductSearchIndex.Hits hits = index.search("lamp", 4);
+
+        // Popularity breaks the text tie: best sellers first
+        assertEquals(List.of(50L, 49L, 48L, 47L), hits.productIds());
+        assertEquals(50, hits.totalMatches());
+    }
+
+    // The bounded heap must pick exactly the head of the full ranking
+    @Test
+    void boundedResultsArePrefixesOfTheFullRanking() {
+        String[] words = {"steel", "bottle", "water", "glass", "travel", "mug", "lid", "blue", "black", "insulated"};
+        Random random = new Random(11);
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 2_000; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < 1 + random.nextInt(4); w++) {
+                name.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            index.index(id, name.toString(), null, words[random.nextInt(words.length)], List.of(),
+                    random.nextInt(500), random.nextInt(6));
+        }
+
+        for (String query : List.of("steel bottle", "blue", "insulated travel mug", "glas")) {
+            ProductSearchIndex.Hits all = index.search(query, Integer.MAX_VALUE);
+            assertEquals(all.totalMatches(), all.productIds().size(), query);
+            for (int limit : new int[]{1, 7, 100, all.totalMatches() + 5}) {
+                ProductSearchIndex.Hits top = index.search(query, limit);
+                List<Long> expected = all.productIds().subList(0, Math.min(limit, all.totalMatches()));
+                assertEquals(expected, top.productIds(), query + " / " + limit);
+                assertEquals(all.totalMatches(), top.totalMatches(), query);
+            }
+        }
+    }
+
+    @Test
+    void lastQueryTermAlsoMatchesAsPrefix() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Bluetooth speaker", null);
+        index(index, 2, "Blue speaker", null);
+        index(index, 3, "Blue bottle", null);
+
+        ProductSearchIndex.Hits hits = index.search("speaker blu", 10);
+        // Both completions weigh the same; "bluetooth" is the rarer term
+        assertEquals(List.of(1L, 2L, 3L), hits.productIds());
+        // Only the term being typed is a prefix
+        assertEquals(2, index.search("blu speaker", 10).totalMatches());
+    }
+
+    @Test
+    void toleratesSmallTypos() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Keyboard", null);
+        index(index, 2, "Headphones", null);
+
+        assertEquals(List.of(1L), index.search("keybaord", 10).productIds());
+        assertEquals(List.of(2L), index.search("hedphones", 10).productIds());
+        // Too short for typo tolerance
+        assertEquals(List.of(), index.search("kez", 10).productIds());
+    }
+
+    @Test
+    void reindexingReplacesOldTermsAndRemovingDropsTheProduct() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Wooden chair", null);
+        index(index, 1, "Metal stool", null);
+
+        assertEquals(List.of(), index.search("wooden", 10).productIds());
+        assertEquals(List.of(1L), index.search("stool", 10).productIds());
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        index.remove(42);
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.search("stool", 10).productIds());
+    }
+
+    @Test
+    void emptyQueriesAndLimitsMatchNothing() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index(index, 1, "Anything", null);
+
+        assertSame(ProductSearchIndex.Hits.NONE, index.search(" the ", 10));
+        assertSame(ProductSearchIndex.Hits.NONE, index.search(null, 10));
+        assertSame(ProductSearchIndex.Hits.NONE, index.search("anything", 0));
+        assertTrue(new ProductSearchIndex().search("anything", 10).productIds().isEmpty());
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertEquals(0, ProductSearchIndex.editDistance("phone", "phone", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("phone", "hpone", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("phone", "phones", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("phone", "fone", 2));
+        // Beyond the budget only "more than maxEdits" is reported
+        assertTrue(ProductSearchIndex.editDistance("phone", "tablet", 1) > 1);
+    }
+}
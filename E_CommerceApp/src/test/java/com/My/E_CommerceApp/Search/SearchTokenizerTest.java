@@ -0,0 +1,47 @@
+package com.My.E_CommerceApp.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTokenizerTest {
+
+    @Test
+    void lowerCasesAndSplitsOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("usb", "c", "cable", "2m", "braided"),
+                SearchTokenizer.tokenize("USB-C Cable, 2m (braided)!"));
+    }
+
+    @Test
+    void keepsNonLatinLettersAndDigits() {
+        assertEquals(List.of("müller", "téléphone", "スマートフォン", "128"),
+                SearchTokenizer.tokenize("Müller/Téléphone スマートフォン 128"));
+    }
+
+    @Test
+    void dropsStopWords() {
+        assertEquals(List.of("case", "iphone"), SearchTokenizer.tokenize("The case for an iPhone"));
+    }
+
+    @Test
+    void dropsOverlongTerms() {
+        String limit = "x".repeat(40);
+        assertEquals(List.of(limit, "ok"), SearchTokenizer.tokenize(limit + " " + limit + "y ok"));
+    }
+
+    @Test
+    void emptyInputHasNoTokens() {
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize("   ").isEmpty());
+        assertTrue(SearchTokenizer.tokenize("--- !!").isEmpty());
+        assertTrue(SearchTokenizer.tokenize("the and of").isEmpty());
+    }
+
+    @Test
+    void keepsDuplicatesInOrder() {
+        assertEquals(List.of("red", "shoe", "red"), SearchTokenizer.tokenize("red shoe RED"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.My.E_CommerceApp.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpecAttributeIndexTest {
+
+    @Test
+    void unionsValuesWithinAKeyAndIntersectsAcrossKeys() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        index.index(1, Map.of("RAM", List.of("16GB"), "Color", List.of("Black")));
+        index.index(2, Map.of("RAM", List.of("8GB"), "Color", List.of("Black")));
+        index.index(3, Map.of("RAM", List.of("16GB"), "Color", List.of("Silver")));
+        index.index(4, Map.of("Color", List.of("Black", "Silver")));
+
+        assertArrayEquals(new long[]{1, 3}, index.findProductIds(Map.of("RAM", List.of("16GB"))));
+        assertArrayEquals(new long[]{1, 2}, index.findProductIds(Map.of("RAM", List.of("16GB", "8GB"),
+                "Color", List.of("Black"))));
+        assertArrayEquals(new long[]{3, 4}, index.findProductIds(Map.of("Color", List.of("Silver"))));
+        assertArrayEquals(new long[]{1, 3}, index.findProductIds(Map.of("RAM", List.of("16GB"),
+                "Color", List.of("Black", "Silver"))));
+    }
+
+    @Test
+    void matchesKeysAndValuesIgnoringCaseAndSurroundingWhitespace() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        index.index(1, Map.of(" Storage ", List.of(" 256 GB ")));
+        index.index(2, Map.of("storage", List.of("256 gb")));
+
+        assertArrayEquals(new long[]{1, 2}, index.findProductIds(Map.of("STORAGE", List.of("256 GB  "))));
+        assertEquals(1, index.attributeCount());
+    }
+
+    @Test
+    void unknownKeysOrValuesMatchNothing() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        index.index(1, Map.of("RAM", List.of("16GB")));
+
+        assertArrayEquals(new long[0], index.findProductIds(Map.of("Weight", List.of("1kg"))));
+        assertArrayEquals(new long[0], index.findProductIds(Map.of("RAM", List.of("32GB"))));
+        assertArrayEquals(new long[0], index.findProductIds(Map.of("RAM", List.of("16GB"), "Color", List.of("Red"))));
+        assertArrayEquals(new long[0], index.findProductIds(Map.of()));
+    }
+
+    @Test
+    void reindexingAndRemovingUpdateThePostings() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        index.index(1, Map.of("RAM", List.of("16GB")));
+        index.index(2, Map.of("RAM", List.of("16GB")));
+
+        index.index(1, Map.of("RAM", List.of("8GB")));
+        assertArrayEquals(new long[]{2}, index.findProductIds(Map.of("RAM", List.of("16GB"))));
+        assertArrayEquals(new long[]{1}, index.findProductIds(Map.of("RAM", List.of("8GB"))));
+
+        index.remove(2);
+        index.index(1, null);
+        assertEquals(0, index.size());
+        assertArrayEquals(new long[0], index.findProductIds(Map.of("RAM", List.of("16GB", "8GB"))));
+    }
+
+    @Test
+    void blankKeysAndValuesAreIgnored() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        Map<String, List<String>> specifications = new HashMap<>();
+        specifications.put(" ", List.of("x"));
+        specifications.put("RAM", Arrays.asList("", null, "16GB"));
+        index.index(1, specifications);
+
+        assertEquals(1, index.attributeCount());
+        assertArrayEquals(new long[]{1}, index.findProductIds(Map.of("RAM", List.of("16GB"))));
+    }
+
+    @Test
+    void returnedIdsAreCopies() {
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        index.index(1, Map.of("RAM", List.of("16GB")));
+
+        index.findProductIds(Map.of("RAM", List.of("16GB")))[0] = 99;
+
+        assertArrayEquals(new long[]{1}, index.findProductIds(Map.of("RAM", List.of("16GB"))));
+    }
+
+    // Out-of-order inserts, small vs large lists (binary-search intersection) and unions, against a brute-force scan
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(5);
+        String[] colors = {"black", "white", "red", "blue"};
+        SpecAttributeIndex index = new SpecAttributeIndex();
+        Map<Long, Map<String, List<String>>> catalog = new HashMap<>();
+        for (long id : random.longs(3_000, 1, 1_000_000).distinct().toArray()) {
+            Map<String, List<String>> specifications = new HashMap<>();
+            specifications.put("color", List.of(colors[random.nextInt(colors.length)]));
+            if (random.nextInt(50) == 0) {
+                specifications.put("edition", List.of("limited"));
+            }
+            if (random.nextBoolean()) {
+                specifications.put("size", List.of("s", "m", "l").subList(0, 1 + random.nextInt(3)));
+            }
+            index.index(id, specifications);
+            catalog.put(id, specifications);
+        }
+
+        List<Map<String, List<String>>> queries = List.of(
+                Map.of("color", List.of("red")),
+                Map.of("color", List.of("red", "blue"), "size", List.of("m")),
+                Map.of("edition", List.of("limited"), "color", List.of("black", "white", "red")),
+                Map.of("edition", List.of("limited"), "size", List.of("l", "s")));
+        for (Map<String, List<String>> query : queries) {
+            long[] expected = catalog.entrySet().stream()
+                    .filter(product -> query.entrySet().stream().allMatch(filter ->
+                            product.getValue().getOrDefault(filter.getKey(), List.of()).stream()
+                                    .anyMatch(Set.copyOf(filter.getValue())::contains)))
+                    .mapToLong(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, index.findProductIds(query), query.toString());
+        }
+    }
+
+    @Test
+    void mergesSortedIdLists() {
+        SpecAttributeIndex.IdList odd = new SpecAttributeIndex.IdList(new long[]{1, 3, 5, 7, 0, 0}, 4);
+        SpecAttributeIndex.IdList low = new SpecAttributeIndex.IdList(new long[]{1, 2, 3}, 3);
+        SpecAttributeIndex.IdList many = new SpecAttributeIndex.IdList(LongStream.rangeClosed(1, 100).toArray(), 100);
+
+        assertArrayEquals(new long[]{1, 2, 3, 5, 7}, valid(SpecAttributeIndex.union(odd, low)));
+        assertArrayEquals(new long[]{1, 3}, valid(SpecAttributeIndex.intersect(odd, low)));
+        assertArrayEquals(new long[]{1, 3, 5, 7}, valid(SpecAttributeIndex.intersect(many, odd)));
+        assertArrayEquals(new long[0], valid(SpecAttributeIndex.intersect(odd, SpecAttributeIndex.IdList.EMPTY)));
+    }
+
+    private static long[] valid(SpecAttributeIndex.IdList list) {
+        return Arrays.copyOf(list.ids(), list.size());
+    }
+}
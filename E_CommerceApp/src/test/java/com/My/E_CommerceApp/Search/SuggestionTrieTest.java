@@ -0,0 +1,160 @@
+package com.My.E_CommerceApp.Search;
+
+import com.My.E_CommerceApp.Search.SuggestionTrie.Suggestion;
+import com.My.E_CommerceApp.Search.SuggestionTrie.SuggestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+
+    @Test
+    void ranksCompletionsByWeightThenText() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.index(1, "Samsung Galaxy S23", "Samsung", null, null, 5);
+        trie.index(2, "Samsung Galaxy Tab", "Samsung", null, null, 9);
+        trie.index(3, "Sandisk Ultra", "Sandisk", null, null, 1);
+
+        assertEquals(List.of("Samsung", "Samsung Galaxy Tab", "Samsung Galaxy S23", "Sandisk", "Sandisk Ultra"),
+                texts(trie.suggest("sa", 10)));
+
+        List<Suggestion> brand = trie.suggest("samsung", 1);
+        assertEquals(new Suggestion("Samsung", SuggestionType.BRAND, 14), brand.get(0));
+    }
+
+    @Test
+    void completesFromTheStartOfLaterWords() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.index(1, "Samsung Galaxy S23", null, "Phones", "Android Phones", 1);
+
+        assertEquals(List.of("Samsung Galaxy S23"), texts(trie.suggest("gal", 10)));
+        assertEquals(List.of("Samsung Galaxy S23"), texts(trie.suggest("s2", 10)));
+        assertEquals(List.of("Android Phones", "Phones"), texts(trie.suggest("phon", 10)));
+        // Only word starts: no match in the middle of a word
+        assertEquals(List.of(), texts(trie.suggest("laxy", 10)));
+    }
+
+    @Test
+    void prefixesAreNormalisedLikeThePhrases() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.index(1, "USB-C  Hub", null, null, null, 1);
+
+        assertEquals(List.of("USB-C  Hub"), texts(trie.suggest("  usb c h", 10)));
+        assertEquals(List.of("USB-C  Hub"), texts(trie.suggest("USB-C", 10)));
+        assertEquals(List.of(), texts(trie.suggest("usbc", 10)));
+    }
+
+    @Test
+    void limitAndTopKCapTheResults() {
+        SuggestionTrie trie = new SuggestionTrie();
+        for (int i = 1; i <= 25; i++) {
+            trie.index(i, "Cable " + i, null, null, null, i);
+        }
+
+        assertEquals(List.of("Cable 25", "Cable 24", "Cable 23"), texts(trie.suggest("cab", 3)));
+        assertEquals(SuggestionTrie.TOP_K, trie.suggest("cab", 100).size());
+        assertTrue(trie.suggest("cab", 0).isEmpty());
+        assertTrue(trie.suggest("  ", 5).isEmpty());
+        assertTrue(trie.suggest("cabx", 5).isEmpty());
+    }
+
+    @Test
+    void reweightingMovesPhrasesInAndOutOfTheTopK() {
+        SuggestionTrie trie = new SuggestionTrie();
+        for (int i = 1; i <= 12; i++) {
+            trie.index(i, "Lamp " + i, null, null, null, 10 + i);
+        }
+        assertFalse(texts(trie.suggest("lamp", 10)).contains("Lamp 1"));
+
+        trie.index(1, "Lamp 1", null, null, null, 100);
+        assertEquals("Lamp 1", trie.suggest("lamp", 1).get(0).text());
+
+        trie.index(1, "Lamp 1", null, null, null, 1);
+        trie.index(12, "Lamp 12", null, null, null, 0.5);
+        assertEquals(List.of("Lamp 11", "Lamp 10", "Lamp 9", "Lamp 8", "Lamp 7", "Lamp 6", "Lamp 5", "Lamp 4",
+                "Lamp 3", "Lamp 2"), texts(trie.suggest("lamp", 10)));
+    }
+
+    @Test
+    void removingTheLastContributorDropsThePhrase() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.index(1, "Desk", "Ikea", null, null, 2);
+        trie.index(2, "Shelf", "Ikea", null, null, 3);
+
+        trie.remove(1);
+        assertEquals(List.of(), texts(trie.suggest("desk", 10)));
+        assertEquals(3.0, trie.suggest("ikea", 10).get(0).weight(), 0.0);
+
+        trie.remove(2);
+        trie.remove(3);
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), texts(trie.suggest("i", 10)));
+    }
+
+    // Random re-indexing and removal (edge splits, promote, demote, phrase id reuse) against a brute-force ranking
+    @Test
+    void matchesABruteForceRanking() {
+        Random random = new Random(9);
+        String[] first = {"smart", "small", "smoke", "solar", "sonic", "space", "spark"};
+        String[] second = {"watch", "lamp", "alarm", "speaker", "light", "sensor"};
+        String[] brands = {"Sony", "Solis", "Sunbeam", "Sharp"};
+        SuggestionTrie trie = new SuggestionTrie();
+        Map<Long, String[]> products = new HashMap<>();
+        Map<Long, Integer> weights = new HashMap<>();
+
+        for (int step = 0; step < 3_000; step++) {
+            long id = 1 + random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                trie.remove(id);
+                products.remove(id);
+                weights.remove(id);
+            } else {
+                String[] product = {first[random.nextInt(first.length)] + " " + second[random.nextInt(second.length)],
+                        brands[random.nextInt(brands.length)]};
+                int weight = 1 + random.nextInt(50);
+                trie.index(id, product[0], product[1], null, null, weight);
+                products.put(id, product);
+                weights.put(id, weight);
+            }
+
+            if (step % 100 == 99) {
+                for (String prefix : List.of("s", "sm", "sma", "smart w", "so", "sp", "l", "sensor", "x")) {
+                    assertEquals(bruteForce(products, weights, prefix), texts(trie.suggest(prefix, 10)),
+                            "step " + step + " prefix " + prefix);
+                }
+            }
+        }
+    }
+
+    private static List<String> bruteForce(Map<Long, String[]> products, Map<Long, Integer> weights, String prefix) {
+        Map<String, Integer> phraseWeights = new HashMap<>();
+        products.forEach((id, product) -> {
+            for (String text : product) {
+                phraseWeights.merge(text, weights.get(id), Integer::sum);
+            }
+        });
+        List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> phrase : phraseWeights.entrySet()) {
+            String normalized = SuggestionTrie.normalize(phrase.getKey());
+            if (normalized.startsWith(prefix) || normalized.contains(" " + prefix)) {
+                matches.add(phrase);
+            }
+        }
+        matches.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return matches.stream().limit(10).map(Map.Entry::getKey).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.My.E_CommerceApp.Service;
+
+import com.My.E_CommerceApp.Entity.Category;
+import com.My.E_CommerceApp.Entity.FileData;
+import com.My.E_CommerceApp.Entity.Product;
+import com.My.E_CommerceApp.Entity.User;
+import com.My.E_CommerceApp.Entity.Vendor;
+import com.My.E_CommerceApp.Enum.ProductStatus;
+import com.My.E_CommerceApp.Enum.Role;
+import com.My.E_CommerceApp.Enum.VendorStatus;
+import com.My.E_CommerceApp.Repository.CategoryRepo;
+import com.My.E_CommerceApp.Repository.ProductRepo;
+import com.My.E_CommerceApp.Repository.UserRepo;
+import com.My.E_CommerceApp.Repository.VendorRepo;
+import com.My.E_CommerceApp.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class ProductReadPathQueryCountTest {
+
+    // products + images batch + specifications batch (to-one associations are joined)
+    private static final long LISTING_STATEMENT_BUDGET = 4;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepo productRepo;
+    @Autowired
+    private CategoryRepo categoryRepo;
+    @Autowired
+    private VendorRepo vendorRepo;
+    @Autowired
+    private UserRepo userRepo;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void categoryListingStatementCountDoesNotGrowWithPageSize() {
+        Vendor vendor = createVendor();
+        Category smallCategory = createCategoryWithProducts(vendor, 3);
+        Category largeCategory = createCategoryWithProducts(vendor, 30);
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+        long small = counter.assertAtMost(LISTING_STATEMENT_BUDGET,
+                () -> productService.getProductsByCategory(smallCategory.getId()));
+        entityManager.clear();
+        long large = counter.assertAtMost(LISTING_STATEMENT_BUDGET,
+                () -> productService.getProductsByCategory(largeCategory.getId()));
+
+        assertEquals(small, large);
+    }
+
+    private Vendor createVendor() {
+        String suffix = String.valueOf(System.nanoTime());
+
+        User user = new User();
+        user.setFullName("Query Count Vendor");
+        user.setEmail("query-count-" + suffix + "@example.com");
+        user.setPassword("secret");
+        user.setRole(Role.VENDOR_USER);
+        userRepo.save(user);
+
+        Vendor vendor = new Vendor();
+        vendor.setShopName("Query Count Shop " + suffix);
+        vendor.setVendorStatus(VendorStatus.ACTIVE);
+        vendor.setUser(user);
+        return vendorRepo.save(vendor);
+    }
+
+    private Category createCategoryWithProducts(Vendor vendor, int productCount) {
+        Category category = new Category();
+        category.setName("Query Count " + System.nanoTime());
+        categoryRepo.save(category);
+
+        for (int i = 0; i < productCount; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setStock(5);
+            product.setStatus(ProductStatus.ACTIVE);
+            product.setCategory(category);
+            product.setVendor(vendor);
+            product.addSpecification("Color", "Red", 0);
+            product.addSpecification("Size", "M", 1);
+            for (int image = 0; image < 2; image++) {
+                product.getImages().add(FileData.builder()
+                        .fileName("image-" + i + "-" + image + ".png")
+                        .filePath("uploads/products/image-" + i + "-" + image + ".png")
+                        .fileType(".png")
+                        .fileSize(1L)
+                        .sortOrder(image)
+                        .isPrimary(image == 0)
+                        .product(product)
+                        .build());
+            }
+            productRepo.save(product);
+        }
+        return category;
+    }
+}
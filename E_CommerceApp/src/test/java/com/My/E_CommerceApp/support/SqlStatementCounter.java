@@ -0,0 +1,34 @@
+package com.My.E_CommerceApp.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs.
+ * Used to pin endpoints to a fixed number of round trips so N+1 regressions fail the build.
+ */
+public class SqlStatementCounter {
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public long count(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    public long assertAtMost(long maxStatements, Runnable action) {
+        long executed = count(action);
+        assertTrue(executed <= maxStatements,
+                "Expected at most " + maxStatements + " SQL statements but " + executed + " were executed");
+        return executed;
+    }
+}